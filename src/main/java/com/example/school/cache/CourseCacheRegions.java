@@ -0,0 +1,103 @@
+package com.example.school.cache;
+
+import com.example.school.entity.Course;
+import com.example.school.entity.DataImport;
+import com.example.school.event.ImportCompletedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hibernate second-level cache regions for courses, configured in {@code ehcache.xml}. Entity
+ * writes keep the read-write regions current; imports write courses and seat counts with JDBC,
+ * so their completion evicts the regions instead. Hit, miss and put counts are exported per region.
+ */
+@Slf4j
+@Component
+public class CourseCacheRegions {
+
+    public static final String COURSES = "courses";
+    public static final String PREREQUISITES = "courses.prerequisites";
+    public static final String BY_CODE = "courses.byCode";
+    public static final String AVAILABLE = "courses.available";
+
+    private static final List<String> REGIONS = List.of(COURSES, PREREQUISITES, BY_CODE, AVAILABLE);
+
+    private final SessionFactory sessionFactory;
+
+    public CourseCacheRegions(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+        Statistics statistics = sessionFactory.getStatistics();
+        for (String region : REGIONS) {
+            FunctionCounter.builder("cache.gets", statistics, s -> count(s, region, CacheRegionStatistics::getHitCount))
+                    .tag("cache", region)
+                    .tag("result", "hit")
+                    .description("The number of times cache lookup methods have returned a cached value")
+                    .register(meterRegistry);
+            FunctionCounter.builder("cache.gets", statistics, s -> count(s, region, CacheRegionStatistics::getMissCount))
+                    .tag("cache", region)
+                    .tag("result", "miss")
+                    .description("The number of times cache lookup methods have not returned a value")
+                    .register(meterRegistry);
+            FunctionCounter.builder("cache.puts", statistics, s -> count(s, region, CacheRegionStatistics::getPutCount))
+                    .tag("cache", region)
+                    .description("The number of entries added to the cache")
+                    .register(meterRegistry);
+            Gauge.builder("cache.hit.ratio", statistics, s -> hitRatio(s, region))
+                    .tag("cache", region)
+                    .description("Ratio of cache requests which were hits")
+                    .register(meterRegistry);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImportCompleted(ImportCompletedEvent event) {
+        // Course imports add courses and prerequisites, enrollment and grade imports change seat counts
+        if (event.importType() == DataImport.ImportType.COURSES
+                || event.importType() == DataImport.ImportType.ENROLLMENTS
+                || event.importType() == DataImport.ImportType.GRADES) {
+            log.debug("Import {} completed, evicting course cache regions", event.importId());
+            evictAll();
+        }
+    }
+
+    public void evictAll() {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(Course.class);
+        cache.evictCollectionData(Course.class.getName() + ".prerequisites");
+        cache.evictQueryRegion(BY_CODE);
+        cache.evictQueryRegion(AVAILABLE);
+    }
+
+    // For seat counters corrected with JDBC: the courses' entries and the availability query results
+    public void evictCourses(Collection<Long> courseIds) {
+        Cache cache = sessionFactory.getCache();
+        courseIds.forEach(courseId -> cache.evictEntityData(Course.class, courseId));
+        cache.evictQueryRegion(AVAILABLE);
+    }
+
+    // Query regions only exist once a cacheable query has run
+    private static long count(Statistics statistics, String region, ToLongFunction<CacheRegionStatistics> counter) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics == null ? 0 : counter.applyAsLong(regionStatistics);
+    }
+
+    private static double hitRatio(Statistics statistics, String region) {
+        long hits = count(statistics, region, CacheRegionStatistics::getHitCount);
+        long requests = hits + count(statistics, region, CacheRegionStatistics::getMissCount);
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
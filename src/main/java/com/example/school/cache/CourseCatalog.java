@@ -0,0 +1,178 @@
+package com.example.school.cache;
+
+import com.example.school.datasource.PrimaryReads;
+import com.example.school.dto.CourseDTO;
+import com.example.school.entity.DataImport;
+import com.example.school.event.CourseChangedEvent;
+import com.example.school.event.ImportCompletedEvent;
+import com.example.school.repository.CourseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory course catalog held as an immutable snapshot indexed by id and code. Only course data
+ * and prerequisites are held: seat counts change with every enrollment, on every instance, so the
+ * available-capacity list is read live and only mapped through the snapshot. Course writes and
+ * course imports rebuild the snapshot after their commit; a periodic rebuild picks up the course
+ * edits of other instances. Readers never lock and get copies they may modify.
+ */
+@Slf4j
+@Component
+public class CourseCatalog {
+
+    private final CourseRepository courseRepository;
+    private final PrimaryReads primaryReads;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    // Rebuilds that start later read later commits; an older rebuild finishing last must not win
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    public CourseCatalog(CourseRepository courseRepository, PrimaryReads primaryReads) {
+        this.courseRepository = courseRepository;
+        this.primaryReads = primaryReads;
+    }
+
+    public Optional<CourseDTO> findById(Long courseId) {
+        Entry entry = snapshot().byId().get(courseId);
+        return entry == null ? Optional.empty() : Optional.of(copy(entry.course()));
+    }
+
+    public Optional<CourseDTO> findByCode(String code) {
+        Entry entry = snapshot().byCode().get(code);
+        return entry == null ? Optional.empty() : Optional.of(copy(entry.course()));
+    }
+
+    // Which courses have a free seat is one small query; the rest comes from the snapshot
+    public List<CourseDTO> findAvailable() {
+        Map<Long, Entry> byId = snapshot().byId();
+        List<CourseDTO> available = new ArrayList<>();
+        for (Long courseId : courseRepository.findAvailableCourseIds()) {
+            Entry entry = byId.get(courseId);
+            if (entry != null) {
+                available.add(copy(entry.course()));
+            }
+        }
+        return available;
+    }
+
+    public Optional<Set<CourseDTO>> findPrerequisites(Long courseId) {
+        Entry entry = snapshot().byId().get(courseId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        Set<CourseDTO> prerequisites = new HashSet<>();
+        entry.prerequisites().forEach(prerequisite -> prerequisites.add(copy(prerequisite)));
+        return Optional.of(prerequisites);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh();
+    }
+
+    // Course edits made through other instances
+    @Scheduled(initialDelayString = "${app.catalog.refresh-interval:60000}",
+               fixedDelayString = "${app.catalog.refresh-interval:60000}")
+    public void refreshPeriodically() {
+        refresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        log.debug("Course {} changed, rebuilding course catalog", event.courseId());
+        refresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImportCompleted(ImportCompletedEvent event) {
+        if (event.importType() == DataImport.ImportType.COURSES) {
+            log.debug("Import {} completed, rebuilding course catalog", event.importId());
+            refresh();
+        }
+    }
+
+    // Reload every course in one read-only transaction on the primary and swap the snapshot in one
+    // step, unless a rebuild that started later has already been swapped in
+    public void refresh() {
+        long rebuild = rebuilds.incrementAndGet();
+        Snapshot loaded = primaryReads.read(() -> load(rebuild));
+        Snapshot swapped = current.accumulateAndGet(loaded,
+                (existing, candidate) -> existing == null || candidate.rebuild() > existing.rebuild()
+                        ? candidate : existing);
+        if (swapped == loaded) {
+            log.debug("Course catalog loaded with {} courses", loaded.byId().size());
+        }
+    }
+
+    private Snapshot load(long rebuild) {
+        List<CourseDTO> courses = courseRepository.findAllCourseDTOs();
+        Map<Long, Set<Long>> prerequisiteIds = new HashMap<>();
+        for (CourseRepository.PrerequisiteLink link : courseRepository.findAllPrerequisiteLinks()) {
+            prerequisiteIds.computeIfAbsent(link.getCourseId(), id -> new HashSet<>()).add(link.getPrerequisiteId());
+        }
+
+        Map<Long, CourseDTO> coursesById = new HashMap<>();
+        for (CourseDTO course : courses) {
+            course.setPrerequisiteIds(Set.copyOf(prerequisiteIds.getOrDefault(course.getId(), Set.of())));
+            coursesById.put(course.getId(), course);
+        }
+
+        Map<Long, Entry> byId = new HashMap<>();
+        Map<String, Entry> byCode = new HashMap<>();
+        for (CourseDTO course : courses) {
+            Set<CourseDTO> prerequisites = new HashSet<>();
+            for (Long prerequisiteId : course.getPrerequisiteIds()) {
+                CourseDTO prerequisite = coursesById.get(prerequisiteId);
+                if (prerequisite != null) {
+                    prerequisites.add(prerequisite);
+                }
+            }
+            Entry entry = new Entry(course, Set.copyOf(prerequisites));
+            byId.put(course.getId(), entry);
+            byCode.put(course.getCode(), entry);
+        }
+        return new Snapshot(rebuild, Map.copyOf(byId), Map.copyOf(byCode));
+    }
+
+    private Snapshot snapshot() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = current.get();
+                if (snapshot == null) {
+                    refresh();
+                    snapshot = current.get();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    // The snapshot's DTOs are shared between readers, so callers get their own
+    private static CourseDTO copy(CourseDTO course) {
+        CourseDTO copy = new CourseDTO(course.getId(), course.getCode(), course.getTitle(), course.getDescription(),
+                course.getCredits(), course.getCapacity());
+        copy.setPrerequisiteIds(new HashSet<>(course.getPrerequisiteIds()));
+        return copy;
+    }
+
+    private record Entry(CourseDTO course, Set<CourseDTO> prerequisites) {
+    }
+
+    private record Snapshot(long rebuild, Map<Long, Entry> byId, Map<String, Entry> byCode) {
+    }
+}
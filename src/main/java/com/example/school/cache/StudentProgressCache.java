@@ -0,0 +1,176 @@
+package com.example.school.cache;
+
+import com.example.school.dto.CourseGradeDTO;
+import com.example.school.dto.StudentProgressDTO;
+import com.example.school.entity.DataImport;
+import com.example.school.event.CourseChangedEvent;
+import com.example.school.event.EnrollmentChangedEvent;
+import com.example.school.event.EnrollmentsBulkChangedEvent;
+import com.example.school.event.GradeChangedEvent;
+import com.example.school.event.ImportCompletedEvent;
+import com.example.school.event.StudentChangedEvent;
+import com.example.school.repository.EnrollmentRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of {@link StudentProgressDTO} per student id. Caffeine evicts by W-TinyLFU
+ * against an estimated retained size, and entries are invalidated after commit by the
+ * grade, enrollment, course and student events that can change a student's progress.
+ *
+ * <p>Bulk reads load outside the cache and store their results afterwards. Every invalidation
+ * first bumps a version (striped by student id), so a bulk read that started before the change
+ * can tell, and does not store what it read.
+ */
+@Component
+public class StudentProgressCache {
+
+    private static final String CACHE_NAME = "studentProgress";
+    private static final int VERSION_STRIPES = 64;
+
+    private final Cache<Long, StudentProgressDTO> cache;
+    private final EnrollmentRepository enrollmentRepository;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    // Bumped by invalidating every student
+    private final AtomicLong generation = new AtomicLong();
+
+    public StudentProgressCache(EnrollmentRepository enrollmentRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.cache.student-progress.max-weight:50000000}") long maxWeight,
+                                @Value("${app.cache.student-progress.expire-after-write:30m}") Duration expireAfterWrite) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher(StudentProgressCache::estimateSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .description("Ratio of cache requests which were hits")
+                .register(meterRegistry);
+        Gauge.builder("cache.load.average", cache, c -> c.stats().averageLoadPenalty() / 1_000_000.0)
+                .tag("cache", CACHE_NAME)
+                .description("Average time spent loading an entry, in milliseconds")
+                .register(meterRegistry);
+    }
+
+    public StudentProgressDTO get(Long studentId, Function<Long, StudentProgressDTO> loader) {
+        return cache.get(studentId, loader);
+    }
+
+    public Map<Long, StudentProgressDTO> getAllPresent(Iterable<Long> studentIds) {
+        return cache.getAllPresent(studentIds);
+    }
+
+    // Take it before reading the progress that is later passed to putIfUnchanged
+    public long version(Long studentId) {
+        return generation.get() + versions.get(stripe(studentId));
+    }
+
+    // Stores progress read after version() returned the given version, unless the student has been
+    // invalidated since (the read may predate the change) or cached by someone else meanwhile
+    public void putIfUnchanged(Long studentId, StudentProgressDTO progress, long version) {
+        if (version(studentId) != version) {
+            return;
+        }
+        // An invalidation between the check and the put bumps the version first, so recheck
+        if (cache.asMap().putIfAbsent(studentId, progress) == null && version(studentId) != version) {
+            cache.asMap().remove(studentId, progress);
+        }
+    }
+
+    public void invalidate(Long studentId) {
+        versions.incrementAndGet(stripe(studentId));
+        cache.invalidate(studentId);
+    }
+
+    private void invalidateAll(Iterable<Long> studentIds) {
+        for (Long studentId : studentIds) {
+            versions.incrementAndGet(stripe(studentId));
+        }
+        cache.invalidateAll(studentIds);
+    }
+
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGradeChanged(GradeChangedEvent event) {
+        invalidate(event.studentId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        invalidate(event.studentId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentsBulkChanged(EnrollmentsBulkChangedEvent event) {
+        invalidateAll(event.studentIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        invalidate(event.studentId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        switch (event.change()) {
+            // Only the course title is part of a student's progress
+            case RENAMED -> invalidateAll(enrollmentRepository.findStudentIdsByCourseId(event.courseId()));
+            // Enrollments and grades of a deleted course are already gone, so the students are unknown
+            case DELETED -> invalidateAll();
+            default -> {
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImportCompleted(ImportCompletedEvent event) {
+        // Imports may touch any number of students, so start over
+        if (event.importType() == DataImport.ImportType.ENROLLMENTS
+                || event.importType() == DataImport.ImportType.GRADES) {
+            invalidateAll();
+        }
+    }
+
+    // Rough retained size in bytes: object headers, fields and string contents
+    private static int estimateSize(Long studentId, StudentProgressDTO progress) {
+        int size = 96 + length(progress.getStudentName()) * 2;
+        if (progress.getCourses() != null) {
+            for (CourseGradeDTO course : progress.getCourses()) {
+                size += 80 + length(course.getCourseTitle()) * 2 + length(course.getGrade()) * 2;
+            }
+        }
+        return size;
+    }
+
+    private static int stripe(Long studentId) {
+        return (int) (studentId & (VERSION_STRIPES - 1));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.school.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every Hibernate flush and records how many entities it processed. A write transaction
+ * flushes once at commit ({@code kind=commit}) plus before queries that read what it changed
+ * ({@code kind=auto}), so {@code hibernate.flush} is the dirty-checking cost per transaction.
+ */
+@Configuration
+public class FlushMetricsConfig {
+
+    private final ThreadLocal<Long> flushStart = new ThreadLocal<>();
+
+    public FlushMetricsConfig(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().requireService(EventListenerRegistry.class);
+
+        Timer commitTimer = timer(meterRegistry, "commit");
+        DistributionSummary commitEntities = entities(meterRegistry, "commit");
+        listeners.getEventListenerGroup(EventType.FLUSH).prependListener((FlushEventListener) event -> start());
+        listeners.getEventListenerGroup(EventType.FLUSH).appendListener(
+                (FlushEventListener) event -> stop(event, commitTimer, commitEntities));
+
+        Timer autoTimer = timer(meterRegistry, "auto");
+        DistributionSummary autoEntities = entities(meterRegistry, "auto");
+        listeners.getEventListenerGroup(EventType.AUTO_FLUSH).prependListener((AutoFlushEventListener) event -> start());
+        listeners.getEventListenerGroup(EventType.AUTO_FLUSH).appendListener(
+                (AutoFlushEventListener) event -> stop(event, autoTimer, autoEntities));
+    }
+
+    private void start() {
+        flushStart.set(System.nanoTime());
+    }
+
+    // A failed flush never gets here; its start time is overwritten by the next one
+    private void stop(FlushEvent event, Timer timer, DistributionSummary entities) {
+        Long start = flushStart.get();
+        if (start == null) {
+            return;
+        }
+        flushStart.remove();
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        entities.record(event.getNumberOfEntitiesProcessed());
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String kind) {
+        return Timer.builder("hibernate.flush")
+                .tag("kind", kind)
+                .description("Time spent flushing a Hibernate session")
+                .register(meterRegistry);
+    }
+
+    private static DistributionSummary entities(MeterRegistry meterRegistry, String kind) {
+        return DistributionSummary.builder("hibernate.flush.entities")
+                .tag("kind", kind)
+                .description("Managed entities checked by a Hibernate flush")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.school.config;
+
+import com.example.school.entity.PooledIdGenerator;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Settings of {@link PooledIdGenerator}. Before anything is written, every generated table gets
+ * its {@code id_generators} row, and rows behind the ids already in their table are moved past
+ * them, so a database filled with AUTO_INCREMENT ids keeps working.
+ */
+@Configuration
+public class IdGeneratorConfig implements SmartInitializingSingleton {
+
+    private static final List<String> TABLES = List.of("students", "courses", "enrollments", "grades", "data_imports");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int allocationSize;
+
+    public IdGeneratorConfig(JdbcTemplate jdbcTemplate, @Value("${app.id.allocation-size:50}") int allocationSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.allocationSize = allocationSize;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer idAllocationSize() {
+        return properties -> properties.put(PooledIdGenerator.ALLOCATION_SIZE, Math.max(1, allocationSize));
+    }
+
+    // Runs after the EntityManagerFactory has created the tables, before requests are served
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String table : TABLES) {
+            try {
+                jdbcTemplate.update("INSERT INTO " + PooledIdGenerator.TABLE + " (sequence_name, next_val) " +
+                        "SELECT ?, max_id FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM " + table + ") ids " +
+                        "WHERE NOT EXISTS " +
+                        "(SELECT 1 FROM " + PooledIdGenerator.TABLE + " WHERE sequence_name = ?)", table, table);
+            } catch (DuplicateKeyException e) {
+                // Created by another instance in the meantime
+            }
+            jdbcTemplate.update("UPDATE " + PooledIdGenerator.TABLE + " SET next_val = " +
+                    "(SELECT COALESCE(MAX(id), 0) FROM " + table + ") WHERE sequence_name = ? AND next_val < " +
+                    "(SELECT COALESCE(MAX(id), 0) FROM " + table + ")", table);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.school.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Import heartbeats, recovery of interrupted imports, the nightly import cleanup, term archiving
+// and seat counter reconciliation
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,54 @@
+package com.example.school.controller;
+
+import com.example.school.dto.AcademicTermDTO;
+import com.example.school.dto.ApiResponse;
+import com.example.school.service.AcademicTermService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/terms")
+@Tag(name = "Academic Terms", description = "APIs for managing academic terms")
+@RequiredArgsConstructor
+public class AcademicTermController {
+
+    private final AcademicTermService academicTermService;
+
+    @GetMapping
+    @Operation(summary = "Get all academic terms, newest first")
+    public ResponseEntity<ApiResponse<List<AcademicTermDTO>>> getAllTerms() {
+        return ResponseEntity.ok(ApiResponse.success(academicTermService.findAllTerms()));
+    }
+
+    @GetMapping("/current")
+    @Operation(summary = "Get the term new enrollments go to")
+    public ResponseEntity<ApiResponse<AcademicTermDTO>> getCurrentTerm() {
+        return ResponseEntity.ok(ApiResponse.success(academicTermService.findCurrentTerm()));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get an academic term by ID")
+    public ResponseEntity<ApiResponse<AcademicTermDTO>> getTermById(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(academicTermService.findTermById(id)));
+    }
+
+    @PostMapping
+    @Operation(summary = "Create an academic term")
+    public ResponseEntity<ApiResponse<AcademicTermDTO>> createTerm(@Valid @RequestBody AcademicTermDTO termDTO) {
+        return ResponseEntity
+                .status(201)
+                .body(ApiResponse.success(academicTermService.createTerm(termDTO), "Term created successfully"));
+    }
+
+    @PostMapping("/{id}/close")
+    @Operation(summary = "Close a term once none of its enrollments are active")
+    public ResponseEntity<ApiResponse<AcademicTermDTO>> closeTerm(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(academicTermService.closeTerm(id), "Term closed successfully"));
+    }
+}
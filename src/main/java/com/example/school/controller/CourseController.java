@@ -1,7 +1,10 @@
 package com.example.school.controller;
 
 import com.example.school.dto.ApiResponse;
+import com.example.school.dto.BatchRequestDTO;
+import com.example.school.dto.BatchResultDTO;
 import com.example.school.dto.CourseDTO;
+import com.example.school.dto.SeatReconciliationDTO;
 import com.example.school.entity.Course;
 import com.example.school.service.CourseService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,8 +20,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/courses")
@@ -33,43 +36,42 @@ public class CourseController {
     @Operation(summary = "Get all courses with pagination")
     public ResponseEntity<ApiResponse<?>> getAllCourses(
             @PageableDefault(size = 10) Pageable pageable) {
-        Page<Course> courses = courseService.findAllCourses(pageable);
-        Page<CourseDTO> courseDTOs = courses.map(course -> modelMapper.map(course, CourseDTO.class));
+        Page<CourseDTO> courseDTOs = courseService.findAllCourseDTOs(pageable);
         return ResponseEntity.ok(ApiResponse.success(courseDTOs));
     }
 
     @GetMapping("/all")
     @Operation(summary = "Get all courses without pagination")
     public ResponseEntity<ApiResponse<?>> getAllCourses() {
-        List<Course> courses = courseService.findAllCourses();
-        List<CourseDTO> courseDTOs = courses.stream()
-                .map(course -> modelMapper.map(course, CourseDTO.class))
-                .toList();
+        List<CourseDTO> courseDTOs = courseService.findAllCourseDTOs();
         return ResponseEntity.ok(ApiResponse.success(courseDTOs, "Courses retrieved successfully"));
     }
 
     @GetMapping("/available")
     @Operation(summary = "Get all courses with available capacity")
     public ResponseEntity<ApiResponse<List<CourseDTO>>> getCoursesWithAvailableCapacity() {
-        List<Course> courses = courseService.findCoursesWithAvailableCapacity();
-        List<CourseDTO> courseDTOs = courses.stream()
-                .map(course -> modelMapper.map(course, CourseDTO.class))
-                .collect(Collectors.toList());
+        List<CourseDTO> courseDTOs = courseService.findCourseDTOsWithAvailableCapacity();
         return ResponseEntity.ok(ApiResponse.success(courseDTOs));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get a course by ID")
     public ResponseEntity<ApiResponse<CourseDTO>> getCourseById(@PathVariable Long id) {
-        Course course = courseService.findCourseById(id);
-        return ResponseEntity.ok(ApiResponse.success(modelMapper.map(course, CourseDTO.class)));
+        return ResponseEntity.ok(ApiResponse.success(courseService.findCourseDTOById(id)));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get courses for a list of IDs")
+    public ResponseEntity<ApiResponse<Map<Long, BatchResultDTO<CourseDTO>>>> getCoursesByIds(
+            @Valid @RequestBody BatchRequestDTO request) {
+        return ResponseEntity.ok(ApiResponse.success(
+                courseService.findCourseDTOsByIds(request.getIds()), "Courses retrieved successfully"));
     }
 
     @GetMapping("/code/{code}")
     @Operation(summary = "Get a course by code")
     public ResponseEntity<ApiResponse<CourseDTO>> getCourseByCode(@PathVariable String code) {
-        Course course = courseService.findCourseByCode(code);
-        return ResponseEntity.ok(ApiResponse.success(modelMapper.map(course, CourseDTO.class)));
+        return ResponseEntity.ok(ApiResponse.success(courseService.findCourseDTOByCode(code)));
     }
 
     @GetMapping("/search")
@@ -77,8 +79,7 @@ public class CourseController {
     public ResponseEntity<ApiResponse<Page<CourseDTO>>> searchCourses(
             @RequestParam String query,
             @PageableDefault(size = 10) Pageable pageable) {
-        Page<Course> courses = courseService.searchCourses(query, pageable);
-        Page<CourseDTO> courseDTOs = courses.map(course -> modelMapper.map(course, CourseDTO.class));
+        Page<CourseDTO> courseDTOs = courseService.searchCourseDTOs(query, pageable);
         return ResponseEntity.ok(ApiResponse.successPage(courseDTOs));
     }
 
@@ -115,10 +116,7 @@ public class CourseController {
     @GetMapping("/{id}/prerequisites")
     @Operation(summary = "Get all prerequisites for a course")
     public ResponseEntity<ApiResponse<Set<CourseDTO>>> getPrerequisites(@PathVariable Long id) {
-        Set<Course> prerequisites = courseService.getPrerequisites(id);
-        Set<CourseDTO> prerequisiteDTOs = prerequisites.stream()
-                .map(course -> modelMapper.map(course, CourseDTO.class))
-                .collect(Collectors.toSet());
+        Set<CourseDTO> prerequisiteDTOs = courseService.getPrerequisiteDTOs(id);
         return ResponseEntity.ok(ApiResponse.success(prerequisiteDTOs));
     }
 
@@ -138,6 +136,13 @@ public class CourseController {
         return ResponseEntity.ok(ApiResponse.success(null, "Prerequisite removed successfully"));
     }
 
+    @PostMapping("/seat-counts/reconcile")
+    @Operation(summary = "Correct seat counters that differ from the active enrollments")
+    public ResponseEntity<ApiResponse<SeatReconciliationDTO>> reconcileSeatCounts(
+            @RequestParam(defaultValue = "false") boolean full) {
+        return ResponseEntity.ok(ApiResponse.success(courseService.reconcileSeatCounts(full)));
+    }
+
     @GetMapping("/{courseId}/has-available-capacity")
     @Operation(summary = "Check if a course has available capacity")
     public ResponseEntity<ApiResponse<Boolean>> hasAvailableCapacity(@PathVariable Long courseId) {
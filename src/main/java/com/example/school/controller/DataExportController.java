@@ -0,0 +1,75 @@
+package com.example.school.controller;
+
+import com.example.school.entity.DataImport;
+import com.example.school.exporter.ExportFormat;
+import com.example.school.service.DataExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+@Tag(name = "Data Export", description = "APIs for exporting data in the import file formats")
+public class DataExportController {
+
+    private final DataExportService dataExportService;
+
+    @GetMapping("/students")
+    @Operation(summary = "Export students as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(defaultValue = "1") int partitions,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return export(DataImport.ImportType.STUDENTS, format, updatedSince, partitions, gzip);
+    }
+
+    @GetMapping("/courses")
+    @Operation(summary = "Export courses with their prerequisite codes as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportCourses(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(defaultValue = "1") int partitions,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return export(DataImport.ImportType.COURSES, format, updatedSince, partitions, gzip);
+    }
+
+    @GetMapping("/enrollments")
+    @Operation(summary = "Export enrollments as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportEnrollments(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(defaultValue = "1") int partitions,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return export(DataImport.ImportType.ENROLLMENTS, format, updatedSince, partitions, gzip);
+    }
+
+    @GetMapping("/grades")
+    @Operation(summary = "Export grades as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportGrades(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(defaultValue = "1") int partitions,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return export(DataImport.ImportType.GRADES, format, updatedSince, partitions, gzip);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(DataImport.ImportType type, ExportFormat format,
+                                                         LocalDateTime updatedSince, int partitions, boolean gzip) {
+        String fileName = type.name().toLowerCase() + "." + format.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> dataExportService.export(type, format, updatedSince, partitions, gzip, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.school.controller;
 
+import com.example.school.dto.BulkStatusRequestDTO;
+import com.example.school.dto.BulkStatusResultDTO;
+import com.example.school.dto.BulkWithdrawalRequestDTO;
 import com.example.school.dto.EnrollmentDTO;
 import com.example.school.dto.EnrollmentRequestDTO;
 import com.example.school.dto.EnrollmentResponseDTO;
@@ -7,10 +10,10 @@ import com.example.school.entity.Enrollment;
 import com.example.school.service.EnrollmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
@@ -43,48 +46,39 @@ public class EnrollmentController {
     @Operation(summary = "Get all enrollments with pagination")
     public ResponseEntity<Page<EnrollmentResponseDTO>> getAllEnrollments(
             @PageableDefault(size = 10) Pageable pageable) {
-        Page<Enrollment> enrollments = enrollmentService.findAllEnrollments(pageable);
-        List<EnrollmentResponseDTO> enrollmentDTOs = enrollments.getContent().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(new PageImpl<>(enrollmentDTOs, pageable, enrollments.getTotalElements()));
+        return ResponseEntity.ok(enrollmentService.findAllEnrollmentDTOs(pageable));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get enrollment by ID")
     public ResponseEntity<EnrollmentResponseDTO> getEnrollmentById(@PathVariable Long id) {
-        Enrollment enrollment = enrollmentService.findEnrollmentById(id);
-        return ResponseEntity.ok(convertToDto(enrollment));
+        return ResponseEntity.ok(enrollmentService.findEnrollmentDTOById(id));
     }
 
     @GetMapping("/student/{studentId}")
     @Operation(summary = "Get all enrollments for a student")
     public ResponseEntity<List<EnrollmentResponseDTO>> getEnrollmentsByStudentId(
             @PathVariable Long studentId) {
-        List<EnrollmentResponseDTO> enrollments = enrollmentService.findEnrollmentsByStudentId(studentId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(enrollments);
+        return ResponseEntity.ok(enrollmentService.findEnrollmentDTOsByStudentId(studentId));
     }
 
     @GetMapping("/course/{courseId}")
-    @Operation(summary = "Get all enrollments for a course")
-    public ResponseEntity<List<EnrollmentResponseDTO>> getEnrollmentsByCourseId(
-            @PathVariable Long courseId) {
-        List<EnrollmentResponseDTO> enrollments = enrollmentService.findEnrollmentsByCourseId(courseId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(enrollments);
+    @Operation(summary = "Get enrollments for a course with pagination, optionally of one term")
+    public ResponseEntity<Page<EnrollmentResponseDTO>> getEnrollmentsByCourseId(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) Long termId,
+            @PageableDefault(size = 50) Pageable pageable) {
+        if (termId != null) {
+            return ResponseEntity.ok(enrollmentService.findEnrollmentDTOsByTermIdAndCourseId(termId, courseId, pageable));
+        }
+        return ResponseEntity.ok(enrollmentService.findEnrollmentDTOsByCourseId(courseId, pageable));
     }
 
     @GetMapping("/student/{studentId}/active")
     @Operation(summary = "Get active enrollments for a student")
     public ResponseEntity<List<EnrollmentResponseDTO>> getActiveEnrollmentsByStudentId(
             @PathVariable Long studentId) {
-        List<EnrollmentResponseDTO> enrollments = enrollmentService.findActiveEnrollmentsByStudentId(studentId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(enrollments);
+        return ResponseEntity.ok(enrollmentService.findActiveEnrollmentDTOsByStudentId(studentId));
     }
 
     @PostMapping
@@ -114,6 +108,21 @@ public class EnrollmentController {
         return ResponseEntity.ok(convertToDto(enrollment));
     }
 
+    @PostMapping("/bulk-status/withdrawals")
+    @Operation(summary = "Withdraw students from all their active enrollments")
+    public ResponseEntity<BulkStatusResultDTO> withdrawStudents(
+            @Valid @RequestBody BulkWithdrawalRequestDTO request) {
+        return ResponseEntity.ok(enrollmentService.withdrawStudents(request.getStudentIds(), request.getReason()));
+    }
+
+    @PostMapping("/bulk-status/courses")
+    @Operation(summary = "Move all active enrollments of courses to another status")
+    public ResponseEntity<BulkStatusResultDTO> updateCourseEnrollmentStatus(
+            @Valid @RequestBody BulkStatusRequestDTO request) {
+        return ResponseEntity.ok(enrollmentService.updateActiveEnrollmentStatus(
+                request.getCourseIds(), request.getStatus(), request.getReason()));
+    }
+
     @DeleteMapping("/{enrollmentId}")
     @Operation(summary = "Delete an enrollment by ID")
     public ResponseEntity<Void> deleteEnrollment(@PathVariable Long enrollmentId) {
@@ -1,14 +1,26 @@
 package com.example.school.controller;
 
 import com.example.school.entity.DataImport;
+import com.example.school.entity.DataImportError;
+import com.example.school.exception.ImportInProgressException;
+import com.example.school.importer.ImportProgressStream;
 import com.example.school.service.FileImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -18,29 +30,74 @@ import java.util.List;
 public class FileImportController {
 
     private final FileImportService fileImportService;
+    private final ImportProgressStream importProgressStream;
 
     @PostMapping("/students/upload")
     @Operation(summary = "Upload a file to import student data")
-    public ResponseEntity<ImportResponse> uploadStudentFile(@RequestParam("file") MultipartFile file) {
-        return handleFileUpload(file, DataImport.ImportType.STUDENTS);
+    public ResponseEntity<ImportResponse> uploadStudentFile(@RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "0") int priority,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        return handleFileUpload(file, DataImport.ImportType.STUDENTS, priority, dryRun);
     }
 
     @PostMapping("/courses/upload")
     @Operation(summary = "Upload a file to import course data")
-    public ResponseEntity<ImportResponse> uploadCourseFile(@RequestParam("file") MultipartFile file) {
-        return handleFileUpload(file, DataImport.ImportType.COURSES);
+    public ResponseEntity<ImportResponse> uploadCourseFile(@RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "0") int priority,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        return handleFileUpload(file, DataImport.ImportType.COURSES, priority, dryRun);
     }
 
     @PostMapping("/enrollments/upload")
     @Operation(summary = "Upload a file to import enrollment data")
-    public ResponseEntity<ImportResponse> uploadEnrollmentFile(@RequestParam("file") MultipartFile file) {
-        return handleFileUpload(file, DataImport.ImportType.ENROLLMENTS);
+    public ResponseEntity<ImportResponse> uploadEnrollmentFile(@RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "0") int priority,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        return handleFileUpload(file, DataImport.ImportType.ENROLLMENTS, priority, dryRun);
     }
 
     @PostMapping("/grades/upload")
     @Operation(summary = "Upload a file to import grade data")
-    public ResponseEntity<ImportResponse> uploadGradeFile(@RequestParam("file") MultipartFile file) {
-        return handleFileUpload(file, DataImport.ImportType.GRADES);
+    public ResponseEntity<ImportResponse> uploadGradeFile(@RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "0") int priority,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        return handleFileUpload(file, DataImport.ImportType.GRADES, priority, dryRun);
+    }
+
+    @PostMapping("/students/stream")
+    @Operation(summary = "Stream a raw, optionally gzip-compressed request body to import student data")
+    public ResponseEntity<ImportResponse> streamStudentFile(InputStream body,
+            @RequestParam(defaultValue = "students.csv") String fileName,
+            @RequestParam(defaultValue = "0") int priority,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        return handleStreamUpload(body, fileName, DataImport.ImportType.STUDENTS, priority, dryRun);
+    }
+
+    @PostMapping("/courses/stream")
+    @Operation(summary = "Stream a raw, optionally gzip-compressed request body to import course data")
+    public ResponseEntity<ImportResponse> streamCourseFile(InputStream body,
+            @RequestParam(defaultValue = "courses.csv") String fileName,
+            @RequestParam(defaultValue = "0") int priority,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        return handleStreamUpload(body, fileName, DataImport.ImportType.COURSES, priority, dryRun);
+    }
+
+    @PostMapping("/enrollments/stream")
+    @Operation(summary = "Stream a raw, optionally gzip-compressed request body to import enrollment data")
+    public ResponseEntity<ImportResponse> streamEnrollmentFile(InputStream body,
+            @RequestParam(defaultValue = "enrollments.csv") String fileName,
+            @RequestParam(defaultValue = "0") int priority,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        return handleStreamUpload(body, fileName, DataImport.ImportType.ENROLLMENTS, priority, dryRun);
+    }
+
+    @PostMapping("/grades/stream")
+    @Operation(summary = "Stream a raw, optionally gzip-compressed request body to import grade data")
+    public ResponseEntity<ImportResponse> streamGradeFile(InputStream body,
+            @RequestParam(defaultValue = "grades.csv") String fileName,
+            @RequestParam(defaultValue = "0") int priority,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        return handleStreamUpload(body, fileName, DataImport.ImportType.GRADES, priority, dryRun);
     }
 
     @GetMapping("/{importId}")
@@ -49,6 +106,45 @@ public class FileImportController {
         return ResponseEntity.ok(fileImportService.getImportStatus(importId));
     }
 
+    @GetMapping(path = "/{importId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream the progress of an import job as Server-Sent Events")
+    public SseEmitter streamImportEvents(@PathVariable Long importId) {
+        fileImportService.getImportStatus(importId);
+        return importProgressStream.subscribe(importId);
+    }
+
+    @PostMapping("/{importId}/resume")
+    @Operation(summary = "Resume a failed or interrupted import from its last checkpoint")
+    public ResponseEntity<ImportResponse> resumeImport(@PathVariable Long importId) {
+        try {
+            fileImportService.resumeImport(importId);
+            return ResponseEntity.accepted()
+                    .body(ImportResponse.success(importId, "Import resumed"));
+        } catch (IllegalStateException | ImportInProgressException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ImportResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{importId}/errors")
+    @Operation(summary = "Get the rows rejected by an import job")
+    public ResponseEntity<Page<DataImportError>> getImportErrors(
+            @PathVariable Long importId,
+            @PageableDefault(size = 50) Pageable pageable) {
+        return ResponseEntity.ok(fileImportService.getImportErrors(importId, pageable));
+    }
+
+    @GetMapping(path = "/{importId}/errors/report", produces = "text/csv")
+    @Operation(summary = "Download every row rejected by an import job or dry run as CSV")
+    public ResponseEntity<StreamingResponseBody> downloadErrorReport(@PathVariable Long importId) {
+        // Fails with 404 before the response is committed
+        fileImportService.getImportStatus(importId);
+        StreamingResponseBody body = out -> fileImportService.writeErrorReport(importId, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-" + importId + "-errors.csv\"")
+                .body(body);
+    }
+
     @GetMapping("/type/{importType}")
     @Operation(summary = "Get all imports of a specific type")
     public ResponseEntity<List<DataImport>> getImportsByType(@PathVariable DataImport.ImportType importType) {
@@ -62,16 +158,30 @@ public class FileImportController {
         return ResponseEntity.ok((List<DataImport>) fileImportService.getRecentImports(limit));
     }
 
-    private ResponseEntity<ImportResponse> handleFileUpload(MultipartFile file, DataImport.ImportType importType) {
+    private ResponseEntity<ImportResponse> handleFileUpload(MultipartFile file, DataImport.ImportType importType,
+                                                            int priority, boolean dryRun) {
         if (file == null || file.isEmpty()) {
             return ResponseEntity.badRequest()
                     .body(ImportResponse.error("File cannot be empty"));
         }
 
         try {
-            Long importId = fileImportService.processFileUpload(file, importType);
+            Long importId = fileImportService.processFileUpload(file, importType, priority, dryRun);
+            return ResponseEntity.accepted()
+                    .body(ImportResponse.success(importId, dryRun ? "Dry run queued" : "Import queued"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ImportResponse.error("Failed to start import: " + e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<ImportResponse> handleStreamUpload(InputStream body, String fileName,
+                                                              DataImport.ImportType importType, int priority,
+                                                              boolean dryRun) {
+        try {
+            Long importId = fileImportService.processStreamUpload(body, fileName, importType, priority, dryRun);
             return ResponseEntity.accepted()
-                    .body(ImportResponse.success(importId, "Import started successfully"));
+                    .body(ImportResponse.success(importId, dryRun ? "Dry run queued" : "Import queued"));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ImportResponse.error("Failed to start import: " + e.getMessage()));
@@ -12,7 +12,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
@@ -20,7 +19,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -36,8 +34,7 @@ public class GradeController {
     @Operation(summary = "Get a grade by ID")
     public ResponseEntity<GradeResponseDTO> getGradeById(@PathVariable Long id) {
         try {
-            Grade grade = gradeService.findGradeById(id);
-            GradeResponseDTO response = convertToDto(grade);
+            GradeResponseDTO response = gradeService.findGradeDTOById(id);
             return ResponseEntity.ok(response);
         } catch (ResourceNotFoundException ex) {
             log.warn("Grade not found with id: {}", id);
@@ -52,10 +49,7 @@ public class GradeController {
     @Operation(summary = "Get all grades for a student")
     public ResponseEntity<List<GradeResponseDTO>> getGradesByStudentId(@PathVariable Long studentId) {
         try {
-            List<Grade> grades = gradeService.findGradesByStudentId(studentId);
-            List<GradeResponseDTO> response = grades.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
+            List<GradeResponseDTO> response = gradeService.findGradeDTOsByStudentId(studentId);
             return ResponseEntity.ok(response);
         } catch (Exception ex) {
             log.error("Error retrieving grades for student id: {}", studentId, ex);
@@ -67,10 +61,7 @@ public class GradeController {
     @Operation(summary = "Get all grades for a course")
     public ResponseEntity<List<GradeResponseDTO>> getGradesByCourseId(@PathVariable Long courseId) {
         try {
-            List<Grade> grades = gradeService.findGradesByCourseId(courseId);
-            List<GradeResponseDTO> response = grades.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
+            List<GradeResponseDTO> response = gradeService.findGradeDTOsByCourseId(courseId);
             return ResponseEntity.ok(response);
         } catch (Exception ex) {
             log.error("Error retrieving grades for course id: {}", courseId, ex);
@@ -83,17 +74,7 @@ public class GradeController {
     public ResponseEntity<Page<GradeResponseDTO>> getAllGrades(
             @PageableDefault(size = 20) Pageable pageable) {
         try {
-            Page<Grade> grades = gradeService.findAllGrades(pageable);
-            List<GradeResponseDTO> content = grades.getContent().stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
-            
-            Page<GradeResponseDTO> response = new PageImpl<>(
-                content, 
-                pageable, 
-                grades.getTotalElements()
-            );
-            
+            Page<GradeResponseDTO> response = gradeService.findAllGradeDTOs(pageable);
             return ResponseEntity.ok(response);
         } catch (Exception ex) {
             log.error("Error retrieving paginated grades", ex);
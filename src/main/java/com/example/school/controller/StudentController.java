@@ -1,6 +1,8 @@
 package com.example.school.controller;
 
 import com.example.school.dto.ApiResponse;
+import com.example.school.dto.BatchRequestDTO;
+import com.example.school.dto.BatchResultDTO;
 import com.example.school.dto.StudentDTO;
 import com.example.school.entity.Student;
 import com.example.school.service.StudentService;
@@ -16,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/students")
@@ -30,33 +33,27 @@ public class StudentController {
     @Operation(summary = "Get all students with pagination")
     public ResponseEntity<ApiResponse<?>> getAllStudents(
             @PageableDefault(size = 10) Pageable pageable) {
-        Page<Student> students = studentService.findAllStudents(pageable);
-        Page<StudentDTO> studentDTOs = students.map(student -> modelMapper.map(student, StudentDTO.class));
+        Page<StudentDTO> studentDTOs = studentService.findAllStudentDTOs(pageable);
         return ResponseEntity.ok(ApiResponse.success(studentDTOs));
     }
 
     @GetMapping("/all")
     @Operation(summary = "Get all students without pagination")
     public ResponseEntity<ApiResponse<?>> getAllStudents() {
-        List<Student> students = studentService.findAllStudents();
-        List<StudentDTO> studentDTOs = students.stream()
-                .map(student -> modelMapper.map(student, StudentDTO.class))
-                .toList();
+        List<StudentDTO> studentDTOs = studentService.findAllStudentDTOs();
         return ResponseEntity.ok(ApiResponse.success(studentDTOs, "Students retrieved successfully"));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get a student by ID")
     public ResponseEntity<ApiResponse<StudentDTO>> getStudentById(@PathVariable Long id) {
-        Student student = studentService.findStudentById(id);
-        return ResponseEntity.ok(ApiResponse.success(modelMapper.map(student, StudentDTO.class)));
+        return ResponseEntity.ok(ApiResponse.success(studentService.findStudentDTOById(id)));
     }
 
     @GetMapping("/email/{email}")
     @Operation(summary = "Get a student by email")
     public ResponseEntity<ApiResponse<StudentDTO>> getStudentByEmail(@PathVariable String email) {
-        Student student = studentService.findStudentByEmail(email);
-        return ResponseEntity.ok(ApiResponse.success(modelMapper.map(student, StudentDTO.class)));
+        return ResponseEntity.ok(ApiResponse.success(studentService.findStudentDTOByEmail(email)));
     }
 
     @GetMapping("/search")
@@ -64,11 +61,18 @@ public class StudentController {
     public ResponseEntity<ApiResponse<Page<StudentDTO>>> searchStudents(
             @RequestParam String query,
             @PageableDefault(size = 10) Pageable pageable) {
-        Page<Student> students = studentService.searchStudents(query, pageable);
-        Page<StudentDTO> studentDTOs = students.map(student -> modelMapper.map(student, StudentDTO.class));
+        Page<StudentDTO> studentDTOs = studentService.searchStudentDTOs(query, pageable);
         return ResponseEntity.ok(ApiResponse.successPage(studentDTOs));
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Get students for a list of IDs")
+    public ResponseEntity<ApiResponse<Map<Long, BatchResultDTO<StudentDTO>>>> getStudentsByIds(
+            @Valid @RequestBody BatchRequestDTO request) {
+        return ResponseEntity.ok(ApiResponse.success(
+                studentService.findStudentDTOsByIds(request.getIds()), "Students retrieved successfully"));
+    }
+
     @PostMapping
     @Operation(summary = "Create a new student")
     public ResponseEntity<ApiResponse<StudentDTO>> createStudent(@Valid @RequestBody StudentDTO studentDTO) {
@@ -1,15 +1,20 @@
 package com.example.school.controller;
 
 import com.example.school.dto.ApiResponse;
+import com.example.school.dto.BatchRequestDTO;
+import com.example.school.dto.BatchResultDTO;
 import com.example.school.dto.StudentProgressDTO;
 import com.example.school.exception.ResourceNotFoundException;
 import com.example.school.service.StudentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/students")
 @RequiredArgsConstructor
@@ -30,4 +35,12 @@ public class StudentProgressController {
             return ResponseEntity.status(500).body(ApiResponse.error("An error occurred while retrieving student progress"));
         }
     }
+
+    @PostMapping("/progress/batch")
+    @Operation(summary = "Get progress and grades for a list of students")
+    public ResponseEntity<ApiResponse<Map<Long, BatchResultDTO<StudentProgressDTO>>>> getStudentProgressByIds(
+            @Valid @RequestBody BatchRequestDTO request) {
+        Map<Long, BatchResultDTO<StudentProgressDTO>> progress = studentService.getStudentProgressByIds(request.getIds());
+        return ResponseEntity.ok(ApiResponse.success(progress, "Student progress retrieved successfully"));
+    }
 }
@@ -0,0 +1,67 @@
+package com.example.school.datasource;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-only transactions that stay on the primary: the reads that fill caches, which would keep
+ * whatever a lagging replica returned until the entry expires. Transactional methods opt in with
+ * {@code @Transactional(readOnly = true, label = PrimaryReads.LABEL)}; other code runs its reads
+ * through {@link #read(Supplier)}.
+ */
+@Component
+public class PrimaryReads {
+
+    public static final String LABEL = "primary-reads";
+
+    private final TransactionTemplate template;
+
+    public PrimaryReads(PlatformTransactionManager transactionManager) {
+        this.template = new LabelledTemplate(transactionManager);
+        this.template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.template.setReadOnly(true);
+    }
+
+    /**
+     * Runs the reads in a new read-only transaction on the primary, so they see what is committed
+     * there, whatever transaction the caller is in.
+     */
+    public <T> T read(Supplier<T> reads) {
+        return template.execute(status -> reads.get());
+    }
+
+    static boolean isRequested(TransactionDefinition definition) {
+        return definition instanceof TransactionAttribute attribute && attribute.getLabels().contains(LABEL);
+    }
+
+    // A TransactionTemplate has no labels of its own; the transaction manager sees this as the definition
+    private static final class LabelledTemplate extends TransactionTemplate implements TransactionAttribute {
+
+        private LabelledTemplate(PlatformTransactionManager transactionManager) {
+            super(transactionManager);
+        }
+
+        @Override
+        public String getQualifier() {
+            return null;
+        }
+
+        @Override
+        public Collection<String> getLabels() {
+            return List.of(LABEL);
+        }
+
+        // TransactionTemplate rolls back on any exception itself
+        @Override
+        public boolean rollbackOn(Throwable ex) {
+            return true;
+        }
+    }
+}
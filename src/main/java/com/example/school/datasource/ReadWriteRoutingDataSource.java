@@ -0,0 +1,58 @@
+package com.example.school.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a usable replica and everything else to the primary. Reads
+ * outside a transaction, and reads the {@link ReadYourWrites} window keeps on the primary, use
+ * the primary too. The transaction's read-only flag is only known once it has begun, so this
+ * has to sit behind a {@code LazyConnectionDataSourceProxy} that fetches the connection on the
+ * first statement. Transactions begun by {@link ReplicaAwareTransactionManager} come with their
+ * database already chosen.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final ReplicaMonitor replicaMonitor;
+    private final ReadYourWrites readYourWrites;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaMonitor replicaMonitor,
+                                      ReadYourWrites readYourWrites) {
+        this.replicaMonitor = replicaMonitor;
+        this.readYourWrites = readYourWrites;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int replica = 0; replica < replicaMonitor.replicas().size(); replica++) {
+            targets.put(replica, replicaMonitor.replicas().get(replica));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWrites.wrote();
+            return PRIMARY;
+        }
+        Object chosen = ReplicaAwareTransactionManager.currentLookupKey();
+        return chosen != null ? chosen : readOnlyLookupKey(replicaMonitor, readYourWrites);
+    }
+
+    static Object readOnlyLookupKey(ReplicaMonitor replicaMonitor, ReadYourWrites readYourWrites) {
+        if (readYourWrites.isPrimaryRequired()) {
+            return PRIMARY;
+        }
+        int replica = replicaMonitor.nextReplica();
+        return replica >= 0 ? replica : PRIMARY;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.school.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Keeps reads on the primary for {@code app.datasource.read-your-writes} after a write, so a
+ * client never reads from a replica that has not caught up with its own changes yet.
+ *
+ * <p>The thread that wrote stays on the primary for the window, which also covers import threads
+ * (caches load through {@link PrimaryReads} either way). A client is told with the
+ * {@value #COOKIE} cookie, holding the time the window ends, so its next requests stay on the
+ * primary on any instance.
+ */
+@Component
+public class ReadYourWrites extends OncePerRequestFilter {
+
+    static final String COOKIE = "primary-until";
+
+    private static final ThreadLocal<Long> PRIMARY_UNTIL = new ThreadLocal<>();
+
+    private final long windowMillis;
+
+    public ReadYourWrites(@Value("${app.datasource.read-your-writes:5s}") Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    boolean isPrimaryRequired() {
+        Long until = PRIMARY_UNTIL.get();
+        return until != null && System.currentTimeMillis() < until;
+    }
+
+    /** Called for every connection of a read-write transaction. */
+    void wrote() {
+        long until = System.currentTimeMillis() + windowMillis;
+        PRIMARY_UNTIL.set(until);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)
+                || attributes.getResponse() == null
+                || TransactionSynchronizationManager.getSynchronizations().stream()
+                        .anyMatch(SetCookie.class::isInstance)) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new SetCookie(attributes.getResponse(), until));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        Long until = null;
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE.equals(cookie.getName())) {
+                    try {
+                        long value = Long.parseLong(cookie.getValue());
+                        // Never longer than one window from now, whatever the client sends
+                        until = value > now ? Math.min(value, now + windowMillis) : null;
+                    } catch (NumberFormatException e) {
+                        // Ignored, the cookie only ever moves reads to the primary
+                    }
+                }
+            }
+        }
+        PRIMARY_UNTIL.set(until);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Request threads are pooled; the next request brings its own cookie
+            PRIMARY_UNTIL.remove();
+        }
+    }
+
+    private final class SetCookie implements TransactionSynchronization {
+
+        private final HttpServletResponse response;
+        private final long until;
+
+        private SetCookie(HttpServletResponse response, long until) {
+            this.response = response;
+            this.until = until;
+        }
+
+        @Override
+        public void afterCommit() {
+            if (!response.isCommitted()) {
+                Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, windowMillis / 1000));
+                response.addCookie(cookie);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.school.datasource;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Chooses the database of a read-only transaction when it begins rather than at its first
+ * statement, so the session knows it reads from a replica. Sessions on a replica only read the
+ * second-level cache ({@link CacheMode#GET}): courses and query results a lagging replica returns
+ * must not be put into it. Read-only transactions {@link PrimaryReads} asks for, and those in a
+ * {@link ReadYourWrites} window, use the primary.
+ */
+public class ReplicaAwareTransactionManager extends JpaTransactionManager {
+
+    // One per transaction begun on this thread, innermost first; suspended ones stay underneath
+    private static final ThreadLocal<Deque<Route>> ROUTES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final ReplicaMonitor replicaMonitor;
+    private final ReadYourWrites readYourWrites;
+
+    public ReplicaAwareTransactionManager(ReplicaMonitor replicaMonitor, ReadYourWrites readYourWrites) {
+        this.replicaMonitor = replicaMonitor;
+        this.readYourWrites = readYourWrites;
+    }
+
+    /** The database chosen for the current transaction, or null when the routing decides itself. */
+    static Object currentLookupKey() {
+        Route route = ROUTES.get().peek();
+        return route == null ? null : route.lookupKey();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        Object lookupKey = null;
+        CacheMode previousCacheMode = null;
+        if (definition.isReadOnly()) {
+            lookupKey = PrimaryReads.isRequested(definition)
+                    ? ReadWriteRoutingDataSource.PRIMARY
+                    : ReadWriteRoutingDataSource.readOnlyLookupKey(replicaMonitor, readYourWrites);
+            if (!ReadWriteRoutingDataSource.PRIMARY.equals(lookupKey)) {
+                Session session = currentSession();
+                previousCacheMode = session.getCacheMode();
+                session.setCacheMode(CacheMode.GET);
+            }
+        }
+        ROUTES.get().push(new Route(lookupKey, previousCacheMode));
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        Route route = ROUTES.get().poll();
+        // With open-in-view the session outlives the transaction
+        if (route != null && route.previousCacheMode() != null) {
+            currentSession().setCacheMode(route.previousCacheMode());
+        }
+        if (ROUTES.get().isEmpty()) {
+            ROUTES.remove();
+        }
+        super.doCleanupAfterCompletion(transaction);
+    }
+
+    private Session currentSession() {
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+                .getResource(obtainEntityManagerFactory());
+        return holder.getEntityManager().unwrap(Session.class);
+    }
+
+    private record Route(Object lookupKey, CacheMode previousCacheMode) {
+    }
+}
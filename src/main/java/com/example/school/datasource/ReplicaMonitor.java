@@ -0,0 +1,107 @@
+package com.example.school.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks the replicas every {@code app.datasource.replica-check-interval} ms and hands out the
+ * ones that are usable in turn. A replica is usable when it answers and, with
+ * {@code app.datasource.replica-lag-check} on, replication is running and at most
+ * {@code app.datasource.replica-max-lag} behind. Replicas start out unusable until checked, so
+ * reads only move off the primary once a replica is known to be current.
+ *
+ * <p>Turn the lag check off when the "replica" is a second, independent datasource standing in
+ * for one, e.g. a second pool on the primary's database during local testing.
+ */
+@Slf4j
+public class ReplicaMonitor implements AutoCloseable {
+
+    private final List<HikariDataSource> replicas;
+    private final boolean lagCheck;
+    private final long maxLagSeconds;
+    // Null until checked
+    private final Boolean[] usable;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaMonitor(List<HikariDataSource> replicas, boolean lagCheck, Duration maxLag) {
+        this.replicas = replicas;
+        this.lagCheck = lagCheck;
+        this.maxLagSeconds = maxLag.toSeconds();
+        this.usable = new Boolean[replicas.size()];
+    }
+
+    List<HikariDataSource> replicas() {
+        return replicas;
+    }
+
+    /** @return the index of the next usable replica, or -1 to read from the primary */
+    int nextReplica() {
+        int count = replicas.size();
+        if (count == 0) {
+            return -1;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            int replica = (start + i) % count;
+            if (isUsable(replica)) {
+                return replica;
+            }
+        }
+        return -1;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.datasource.replica-check-interval:5000}")
+    public void check() {
+        for (int replica = 0; replica < replicas.size(); replica++) {
+            String problem = problem(replicas.get(replica));
+            Boolean wasUsable = setUsable(replica, problem == null);
+            if (problem != null && !Boolean.FALSE.equals(wasUsable)) {
+                log.warn("Replica {} is not used until it recovers: {}", replicas.get(replica).getPoolName(), problem);
+            } else if (problem == null && !Boolean.TRUE.equals(wasUsable)) {
+                log.info("Replica {} is used for read-only transactions", replicas.get(replica).getPoolName());
+            }
+        }
+    }
+
+    // Why the replica cannot be read from, or null if it can
+    private String problem(HikariDataSource replica) {
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(replica);
+            if (!lagCheck) {
+                jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                return null;
+            }
+            List<Long> lag = jdbcTemplate.query("SHOW REPLICA STATUS",
+                    (rs, rowNum) -> rs.getObject("Seconds_Behind_Source") != null
+                            ? rs.getLong("Seconds_Behind_Source") : null);
+            if (lag.isEmpty() || lag.get(0) == null) {
+                return "replication is not running";
+            }
+            return lag.get(0) > maxLagSeconds ? "replication is " + lag.get(0) + "s behind" : null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private synchronized boolean isUsable(int replica) {
+        return Boolean.TRUE.equals(usable[replica]);
+    }
+
+    // Returns the previous state
+    private synchronized Boolean setUsable(int replica, boolean value) {
+        Boolean previous = usable[replica];
+        usable[replica] = value;
+        return previous;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
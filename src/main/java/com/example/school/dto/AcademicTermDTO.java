@@ -0,0 +1,42 @@
+package com.example.school.dto;
+
+import com.example.school.entity.AcademicTerm;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+public class AcademicTermDTO {
+
+    private Long id;
+
+    @NotBlank(message = "Term code is required")
+    @Size(max = 20, message = "Term code must be less than 20 characters")
+    private String code;
+
+    @NotBlank(message = "Term name is required")
+    @Size(max = 100, message = "Term name must be less than 100 characters")
+    private String name;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    // Set by the server; new terms are OPEN
+    private AcademicTerm.TermStatus status;
+
+    @JsonIgnore
+    @AssertTrue(message = "End date must be after the start date")
+    public boolean isDateRangeValid() {
+        return startDate == null || endDate == null || endDate.isAfter(startDate);
+    }
+}
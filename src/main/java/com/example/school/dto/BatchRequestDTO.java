@@ -0,0 +1,18 @@
+package com.example.school.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BatchRequestDTO {
+
+    @NotEmpty(message = "At least one ID is required")
+    @Size(max = 5000, message = "At most 5000 IDs can be requested at once")
+    private List<@NotNull(message = "IDs cannot be null") Long> ids;
+}
@@ -0,0 +1,25 @@
+package com.example.school.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of a batch lookup, keyed by the requested ID in the response map
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResultDTO<T> {
+
+    private boolean found;
+    private T data;
+
+    public static <T> BatchResultDTO<T> found(T data) {
+        return new BatchResultDTO<>(true, data);
+    }
+
+    public static <T> BatchResultDTO<T> notFound() {
+        return new BatchResultDTO<>(false, null);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.school.dto;
+
+import com.example.school.entity.Enrollment;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Move every ACTIVE enrollment of these courses to another status
+@Data
+@NoArgsConstructor
+public class BulkStatusRequestDTO {
+
+    @NotEmpty(message = "At least one course ID is required")
+    @Size(max = 5000, message = "At most 5000 courses can be updated at once")
+    private List<@NotNull(message = "IDs cannot be null") Long> courseIds;
+
+    @NotNull(message = "Status is required")
+    private Enrollment.EnrollmentStatus status;
+
+    // Stored for WITHDRAWN only
+    @Size(max = 255, message = "Reason must be less than 255 characters")
+    private String reason;
+
+    @JsonIgnore
+    @AssertTrue(message = "Status must not be ACTIVE")
+    public boolean isStatusChange() {
+        return status != Enrollment.EnrollmentStatus.ACTIVE;
+    }
+}
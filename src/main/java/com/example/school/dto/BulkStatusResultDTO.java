@@ -0,0 +1,16 @@
+package com.example.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Row counts of a bulk enrollment status change
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusResultDTO {
+
+    private int enrollmentsUpdated;
+    private int coursesUpdated;
+    private int seatsReleased;
+}
@@ -0,0 +1,22 @@
+package com.example.school.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Withdraw every ACTIVE enrollment of these students
+@Data
+@NoArgsConstructor
+public class BulkWithdrawalRequestDTO {
+
+    @NotEmpty(message = "At least one student ID is required")
+    @Size(max = 5000, message = "At most 5000 students can be withdrawn at once")
+    private List<@NotNull(message = "IDs cannot be null") Long> studentIds;
+
+    @Size(max = 255, message = "Reason must be less than 255 characters")
+    private String reason;
+}
@@ -2,11 +2,13 @@ package com.example.school.dto;
 
 import jakarta.validation.constraints.*;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Data
+@NoArgsConstructor
 public class CourseDTO {
     
     private Long id;
@@ -31,6 +33,16 @@ public class CourseDTO {
     
     private Set<Long> prerequisiteIds = new HashSet<>();
     
+    // Used by JPQL constructor expressions; prerequisite ids are filled in separately
+    public CourseDTO(Long id, String code, String title, String description, int credits, int capacity) {
+        this.id = id;
+        this.code = code;
+        this.title = title;
+        this.description = description;
+        this.credits = credits;
+        this.capacity = capacity;
+    }
+    
     // Helper method to add a prerequisite
     public void addPrerequisiteId(Long courseId) {
         this.prerequisiteIds.add(courseId);
@@ -1,11 +1,15 @@
 package com.example.school.dto;
 
 import com.example.school.entity.Enrollment;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class GradeResponseDTO {
     private Long id;
     private String gradeValue;
@@ -0,0 +1,13 @@
+package com.example.school.dto;
+
+import com.example.school.entity.DataImport;
+
+// One progress update of an import as streamed to watchers; etaSeconds is null until it can be estimated
+public record ImportProgressDTO(Long importId, DataImport.ImportStatus status, int processed, int successful,
+                                int failed, double rowsPerSecond, Long bytesRead, Long fileSize,
+                                Long etaSeconds) {
+
+    public boolean finished() {
+        return status == DataImport.ImportStatus.COMPLETED || status == DataImport.ImportStatus.FAILED;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.school.dto;
+
+import java.util.List;
+
+// Result of one seat counter reconciliation run: how many courses were checked and which counters were corrected
+public record SeatReconciliationDTO(boolean fullScan, int coursesChecked, List<Drift> corrections) {
+
+    public record Drift(Long courseId, int recordedSeats, int activeEnrollments) {
+    }
+}
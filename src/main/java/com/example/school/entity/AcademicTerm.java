@@ -0,0 +1,88 @@
+package com.example.school.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An academic term. Enrollments and grades are range partitioned by term id, one partition per
+ * term, so queries for one term only read its partition. New enrollments go to the current term:
+ * the open term with the latest start date that has started.
+ *
+ * <p>Ids are IDENTITY rather than pooled: terms are created a few times a year, and their ids
+ * have to increase in creation order because each one starts a new partition range.
+ */
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "academic_terms")
+public class AcademicTerm {
+
+    public enum TermStatus {
+        OPEN, CLOSED, ARCHIVED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "Term code is required")
+    @Size(max = 20, message = "Term code must be less than 20 characters")
+    @Column(unique = true, nullable = false, length = 20)
+    private String code;
+
+    @NotBlank(message = "Term name is required")
+    @Size(max = 100, message = "Term name must be less than 100 characters")
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @NotNull(message = "Start date is required")
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    // CLOSED terms take no new enrollments; ARCHIVED terms closed long ago and only sit in cold partitions
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TermStatus status = TermStatus.OPEN;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    public boolean isOpen() {
+        return status == TermStatus.OPEN;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AcademicTerm other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return AcademicTerm.class.hashCode();
+    }
+}
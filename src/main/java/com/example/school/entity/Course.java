@@ -1,22 +1,39 @@
 package com.example.school.entity;
 
+import com.example.school.cache.CourseCacheRegions;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
-import lombok.Data;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
-@Data
+/**
+ * A course and its prerequisites. Enrollments are not mapped on this side: a popular course
+ * has hundreds, so they are read through {@code EnrollmentRepository} a page at a time.
+ * Equality is by id and never touches the associations.
+ */
+@Getter
+@Setter
+@ToString
 @Entity
 @Table(name = "courses")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CourseCacheRegions.COURSES)
 public class Course {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = PooledIdGenerator.NAME)
+    @GenericGenerator(name = PooledIdGenerator.NAME, type = PooledIdGenerator.class)
     private Long id;
     
     @NotBlank(message = "Course code is required")
@@ -27,7 +44,10 @@ public class Course {
     @Column(nullable = false, length = 100)
     private String title;
     
+    // Only course detail reads need it; loaded on first access (bytecode enhancement)
     @Size(max = 1000, message = "Description must be less than 1000 characters")
+    @Basic(fetch = FetchType.LAZY)
+    @ToString.Exclude
     private String description;
     
     @Min(value = 1, message = "Credits must be at least 1")
@@ -38,10 +58,13 @@ public class Course {
     @Column(nullable = false)
     private int capacity = 30; // Default capacity
     
+    // Cached with the course; capacity checks and seat updates read it through CourseRepository instead
     @Column(name = "enrolled_students")
-    private int enrolledStudents = 0; // Track number of enrolled students
+    private int enrolledStudents = 0; // ACTIVE enrollments; SeatCountReconciler corrects drift
     
     @ManyToMany
+    @ToString.Exclude
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CourseCacheRegions.PREREQUISITES)
     @JoinTable(
         name = "course_prerequisites",
         joinColumns = @JoinColumn(name = "course_id"),
@@ -49,9 +72,6 @@ public class Course {
     )
     private Set<Course> prerequisites = new HashSet<>();
     
-    @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true)
-    private Set<Enrollment> enrollments = new HashSet<>();
-    
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -59,6 +79,12 @@ public class Course {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
     
+    // Set by CourseRepository.markDeleted when deleting starts, and only there
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+    
     // Helper method to add prerequisite
     public void addPrerequisite(Course prerequisite) {
         prerequisites.add(prerequisite);
@@ -85,4 +111,27 @@ public class Course {
             this.enrolledStudents--;
         }
     }
+    
+    // A deleted course is being purged; it takes no new enrollments or grades
+    @JsonIgnore
+    public boolean isDeleted() {
+        return deletedAt != null;
+    }
+    
+    // Same id, same course; the class hash keeps a course in the same bucket once it gets its id
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Course other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+    
+    @Override
+    public int hashCode() {
+        return Course.class.hashCode();
+    }
 }
@@ -3,13 +3,14 @@ package com.example.school.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "data_imports")
+@Table(name = "data_imports", indexes = @Index(name = "idx_data_imports_queue", columnList = "status, priority, queued_at"))
 public class DataImport {
     
     public enum ImportStatus {
@@ -21,7 +22,8 @@ public class DataImport {
     }
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = PooledIdGenerator.NAME)
+    @GenericGenerator(name = PooledIdGenerator.NAME, type = PooledIdGenerator.class)
     private Long id;
     
     @Enumerated(EnumType.STRING)
@@ -38,6 +40,28 @@ public class DataImport {
     @Column(name = "file_path")
     private String filePath;
     
+    @Column(name = "file_size")
+    private Long fileSize;
+    
+    // Pending imports with a higher priority are run first
+    @Column(name = "priority")
+    private Integer priority = 0;
+    
+    // Validates the file and reports rejected rows without storing anything
+    @Column(name = "dry_run")
+    private boolean dryRun;
+    
+    // When the import last entered the queue; a requeued import waits again from here
+    @Column(name = "queued_at")
+    private LocalDateTime queuedAt;
+    
+    // Totals over every run of the import, maintained by the scheduler with plain SQL
+    @Column(name = "queue_wait_ms", insertable = false, updatable = false)
+    private Long queueWaitMs;
+    
+    @Column(name = "run_time_ms", insertable = false, updatable = false)
+    private Long runTimeMs;
+    
     @Column(name = "total_records")
     private Integer totalRecords;
     
@@ -50,9 +74,38 @@ public class DataImport {
     @Column(name = "failed_records")
     private Integer failedRecords = 0;
     
+    // Chunks are committed independently, see DataImportChunk
+    @Column(name = "total_chunks")
+    private Integer totalChunks;
+    
+    @Column(name = "completed_chunks")
+    private Integer completedChunks = 0;
+    
+    @Column(name = "rows_per_second")
+    private Double rowsPerSecond;
+    
+    // Maintained by the importer with plain SQL, never written from the entity
+    @Column(name = "partition_count", insertable = false, updatable = false)
+    private Integer partitionCount;
+    
+    // Every row before this byte offset and line of the file is committed, as of the last progress update
+    @Column(name = "checkpoint_offset", insertable = false, updatable = false)
+    private Long checkpointOffset;
+    
+    @Column(name = "checkpoint_row", insertable = false, updatable = false)
+    private Long checkpointRow;
+    
+    // Refreshed while the import runs; a stale heartbeat means the instance running it is gone
+    @Column(name = "heartbeat_at", insertable = false, updatable = false)
+    private LocalDateTime heartbeatAt;
+    
     @Column(name = "error_message", length = 1000)
     private String errorMessage;
     
+    // Rejected rows per field, see ImportProgress#getErrorSummary
+    @Column(name = "error_summary", length = 1000)
+    private String errorSummary;
+    
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,52 @@
+package com.example.school.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Written in the same transaction as a chunk's rows, so a chunk is never committed twice.
+// Chunks are numbered per partition, and each one records where in the file its partition got to.
+@Data
+@Entity
+@Table(name = "data_import_chunks",
+       uniqueConstraints = @UniqueConstraint(name = "uk_import_chunk",
+                                             columnNames = {"import_id", "partition_no", "chunk_no"}))
+public class DataImportChunk {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "import_id", nullable = false)
+    private Long importId;
+    
+    @Column(name = "partition_no", nullable = false)
+    private Integer partitionNo;
+    
+    @Column(name = "chunk_no", nullable = false)
+    private Integer chunkNo;
+    
+    @Column(name = "successful_records", nullable = false)
+    private Integer successfulRecords;
+    
+    @Column(name = "failed_records", nullable = false)
+    private Integer failedRecords;
+    
+    // Byte offset and line just past the chunk's last row
+    @Column(name = "end_offset", nullable = false)
+    private Long endOffset;
+    
+    @Column(name = "end_line", nullable = false)
+    private Long endLine;
+    
+    // The import's checkpoint once this chunk is committed; a resumed import starts at the furthest one
+    @Column(name = "checkpoint_offset", nullable = false)
+    private Long checkpointOffset;
+    
+    @Column(name = "checkpoint_line", nullable = false)
+    private Long checkpointLine;
+    
+    @Column(name = "committed_at", nullable = false)
+    private LocalDateTime committedAt;
+}
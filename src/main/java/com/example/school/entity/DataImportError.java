@@ -0,0 +1,34 @@
+package com.example.school.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "data_import_errors", indexes = @Index(name = "idx_import_errors_import_row", columnList = "import_id, row_no"))
+public class DataImportError {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "import_id", nullable = false)
+    private Long importId;
+    
+    // Line in the uploaded file, counting the header as line 1
+    @Column(name = "row_no", nullable = false)
+    private Long rowNumber;
+    
+    @Column(length = 100)
+    private String field;
+    
+    @Column(nullable = false, length = 1000)
+    private String message;
+    
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+}
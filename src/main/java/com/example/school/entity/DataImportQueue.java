@@ -0,0 +1,17 @@
+package com.example.school.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// One row per import type. Claiming an import locks its type's row, so the per-type
+// concurrency limit holds across instances.
+@Data
+@Entity
+@Table(name = "data_import_queues")
+public class DataImportQueue {
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "import_type", length = 32)
+    private DataImport.ImportType importType;
+}
@@ -1,21 +1,24 @@
 package com.example.school.entity;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.UpdateTimestamp;
-import com.fasterxml.jackson.annotation.JsonManagedReference;
-import com.fasterxml.jackson.annotation.JsonBackReference;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
-@Data
+@Getter
+@Setter
+@ToString
 @Entity
-@Table(name = "enrollments", uniqueConstraints = {@UniqueConstraint(columnNames = {"student_id", "course_id"}, name = "uk_student_course")})
+@Table(name = "enrollments", uniqueConstraints = {@UniqueConstraint(columnNames = {"student_id", "course_id", "term_id"}, name = "uk_student_course_term")})
 public class Enrollment {
 
     public enum EnrollmentStatus {
@@ -23,7 +26,8 @@ public class Enrollment {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = PooledIdGenerator.NAME)
+    @GenericGenerator(name = PooledIdGenerator.NAME, type = PooledIdGenerator.class)
     private Long id;
 
     @NotNull(message = "Enrollment date is required")
@@ -42,15 +46,25 @@ public class Enrollment {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id", nullable = false)
-    @JsonBackReference("student-enrollments")
+    @JsonIgnore
+    @ToString.Exclude
     private Student student;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "course_id", nullable = false)
+    @ToString.Exclude
     private Course course;
 
+    // Partitioning column of enrollments and grades; queries for one term only read its partition
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "term_id", nullable = false, updatable = false)
+    @JsonIgnore
+    @ToString.Exclude
+    private AcademicTerm term;
+
     @OneToOne(mappedBy = "enrollment", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JsonManagedReference("grade-enrollment")
+    @ToString.Exclude
     private Grade grade;
 
     @CreationTimestamp
@@ -68,6 +82,7 @@ public class Enrollment {
             }
         } else {
             grade.setEnrollment(this);
+            grade.setTerm(term);
         }
         this.grade = grade;
     }
@@ -81,4 +96,20 @@ public class Enrollment {
     public boolean isCompleted() {
         return status == EnrollmentStatus.COMPLETED;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Enrollment other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Enrollment.class.hashCode();
+    }
 }
@@ -1,23 +1,29 @@
 package com.example.school.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.UpdateTimestamp;
-import com.fasterxml.jackson.annotation.JsonBackReference;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
-@Data
+@Getter
+@Setter
+@ToString
 @Entity
-@Table(name = "grades")
+@Table(name = "grades", uniqueConstraints = {@UniqueConstraint(columnNames = {"enrollment_id", "term_id"}, name = "uk_grades_enrollment_term")})
 public class Grade {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = PooledIdGenerator.NAME)
+    @GenericGenerator(name = PooledIdGenerator.NAME, type = PooledIdGenerator.class)
     private Long id;
     
     @NotBlank(message = "Grade value is required")
@@ -26,17 +32,28 @@ public class Grade {
     @Column(name = "grade_value", nullable = false, length = 2)
     private String gradeValue;
     
+    // Loaded on first access (bytecode enhancement)
     @Size(max = 500, message = "Comments must be less than 500 characters")
+    @Basic(fetch = FetchType.LAZY)
+    @ToString.Exclude
     private String comments;
     
     @Column(name = "is_course_completed")
     private boolean isCourseCompleted = false;
     
     @OneToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "enrollment_id", nullable = false, unique = true)
+    @JoinColumn(name = "enrollment_id", nullable = false)
     @JsonBackReference("grade-enrollment")
+    @ToString.Exclude
     private Enrollment enrollment;
     
+    // The enrollment's term, copied so grades are partitioned like enrollments
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "term_id", nullable = false, updatable = false)
+    @JsonIgnore
+    @ToString.Exclude
+    private AcademicTerm term;
+    
     @Column(name = "graded_date")
     private LocalDate gradedDate;
     
@@ -93,4 +110,20 @@ public class Grade {
             this.enrollment.setStatus(Enrollment.EnrollmentStatus.ACTIVE);
         }
     }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Grade other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+    
+    @Override
+    public int hashCode() {
+        return Grade.class.hashCode();
+    }
 }
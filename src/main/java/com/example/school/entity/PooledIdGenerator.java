@@ -0,0 +1,38 @@
+package com.example.school.entity;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Ids from the {@code id_generators} table, one row per entity table holding the last id reserved
+ * for it (Hibernate's {@code next_val} column is the high end of the last block, not the next id).
+ * MySQL has no sequences, and IDENTITY ids are only known after each insert, which keeps
+ * Hibernate from batching inserts. Here a session reserves {@code app.id.allocation-size} ids
+ * with one update and hands them out from memory (pooled-lo).
+ *
+ * <p>The importers insert with JDBC and reserve their ids from the same rows through
+ * {@code ImportIds}, so both can write to a table at once.
+ */
+public class PooledIdGenerator extends TableGenerator {
+
+    public static final String NAME = "pooled";
+    public static final String TABLE = "id_generators";
+    public static final String ALLOCATION_SIZE = "app.id.allocation-size";
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) {
+        Object allocationSize = serviceRegistry.requireService(ConfigurationService.class).getSettings()
+                .getOrDefault(ALLOCATION_SIZE, DEFAULT_INCREMENT_SIZE);
+        parameters.setProperty(TABLE_PARAM, TABLE);
+        parameters.setProperty(SEGMENT_COLUMN_PARAM, "sequence_name");
+        parameters.setProperty(VALUE_COLUMN_PARAM, "next_val");
+        parameters.setProperty(CONFIG_PREFER_SEGMENT_PER_ENTITY, "true");
+        parameters.setProperty(INCREMENT_PARAM, allocationSize.toString());
+        parameters.setProperty(OPT_PARAM, "pooled-lo");
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -1,28 +1,36 @@
 package com.example.school.entity;
 
-import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Pattern;
-import lombok.Data;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.UpdateTimestamp;
-import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
 
-@Data
+/**
+ * A student. Enrollments are not mapped on this side; they are read through
+ * {@code EnrollmentRepository}. Equality is by id.
+ */
+@Getter
+@Setter
+@ToString
 @Entity
 @Table(name = "students")
 public class Student {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = PooledIdGenerator.NAME)
+    @GenericGenerator(name = PooledIdGenerator.NAME, type = PooledIdGenerator.class)
     private Long id;
     
     @NotBlank(message = "First name is required")
@@ -44,10 +52,6 @@ public class Student {
     @Column(name = "date_of_birth")
     private LocalDate dateOfBirth;
     
-    @OneToMany(mappedBy = "student", cascade = CascadeType.ALL, orphanRemoval = true)
-    @JsonManagedReference("student-enrollments")
-    private Set<Enrollment> enrollments = new HashSet<>();
-    
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -55,20 +59,36 @@ public class Student {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
     
-    // Helper method to add enrollment
-    public void addEnrollment(Enrollment enrollment) {
-        enrollments.add(enrollment);
-        enrollment.setStudent(this);
-    }
-    
-    // Helper method to remove enrollment
-    public void removeEnrollment(Enrollment enrollment) {
-        enrollments.remove(enrollment);
-        enrollment.setStudent(null);
-    }
+    // Set by StudentRepository.markDeleted when deleting starts, and only there
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
     
     // Get full name
     public String getFullName() {
         return firstName + " " + lastName;
     }
+    
+    // A deleted student is being purged; it takes no new enrollments or grades
+    @JsonIgnore
+    public boolean isDeleted() {
+        return deletedAt != null;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Student other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+    
+    @Override
+    public int hashCode() {
+        return Student.class.hashCode();
+    }
 }
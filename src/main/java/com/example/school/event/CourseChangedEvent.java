@@ -0,0 +1,11 @@
+package com.example.school.event;
+
+/**
+ * Published after a course, its capacity or its prerequisites have been created, changed or deleted.
+ */
+public record CourseChangedEvent(Long courseId, Change change) {
+
+    public enum Change {
+        CREATED, UPDATED, RENAMED, DELETED
+    }
+}
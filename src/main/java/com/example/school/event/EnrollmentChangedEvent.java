@@ -0,0 +1,8 @@
+package com.example.school.event;
+
+/**
+ * Published when an enrollment is created, changes status or is removed.
+ * {@code seatDelta} is the change applied to the course's enrolled students counter.
+ */
+public record EnrollmentChangedEvent(Long studentId, Long courseId, int seatDelta) {
+}
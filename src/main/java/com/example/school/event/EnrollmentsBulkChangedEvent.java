@@ -0,0 +1,11 @@
+package com.example.school.event;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Published after a set-based status change of many enrollments. {@code seatDeltas} is the change
+ * applied to each course's enrolled students counter, keyed by course id.
+ */
+public record EnrollmentsBulkChangedEvent(Collection<Long> studentIds, Map<Long, Integer> seatDeltas) {
+}
@@ -0,0 +1,7 @@
+package com.example.school.event;
+
+/**
+ * Published when a grade is recorded, updated or deleted.
+ */
+public record GradeChangedEvent(Long studentId, Long courseId) {
+}
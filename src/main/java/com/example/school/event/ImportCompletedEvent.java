@@ -0,0 +1,7 @@
+package com.example.school.event;
+
+import com.example.school.entity.DataImport;
+
+// Published after an import wrote its last batch, so caches can reload what it changed
+public record ImportCompletedEvent(Long importId, DataImport.ImportType importType) {
+}
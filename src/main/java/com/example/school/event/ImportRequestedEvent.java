@@ -0,0 +1,5 @@
+package com.example.school.event;
+
+// Published once an uploaded file is stored and its DataImport row is saved
+public record ImportRequestedEvent(Long importId) {
+}
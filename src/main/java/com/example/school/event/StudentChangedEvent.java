@@ -0,0 +1,7 @@
+package com.example.school.event;
+
+/**
+ * Published when a student's details change or the student is deleted.
+ */
+public record StudentChangedEvent(Long studentId) {
+}
@@ -0,0 +1,12 @@
+package com.example.school.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class InvalidTermStateException extends RuntimeException {
+    
+    public InvalidTermStateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.school.exporter;
+
+import com.example.school.entity.DataImport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams a whole table in an import format. Rows are read in keyset chunks of
+ * {@code app.export.chunk-size} ordered by id, each from a forward-only cursor in its own
+ * short statement, so no offset is ever scanned and no transaction stays open for the length
+ * of the download. The id range can be split into partitions read by virtual threads at once;
+ * their chunks are written as they complete, so rows are only in id order within a chunk.
+ */
+@Slf4j
+@Component
+public class DataExporter {
+
+    private static final byte[] END = new byte[0];
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+
+    public DataExporter(JdbcTemplate jdbcTemplate, @Value("${app.export.chunk-size:5000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    /** @return the number of rows written */
+    public long export(DataImport.ImportType type, ExportFormat format, LocalDateTime updatedSince, int partitions,
+                       OutputStream out) throws IOException {
+        ExportQuery query = ExportQuery.QUERIES.get(type);
+        format.writeHeader(query.columns(), out);
+        long[] bounds = idBounds(query);
+        if (bounds == null) {
+            return 0;
+        }
+
+        // Ranges (lower, upper] covering every id
+        long min = bounds[0] - 1;
+        long span = bounds[1] - min;
+        int count = (int) Math.max(1, Math.min(partitions, span));
+        BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(count * 2);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>(count);
+        long[] rows = new long[count];
+        for (int partition = 0; partition < count; partition++) {
+            long lower = min + span * partition / count;
+            long upper = min + span * (partition + 1) / count;
+            int index = partition;
+            readers.add(Thread.ofVirtual().name("export-" + type.name().toLowerCase() + "-" + partition).start(() -> {
+                try {
+                    rows[index] = read(query, format, updatedSince, lower, upper, chunks);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    putQuietly(chunks, END);
+                }
+            }));
+        }
+
+        try {
+            int finished = 0;
+            while (finished < count) {
+                byte[] chunk = chunks.take();
+                if (chunk == END) {
+                    finished++;
+                } else {
+                    out.write(chunk);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while exporting " + query.table(), e);
+        } finally {
+            // The client may have gone away; stop the readers still blocked on a full queue
+            for (Thread reader : readers) {
+                reader.interrupt();
+            }
+        }
+        Throwable e = failure.get();
+        if (e != null) {
+            throw new IllegalStateException("Export of " + query.table() + " failed: " + e.getMessage(), e);
+        }
+        long total = 0;
+        for (long partitionRows : rows) {
+            total += partitionRows;
+        }
+        return total;
+    }
+
+    private long read(ExportQuery query, ExportFormat format, LocalDateTime updatedSince, long lower, long upper,
+                      BlockingQueue<byte[]> chunks) throws IOException, InterruptedException {
+        String sql = query.chunkSql(updatedSince != null);
+        long after = lower;
+        long total = 0;
+        while (true) {
+            long from = after;
+            List<Object[]> rows = new ArrayList<>(chunkSize);
+            long[] lastId = {from};
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                statement.setFetchSize(chunkSize);
+                int parameter = 1;
+                statement.setLong(parameter++, from);
+                statement.setLong(parameter++, upper);
+                if (updatedSince != null) {
+                    statement.setTimestamp(parameter++, Timestamp.valueOf(updatedSince));
+                }
+                statement.setInt(parameter, chunkSize);
+                return statement;
+            }, rs -> {
+                lastId[0] = rs.getLong(1);
+                rows.add(query.mapper().map(rs));
+            });
+            if (rows.isEmpty()) {
+                return total;
+            }
+            chunks.put(format.encode(query.columns(), rows));
+            total += rows.size();
+            if (rows.size() < chunkSize) {
+                return total;
+            }
+            after = lastId[0];
+        }
+    }
+
+    private long[] idBounds(ExportQuery query) {
+        return jdbcTemplate.query("SELECT MIN(id), MAX(id) FROM " + query.table(), rs -> {
+            if (!rs.next() || rs.getObject(1) == null) {
+                return null;
+            }
+            return new long[] {rs.getLong(1), rs.getLong(2)};
+        });
+    }
+
+    private static void putQuietly(BlockingQueue<byte[]> chunks, byte[] chunk) {
+        try {
+            chunks.put(chunk);
+        } catch (InterruptedException e) {
+            // Interrupted by the writer giving up, nobody is waiting for the end marker
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.school.exporter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Encodes exported rows. CSV uses the column names and value formats the importers read, so
+ * an export can be uploaded again as is; NDJSON writes one object per line with the same keys.
+ */
+public enum ExportFormat {
+
+    CSV("text/csv", "csv") {
+        @Override
+        void writeHeader(List<String> columns, OutputStream out) throws IOException {
+            out.write((String.join(",", columns) + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        void writeRow(List<String> columns, Object[] values, OutputStream out) throws IOException {
+            StringBuilder line = new StringBuilder(128);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendCsv(line, values[i]);
+            }
+            line.append('\n');
+            out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    },
+
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        void writeHeader(List<String> columns, OutputStream out) {
+        }
+
+        @Override
+        void writeRow(List<String> columns, Object[] values, OutputStream out) throws IOException {
+            try (JsonGenerator json = JSON.createGenerator(out)) {
+                json.writeStartObject();
+                for (int i = 0; i < values.length; i++) {
+                    Object value = values[i];
+                    json.writeFieldName(columns.get(i));
+                    if (value == null) {
+                        json.writeNull();
+                    } else if (value instanceof Integer number) {
+                        json.writeNumber(number);
+                    } else if (value instanceof Boolean flag) {
+                        json.writeBoolean(flag);
+                    } else {
+                        json.writeString(value.toString());
+                    }
+                }
+                json.writeEndObject();
+            }
+            out.write('\n');
+        }
+    };
+
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    abstract void writeHeader(List<String> columns, OutputStream out) throws IOException;
+
+    abstract void writeRow(List<String> columns, Object[] values, OutputStream out) throws IOException;
+
+    /** Encodes a chunk of rows into one buffer, so partitions can encode while another chunk is written. */
+    byte[] encode(List<String> columns, List<Object[]> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(rows.size() * 96);
+        for (Object[] row : rows) {
+            writeRow(columns, row, out);
+        }
+        return out.toByteArray();
+    }
+
+    // RFC 4180, as CsvReader reads it
+    private static void appendCsv(StringBuilder line, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(text);
+            return;
+        }
+        line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.school.exporter;
+
+import com.example.school.entity.DataImport;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What is exported for one entity type: the columns of its import format and the query that
+ * reads them. {@code from} names the exported table as {@code x}, and every query is run as
+ * keyset chunks on {@code x.id}.
+ */
+record ExportQuery(String table, List<String> columns, String select, String from, RowMapper mapper) {
+
+    @FunctionalInterface
+    interface RowMapper {
+        Object[] map(ResultSet rs) throws SQLException;
+    }
+
+    static final Map<DataImport.ImportType, ExportQuery> QUERIES = Map.of(
+            DataImport.ImportType.STUDENTS, new ExportQuery("students",
+                    List.of("firstName", "lastName", "email", "phoneNumber", "dateOfBirth"),
+                    "x.first_name, x.last_name, x.email, x.phone_number, x.date_of_birth",
+                    "students x",
+                    rs -> new Object[] {rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                            date(rs, 6)}),
+
+            DataImport.ImportType.COURSES, new ExportQuery("courses",
+                    List.of("code", "title", "description", "credits", "capacity", "prerequisites"),
+                    "x.code, x.title, x.description, x.credits, x.capacity, " +
+                            "(SELECT GROUP_CONCAT(p.code ORDER BY p.code SEPARATOR ';') FROM course_prerequisites cp " +
+                            "JOIN courses p ON p.id = cp.prerequisite_id WHERE cp.course_id = x.id)",
+                    "courses x",
+                    rs -> new Object[] {rs.getString(2), rs.getString(3), rs.getString(4), rs.getInt(5),
+                            rs.getInt(6), rs.getString(7)}),
+
+            DataImport.ImportType.ENROLLMENTS, new ExportQuery("enrollments",
+                    List.of("studentEmail", "courseCode", "enrollmentDate"),
+                    "s.email, c.code, x.enrollment_date",
+                    "enrollments x JOIN students s ON s.id = x.student_id JOIN courses c ON c.id = x.course_id",
+                    rs -> new Object[] {rs.getString(2), rs.getString(3), date(rs, 4)}),
+
+            DataImport.ImportType.GRADES, new ExportQuery("grades",
+                    List.of("studentEmail", "courseCode", "gradeValue", "comments", "completed"),
+                    "s.email, c.code, x.grade_value, x.comments, x.is_course_completed",
+                    "grades x JOIN enrollments e ON e.id = x.enrollment_id " +
+                            "JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id",
+                    rs -> new Object[] {rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                            rs.getBoolean(6)}));
+
+    /** One keyset chunk: rows with {@code after < id <= upTo}, optionally updated since a time, by id. */
+    String chunkSql(boolean updatedSince) {
+        return "SELECT x.id, " + select + " FROM " + from + " WHERE x.id > ? AND x.id <= ?"
+                + (updatedSince ? " AND x.updated_at >= ?" : "") + " ORDER BY x.id LIMIT ?";
+    }
+
+    private static String date(ResultSet rs, int column) throws SQLException {
+        Date date = rs.getDate(column);
+        return date != null ? date.toLocalDate().toString() : null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.school.importer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Splits key sets into chunks that keep IN (...) lists at a bounded size
+final class Chunks {
+
+    private Chunks() {
+    }
+
+    static <T> List<List<T>> of(Collection<T> values, int size) {
+        List<T> list = values instanceof List<T> l ? l : new ArrayList<>(values);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += size) {
+            chunks.add(list.subList(from, Math.min(from + size, list.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.school.importer;
+
+import com.example.school.entity.DataImport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports courses from CSV with the columns {@code code, title} and the optional
+ * {@code description, credits, capacity, prerequisites}, where prerequisites are course
+ * codes separated by {@code ;}. A prerequisite may be an existing course or any row of the
+ * same file, in any order.
+ *
+ * <p>The whole file is read into a graph first. Invalid rows, unknown prerequisite codes and
+ * cycles are rejected, and so is every row that depends on a rejected one. The remaining rows
+ * are inserted in topological order, so each batch only links to courses inserted before it.
+ * Course files are small, so the whole file is written in one transaction: an interrupted
+ * course import leaves nothing behind and runs again from the top when resumed.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourseImportProcessor implements ImportProcessor {
+
+    private static final String INSERT_COURSE = "INSERT INTO courses " +
+            "(id, code, title, description, credits, capacity, enrolled_students, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?)";
+    private static final String INSERT_PREREQUISITE =
+            "INSERT INTO course_prerequisites (course_id, prerequisite_id) VALUES (?, ?)";
+    private static final int MAX_REPORTED_CYCLE_CODES = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ImportIds importIds;
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    public DataImport.ImportType getImportType() {
+        return DataImport.ImportType.COURSES;
+    }
+
+    @Override
+    public void process(DataImport dataImport, CsvSource source, ImportProgress progress) throws IOException {
+        CsvHeader header = source.header();
+        header.require("code", "title");
+
+        Map<String, CourseRow> rows;
+        try (CsvReader reader = source.openRows(null)) {
+            rows = readRows(reader, header, progress);
+        }
+        Map<String, Long> existingIds = findCourseIds(referencedCodes(rows.values()));
+        resolve(rows, existingIds, progress);
+        List<CourseRow> ordered = topologicalOrder(rows, progress);
+
+        if (progress.isDryRun() || ordered.isEmpty()) {
+            progress.succeeded(ordered.size());
+            progress.flush();
+            return;
+        }
+        Map<String, Long> ids = new HashMap<>(existingIds);
+        long nextId = importIds.reserve("courses", ordered.size());
+        for (CourseRow row : ordered) {
+            ids.put(row.code(), nextId++);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (List<CourseRow> batch : Chunks.of(ordered, batchSize)) {
+                write(batch, ids);
+                progress.succeeded(batch.size());
+            }
+            // Rejected rows commit with the courses
+            progress.flush();
+        });
+    }
+
+    private Map<String, CourseRow> readRows(CsvReader reader, CsvHeader header, ImportProgress progress)
+            throws IOException {
+        int code = header.index("code");
+        int title = header.index("title");
+        int description = header.index("description");
+        int credits = header.index("credits");
+        int capacity = header.index("capacity");
+        int prerequisites = header.index("prerequisites");
+
+        Map<String, CourseRow> rows = new LinkedHashMap<>();
+        while (reader.next()) {
+            long rowNumber = reader.rowNumber();
+            String rowCode = reader.get(code).trim();
+            String rowTitle = reader.get(title).trim();
+            String rowDescription = reader.isBlank(description) ? null : reader.get(description).trim();
+            if (rowCode.isEmpty() || rowCode.length() > 20) {
+                progress.failed(rowNumber, "code", "Course code is required and must be at most 20 characters");
+                continue;
+            }
+            if (rowTitle.isEmpty() || rowTitle.length() > 100) {
+                progress.failed(rowNumber, "title", "Title is required and must be at most 100 characters");
+                continue;
+            }
+            if (rowDescription != null && rowDescription.length() > 1000) {
+                progress.failed(rowNumber, "description", "Description must be less than 1000 characters");
+                continue;
+            }
+            Integer rowCredits = parseInt(reader, credits, 3);
+            if (rowCredits == null || rowCredits < 1 || rowCredits > 12) {
+                progress.failed(rowNumber, "credits", "Credits must be a number between 1 and 12");
+                continue;
+            }
+            Integer rowCapacity = parseInt(reader, capacity, 30);
+            if (rowCapacity == null || rowCapacity < 1) {
+                progress.failed(rowNumber, "capacity", "Capacity must be a number of at least 1");
+                continue;
+            }
+            Set<String> prerequisiteCodes = new LinkedHashSet<>();
+            if (!reader.isBlank(prerequisites)) {
+                for (String prerequisite : reader.get(prerequisites).split(";")) {
+                    if (!prerequisite.isBlank()) {
+                        prerequisiteCodes.add(prerequisite.trim());
+                    }
+                }
+            }
+            if (prerequisiteCodes.contains(rowCode)) {
+                progress.failed(rowNumber, "prerequisites", "Course cannot be a prerequisite of itself");
+                continue;
+            }
+            CourseRow row = new CourseRow(rowNumber, rowCode, rowTitle, rowDescription, rowCredits, rowCapacity,
+                    List.copyOf(prerequisiteCodes));
+            if (rows.putIfAbsent(rowCode, row) != null) {
+                progress.failed(rowNumber, "code", "Duplicate course code in file: " + rowCode);
+            }
+        }
+        return rows;
+    }
+
+    // Drops rows whose code is taken or whose prerequisites cannot be found, then everything depending on them
+    private void resolve(Map<String, CourseRow> rows, Map<String, Long> existingIds, ImportProgress progress) {
+        Deque<CourseRow> rejected = new ArrayDeque<>();
+        for (CourseRow row : rows.values()) {
+            if (existingIds.containsKey(row.code())) {
+                progress.failed(row.rowNumber(), "code", "Course with code already exists: " + row.code());
+                rejected.add(row);
+                continue;
+            }
+            for (String prerequisite : row.prerequisites()) {
+                if (!rows.containsKey(prerequisite) && !existingIds.containsKey(prerequisite)) {
+                    progress.failed(row.rowNumber(), "prerequisites", "Unknown prerequisite course code: " + prerequisite);
+                    rejected.add(row);
+                    break;
+                }
+            }
+        }
+        for (CourseRow row : rejected) {
+            rows.remove(row.code());
+        }
+
+        Map<String, List<CourseRow>> dependents = dependentsOf(rows.values());
+        while (!rejected.isEmpty()) {
+            CourseRow failedRow = rejected.poll();
+            for (CourseRow dependent : dependents.getOrDefault(failedRow.code(), List.of())) {
+                if (rows.remove(dependent.code()) != null) {
+                    progress.failed(dependent.rowNumber(), "prerequisites",
+                            "Prerequisite course " + failedRow.code() + " was rejected");
+                    rejected.add(dependent);
+                }
+            }
+        }
+    }
+
+    // Kahn's algorithm over the in-file edges; whatever is left over sits on or behind a cycle
+    private List<CourseRow> topologicalOrder(Map<String, CourseRow> rows, ImportProgress progress) {
+        Map<String, Integer> inDegree = new HashMap<>();
+        for (CourseRow row : rows.values()) {
+            int degree = 0;
+            for (String prerequisite : row.prerequisites()) {
+                if (rows.containsKey(prerequisite)) {
+                    degree++;
+                }
+            }
+            inDegree.put(row.code(), degree);
+        }
+
+        Map<String, List<CourseRow>> dependents = dependentsOf(rows.values());
+        Deque<CourseRow> ready = new ArrayDeque<>();
+        for (CourseRow row : rows.values()) {
+            if (inDegree.get(row.code()) == 0) {
+                ready.add(row);
+            }
+        }
+        List<CourseRow> ordered = new ArrayList<>(rows.size());
+        while (!ready.isEmpty()) {
+            CourseRow row = ready.poll();
+            ordered.add(row);
+            for (CourseRow dependent : dependents.getOrDefault(row.code(), List.of())) {
+                if (inDegree.merge(dependent.code(), -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (ordered.size() < rows.size()) {
+            List<String> blocked = rows.values().stream()
+                    .filter(row -> inDegree.get(row.code()) > 0)
+                    .map(CourseRow::code)
+                    .toList();
+            String codes = String.join(", ", blocked.subList(0, Math.min(blocked.size(), MAX_REPORTED_CYCLE_CODES)))
+                    + (blocked.size() > MAX_REPORTED_CYCLE_CODES ? ", ..." : "");
+            for (CourseRow row : rows.values()) {
+                if (inDegree.get(row.code()) > 0) {
+                    progress.failed(row.rowNumber(), "prerequisites",
+                            "Part of or depends on a prerequisite cycle among courses " + codes);
+                }
+            }
+        }
+        return ordered;
+    }
+
+    // Runs inside the import transaction
+    private void write(List<CourseRow> batch, Map<String, Long> ids) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_COURSE, batch, batch.size(), (ps, row) -> {
+            ps.setLong(1, ids.get(row.code()));
+            ps.setString(2, row.code());
+            ps.setString(3, row.title());
+            ps.setString(4, row.description());
+            ps.setInt(5, row.credits());
+            ps.setInt(6, row.capacity());
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+
+        List<long[]> links = new ArrayList<>();
+        for (CourseRow row : batch) {
+            for (String prerequisite : row.prerequisites()) {
+                links.add(new long[] {ids.get(row.code()), ids.get(prerequisite)});
+            }
+        }
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PREREQUISITE, links, links.size(), (ps, link) -> {
+                ps.setLong(1, link[0]);
+                ps.setLong(2, link[1]);
+            });
+        }
+    }
+
+    private Map<String, Long> findCourseIds(Collection<String> codes) {
+        Map<String, Long> ids = new HashMap<>();
+        for (List<String> chunk : Chunks.of(codes, batchSize)) {
+            namedParameterJdbcTemplate.query("SELECT id, code FROM courses WHERE code IN (:codes)",
+                    Map.of("codes", chunk), rs -> {
+                        ids.put(rs.getString("code"), rs.getLong("id"));
+                    });
+        }
+        return ids;
+    }
+
+    private static Set<String> referencedCodes(Collection<CourseRow> rows) {
+        Set<String> codes = new LinkedHashSet<>();
+        for (CourseRow row : rows) {
+            codes.add(row.code());
+            codes.addAll(row.prerequisites());
+        }
+        return codes;
+    }
+
+    private static Map<String, List<CourseRow>> dependentsOf(Collection<CourseRow> rows) {
+        Map<String, List<CourseRow>> dependents = new HashMap<>();
+        for (CourseRow row : rows) {
+            for (String prerequisite : row.prerequisites()) {
+                dependents.computeIfAbsent(prerequisite, code -> new ArrayList<>()).add(row);
+            }
+        }
+        return dependents;
+    }
+
+    private static Integer parseInt(CsvReader reader, int column, int defaultValue) {
+        if (reader.isBlank(column)) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(reader.get(column).trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record CourseRow(long rowNumber, String code, String title, String description, int credits,
+                             int capacity, List<String> prerequisites) {
+    }
+}
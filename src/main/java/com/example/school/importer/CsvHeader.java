@@ -0,0 +1,55 @@
+package com.example.school.importer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Column positions taken from a header record. Names are matched ignoring case,
+ * spaces, underscores and dashes, so {@code first_name} and {@code First Name}
+ * both map to {@code firstName}.
+ */
+public class CsvHeader {
+
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    public CsvHeader(CsvReader reader) {
+        for (int i = 0; i < reader.fieldCount(); i++) {
+            String name = reader.get(i);
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            columns.putIfAbsent(normalize(name), i);
+        }
+    }
+
+    /** Position of the column, or -1 if the file does not have it. */
+    public int index(String name) {
+        return columns.getOrDefault(normalize(name), -1);
+    }
+
+    public void require(String... names) {
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            if (index(name) < 0) {
+                missing.add(name);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Missing required columns: " + String.join(", ", missing));
+        }
+    }
+
+    private static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c != ' ' && c != '_' && c != '-') {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.school.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streaming RFC 4180 CSV reader working on raw UTF-8 bytes. The file is scanned through
+ * memory-mapped windows, so bytes go from the page cache to the parser without being copied
+ * into a read buffer first. The current record is kept in one reusable byte buffer with field
+ * boundaries in an int array, and a field is only decoded into a {@code String} when it is
+ * asked for. Quoted fields may contain separators, doubled quotes and line breaks. Blank lines
+ * are skipped.
+ */
+public class CsvReader implements Closeable {
+
+    private static final byte COMMA = ',';
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private long mappedUpTo;
+    private ByteBuffer input = ByteBuffer.allocate(0);
+
+    private byte[] record = new byte[256];
+    private int recordLength;
+    private int[] fieldEnds = new int[16];
+    private int fieldCount;
+
+    private long offset;
+    private long line;
+    private long rowNumber;
+    private long startOffset;
+
+    /**
+     * Reader over the file starting {@code offset} bytes in, at the start of a record, after
+     * {@code line} lines. Offsets and row numbers are reported relative to the start of the file.
+     * The reader owns the channel and closes it.
+     */
+    public CsvReader(FileChannel channel, long offset, long line) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.mappedUpTo = offset;
+        this.offset = offset;
+        this.line = line;
+    }
+
+    /**
+     * Advances to the next non-blank record.
+     *
+     * @return false at the end of the input
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            if (!readRecord()) {
+                return false;
+            }
+            if (fieldCount > 1 || recordLength > 0) {
+                return true;
+            }
+        }
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /** Decoded value of the field, or an empty string for a missing or empty field. */
+    public String get(int index) {
+        if (index < 0 || index >= fieldCount) {
+            return "";
+        }
+        int start = index == 0 ? 0 : fieldEnds[index - 1];
+        int end = fieldEnds[index];
+        return start == end ? "" : new String(record, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /** True if the field is missing or holds only spaces, checked without decoding it. */
+    public boolean isBlank(int index) {
+        if (index < 0 || index >= fieldCount) {
+            return true;
+        }
+        for (int i = index == 0 ? 0 : fieldEnds[index - 1]; i < fieldEnds[index]; i++) {
+            if (record[i] != ' ' && record[i] != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** 1-based line number where the current record starts, counting the header line. */
+    public long rowNumber() {
+        return rowNumber;
+    }
+
+    /** Byte offset where the current record starts. */
+    public long startOffset() {
+        return startOffset;
+    }
+
+    /** Number of bytes consumed up to the end of the current record. */
+    public long offset() {
+        return offset;
+    }
+
+    /** Number of lines consumed up to the end of the current record. */
+    public long lineCount() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean readRecord() throws IOException {
+        recordLength = 0;
+        fieldCount = 0;
+        rowNumber = line + 1;
+        startOffset = offset;
+        boolean quoted = false;
+        boolean afterQuote = false;
+        boolean any = false;
+
+        while (true) {
+            if (!input.hasRemaining() && !fill()) {
+                if (!any) {
+                    return false;
+                }
+                endField();
+                line++;
+                return true;
+            }
+            byte b = input.get();
+            offset++;
+            any = true;
+
+            if (quoted) {
+                if (b == QUOTE) {
+                    quoted = false;
+                    afterQuote = true;
+                } else {
+                    if (b == LF) {
+                        line++;
+                    }
+                    append(b);
+                }
+            } else if (b == QUOTE) {
+                // Opening quote, or the second half of an escaped "" inside a quoted field
+                if (afterQuote) {
+                    append(QUOTE);
+                }
+                quoted = true;
+                afterQuote = false;
+            } else if (b == COMMA) {
+                endField();
+                afterQuote = false;
+            } else if (b == LF) {
+                endField();
+                line++;
+                return true;
+            } else if (b != CR) {
+                append(b);
+                afterQuote = false;
+            }
+        }
+    }
+
+    // Maps the next window; the previous one is unmapped once it is garbage collected
+    private boolean fill() throws IOException {
+        if (mappedUpTo >= size) {
+            return false;
+        }
+        long length = Math.min(WINDOW_SIZE, size - mappedUpTo);
+        input = channel.map(FileChannel.MapMode.READ_ONLY, mappedUpTo, length);
+        mappedUpTo += length;
+        return true;
+    }
+
+    private void append(byte b) {
+        if (recordLength == record.length) {
+            record = Arrays.copyOf(record, record.length * 2);
+        }
+        record[recordLength++] = b;
+    }
+
+    private void endField() {
+        if (fieldCount == fieldEnds.length) {
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldEnds.length * 2);
+        }
+        fieldEnds[fieldCount++] = recordLength;
+    }
+}
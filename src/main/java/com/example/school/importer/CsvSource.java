@@ -0,0 +1,49 @@
+package com.example.school.importer;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The stored file of an import, always plain CSV: compressed uploads are inflated when they
+ * are stored. Every call opens a fresh reader, so processors can make more than one pass, and
+ * a resumed import seeks straight to its checkpoint instead of re-reading the rows before it.
+ */
+public class CsvSource {
+
+    private final Path file;
+
+    public CsvSource(Path file) {
+        this.file = file;
+    }
+
+    public CsvHeader header() throws IOException {
+        try (CsvReader reader = open(0, 0)) {
+            if (!reader.next()) {
+                throw new IllegalArgumentException("File is empty");
+            }
+            return new CsvHeader(reader);
+        }
+    }
+
+    /** Reader positioned at the checkpoint, or at the first row after the header when there is none. */
+    public CsvReader openRows(ImportCheckpoint checkpoint) throws IOException {
+        if (checkpoint != null) {
+            return open(checkpoint.offset(), checkpoint.line());
+        }
+        CsvReader reader = open(0, 0);
+        reader.next();
+        return reader;
+    }
+
+    private CsvReader open(long offset, long line) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new CsvReader(channel, offset, line);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.school.importer;
+
+import com.example.school.entity.DataImport;
+import com.example.school.importer.ImportLookups.CourseRef;
+import com.example.school.importer.ImportLookups.EnrollmentRef;
+import com.example.school.importer.ImportLookups.StudentCourse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Imports enrollments from CSV with the columns {@code studentEmail, courseCode} and the
+ * optional {@code enrollmentDate} (ISO date, defaults to today).
+ *
+ * <p>A first pass collects the emails and course codes in the file, and the students,
+ * courses, prerequisites and existing enrollments for just those keys are preloaded into
+ * hash maps. The second pass applies the same rules as {@code EnrollmentService.enrollStudent}
+ * against those maps: no enrollment for the pair in the current term, a free seat and completed
+ * prerequisites. The second pass is partitioned by course, and each chunk's enrollments
+ * are inserted in one JDBC batch together with one seat count update per course. The maps
+ * can be out of date by then, so each chunk locks its courses and rechecks the free seats,
+ * existing enrollments and deletions before it writes.
+ */
+@Component
+@RequiredArgsConstructor
+public class EnrollmentImportProcessor implements ImportProcessor {
+
+    private static final String INSERT_ENROLLMENT = "INSERT INTO enrollments " +
+            "(id, enrollment_date, status, student_id, course_id, term_id, created_at, updated_at) " +
+            "VALUES (?, ?, 'ACTIVE', ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SEATS =
+            "UPDATE courses SET enrolled_students = enrolled_students + ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImportLookups importLookups;
+    private final ImportChunkLedger importChunkLedger;
+    private final ImportIds importIds;
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.import.partitions:4}")
+    private int partitions;
+
+    @Override
+    public DataImport.ImportType getImportType() {
+        return DataImport.ImportType.ENROLLMENTS;
+    }
+
+    @Override
+    public void process(DataImport dataImport, CsvSource source, ImportProgress progress) throws IOException {
+        Columns columns = readHeader(source);
+        // Rows before the checkpoint are already stored, and so show up in the lookups below
+        ImportCheckpoint checkpoint = importChunkLedger.checkpoint(dataImport.getId());
+        Set<String> emails = new HashSet<>();
+        Set<String> codes = new HashSet<>();
+        try (CsvReader reader = source.openRows(checkpoint)) {
+            while (reader.next()) {
+                emails.add(reader.get(columns.studentEmail()).trim().toLowerCase(Locale.ROOT));
+                codes.add(reader.get(columns.courseCode()).trim());
+            }
+        }
+
+        Map<String, Long> studentIds = importLookups.studentIdsByEmail(emails);
+        Map<String, CourseRef> courses = importLookups.coursesByCode(codes);
+        Map<Long, Set<Long>> prerequisites = importLookups.prerequisiteIds(
+                courses.values().stream().map(CourseRef::id).toList());
+        // Imported enrollments go to the current term; prerequisites count courses completed in any term
+        LocalDate today = LocalDate.now();
+        long termId = importLookups.currentTermId(today);
+        Map<StudentCourse, EnrollmentRef> enrollments = importLookups.enrollments(studentIds.values(), termId);
+        Map<Long, Set<Long>> completedCourses = importLookups.completedCourseIds(studentIds.values());
+        Map<Long, Integer> seatsTaken = new HashMap<>();
+        for (CourseRef course : courses.values()) {
+            seatsTaken.put(course.id(), course.enrolledStudents());
+        }
+
+        Validation validation = new Validation(studentIds, courses, prerequisites, completedCourses,
+                new ConcurrentHashMap<>(enrollments), new ConcurrentHashMap<>(seatsTaken), termId, today);
+
+        // Partitioned by course code: a course's seat counter and pairs are only touched by one worker
+        try (CsvReader reader = source.openRows(checkpoint);
+             PartitionedImport<RawEnrollment> partitioned = new PartitionedImport<>(dataImport.getId(), progress,
+                     importChunkLedger, partitions, batchSize, rows -> prepare(rows, validation, progress))) {
+            while (reader.next()) {
+                RawEnrollment row = new RawEnrollment(reader.rowNumber(), reader.get(columns.studentEmail()).trim(),
+                        reader.get(columns.courseCode()).trim(), reader.get(columns.enrollmentDate()).trim());
+                partitioned.add(row.courseCode().hashCode(), row, reader);
+            }
+            partitioned.finish();
+        }
+        progress.flush();
+    }
+
+    private PartitionedImport.ChunkWrites prepare(List<RawEnrollment> chunk, Validation validation,
+                                                  ImportProgress progress) {
+        List<EnrollmentRow> rows = new ArrayList<>(chunk.size());
+        for (RawEnrollment raw : chunk) {
+            EnrollmentRow row = validate(raw, validation, progress);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        long firstId = rows.isEmpty() || progress.isDryRun() ? 0 : importIds.reserve("enrollments", rows.size());
+        return new PartitionedImport.ChunkWrites(rows.size(), () -> write(rows, validation.termId(), firstId, progress));
+    }
+
+    private EnrollmentRow validate(RawEnrollment raw, Validation validation, ImportProgress progress) {
+        long rowNumber = raw.rowNumber();
+        Long studentId = validation.studentIds().get(raw.studentEmail().toLowerCase(Locale.ROOT));
+        if (studentId == null) {
+            progress.failed(rowNumber, "studentEmail", "Student not found with email: " + raw.studentEmail());
+            return null;
+        }
+        CourseRef course = validation.courses().get(raw.courseCode());
+        if (course == null) {
+            progress.failed(rowNumber, "courseCode", "Course not found with code: " + raw.courseCode());
+            return null;
+        }
+        LocalDate enrollmentDate = validation.today();
+        if (!raw.enrollmentDate().isEmpty()) {
+            try {
+                enrollmentDate = LocalDate.parse(raw.enrollmentDate());
+            } catch (DateTimeParseException e) {
+                progress.failed(rowNumber, "enrollmentDate", "Enrollment date must be an ISO date (yyyy-MM-dd)");
+                return null;
+            }
+        }
+
+        StudentCourse key = new StudentCourse(studentId, course.id());
+        EnrollmentRef existing = validation.enrollments().get(key);
+        if (existing != null) {
+            progress.failed(rowNumber, "courseCode", "ACTIVE".equals(existing.status())
+                    ? "Student is already enrolled in this course"
+                    : "Student already has a " + existing.status() + " enrollment in this course");
+            return null;
+        }
+        if (validation.seatsTaken().get(course.id()) >= course.capacity()) {
+            progress.failed(rowNumber, "courseCode", "Course " + course.code() + " is full. No available seats.");
+            return null;
+        }
+        Set<Long> completed = validation.completedCourses().getOrDefault(studentId, Set.of());
+        if (!completed.containsAll(validation.prerequisites().getOrDefault(course.id(), Set.of()))) {
+            progress.failed(rowNumber, "courseCode", "Student has not completed all prerequisites for this course");
+            return null;
+        }
+
+        // Later rows of the same file see this enrollment and its seat
+        validation.enrollments().put(key, new EnrollmentRef(0, "ACTIVE", false));
+        validation.seatsTaken().merge(course.id(), 1, Integer::sum);
+        return new EnrollmentRow(raw, studentId, course.id(), enrollmentDate);
+    }
+
+    // Runs inside the chunk transaction
+    private int write(List<EnrollmentRow> validated, long termId, long firstId, ImportProgress progress) {
+        List<EnrollmentRow> rows = recheckLocked(validated, termId, progress);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> seatsByCourse = new HashMap<>();
+        for (EnrollmentRow row : rows) {
+            seatsByCourse.merge(row.courseId(), 1, Integer::sum);
+        }
+        List<Map.Entry<Long, Integer>> seatUpdates = new ArrayList<>(seatsByCourse.entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        long[] nextId = {firstId};
+        jdbcTemplate.batchUpdate(INSERT_ENROLLMENT, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, nextId[0]++);
+            ps.setDate(2, Date.valueOf(row.enrollmentDate()));
+            ps.setLong(3, row.studentId());
+            ps.setLong(4, row.courseId());
+            ps.setLong(5, termId);
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+        });
+        jdbcTemplate.batchUpdate(UPDATE_SEATS, seatUpdates, seatUpdates.size(), (ps, seats) -> {
+            ps.setInt(1, seats.getValue());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, seats.getKey());
+        });
+        return rows.size();
+    }
+
+    // The lookups are older than this chunk: since then a student or course may have been marked
+    // deleted (and purged), and enrollments from the API or another import may have taken seats or
+    // the same pairs. The courses are locked from here until the chunk commits, and every path
+    // that enrolls locks the course first, so the seats and pairs read now are the ones written against
+    private List<EnrollmentRow> recheckLocked(List<EnrollmentRow> rows, long termId, ImportProgress progress) {
+        Set<Long> courseIds = rows.stream().map(EnrollmentRow::courseId).collect(Collectors.toSet());
+        Set<Long> studentIdSet = rows.stream().map(EnrollmentRow::studentId).collect(Collectors.toSet());
+        Map<Long, Integer> freeSeats = importLookups.lockLiveCourseSeats(courseIds);
+        Set<Long> studentIds = importLookups.lockLiveStudents(studentIdSet);
+        Set<StudentCourse> enrolled = importLookups.lockEnrollments(studentIdSet, courseIds, termId);
+        List<EnrollmentRow> live = new ArrayList<>(rows.size());
+        for (EnrollmentRow row : rows) {
+            RawEnrollment raw = row.raw();
+            if (!studentIds.contains(row.studentId())) {
+                progress.failed(raw.rowNumber(), "studentEmail", "Student not found with email: " + raw.studentEmail());
+            } else if (!freeSeats.containsKey(row.courseId())) {
+                progress.failed(raw.rowNumber(), "courseCode", "Course not found with code: " + raw.courseCode());
+            } else if (enrolled.contains(new StudentCourse(row.studentId(), row.courseId()))) {
+                progress.failed(raw.rowNumber(), "courseCode", "Student is already enrolled in this course");
+            } else if (freeSeats.get(row.courseId()) <= 0) {
+                progress.failed(raw.rowNumber(), "courseCode", "Course " + raw.courseCode() + " is full. No available seats.");
+            } else {
+                freeSeats.merge(row.courseId(), -1, Integer::sum);
+                live.add(row);
+            }
+        }
+        return live;
+    }
+
+    private static Columns readHeader(CsvSource source) throws IOException {
+        CsvHeader header = source.header();
+        header.require("studentEmail", "courseCode");
+        return new Columns(header.index("studentEmail"), header.index("courseCode"), header.index("enrollmentDate"));
+    }
+
+    private record Columns(int studentEmail, int courseCode, int enrollmentDate) {
+    }
+
+    // Preloaded lookups; enrollments and seatsTaken are updated as rows are accepted
+    private record Validation(Map<String, Long> studentIds, Map<String, CourseRef> courses,
+                              Map<Long, Set<Long>> prerequisites, Map<Long, Set<Long>> completedCourses,
+                              Map<StudentCourse, EnrollmentRef> enrollments, Map<Long, Integer> seatsTaken,
+                              long termId, LocalDate today) {
+    }
+
+    private record RawEnrollment(long rowNumber, String studentEmail, String courseCode, String enrollmentDate) {
+    }
+
+    private record EnrollmentRow(RawEnrollment raw, long studentId, long courseId, LocalDate enrollmentDate) {
+    }
+}
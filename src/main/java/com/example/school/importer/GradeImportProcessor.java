@@ -0,0 +1,255 @@
+package com.example.school.importer;
+
+import com.example.school.entity.DataImport;
+import com.example.school.importer.ImportLookups.CourseRef;
+import com.example.school.importer.ImportLookups.EnrollmentRef;
+import com.example.school.importer.ImportLookups.StudentCourse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Imports grades from CSV with the columns {@code studentEmail, courseCode, gradeValue} and
+ * the optional {@code comments, completed} (defaults to true, like recording a grade through
+ * the API). Keys are preloaded as in {@link EnrollmentImportProcessor}. A grade needs an
+ * active enrollment in the current term without a grade, and completed grades also mark the
+ * enrollment {@code COMPLETED} and release its seat, in the same chunk transaction. Rows are
+ * partitioned by course.
+ */
+@Component
+@RequiredArgsConstructor
+public class GradeImportProcessor implements ImportProcessor {
+
+    private static final Pattern GRADE = Pattern.compile("^[A-D][+-]?|F|P|NP|I|W$");
+    private static final String INSERT_GRADE = "INSERT INTO grades " +
+            "(id, grade_value, comments, is_course_completed, enrollment_id, term_id, graded_date, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String COMPLETE_ENROLLMENT =
+            "UPDATE enrollments SET status = 'COMPLETED', updated_at = ? WHERE id = ? AND term_id = ?";
+    // Completed enrollments no longer hold a seat
+    private static final String RELEASE_SEATS = "UPDATE courses SET enrolled_students = " +
+            "GREATEST(enrolled_students - ?, 0), updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImportLookups importLookups;
+    private final ImportChunkLedger importChunkLedger;
+    private final ImportIds importIds;
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.import.partitions:4}")
+    private int partitions;
+
+    @Override
+    public DataImport.ImportType getImportType() {
+        return DataImport.ImportType.GRADES;
+    }
+
+    @Override
+    public void process(DataImport dataImport, CsvSource source, ImportProgress progress) throws IOException {
+        Columns columns = readHeader(source);
+        // Rows before the checkpoint are already stored, and so show up in the lookups below
+        ImportCheckpoint checkpoint = importChunkLedger.checkpoint(dataImport.getId());
+        Set<String> emails = new HashSet<>();
+        Set<String> codes = new HashSet<>();
+        try (CsvReader reader = source.openRows(checkpoint)) {
+            while (reader.next()) {
+                emails.add(reader.get(columns.studentEmail()).trim().toLowerCase(Locale.ROOT));
+                codes.add(reader.get(columns.courseCode()).trim());
+            }
+        }
+
+        Map<String, Long> studentIds = importLookups.studentIdsByEmail(emails);
+        Map<String, CourseRef> courses = importLookups.coursesByCode(codes);
+        // Grades are recorded for enrollments of the current term
+        LocalDate today = LocalDate.now();
+        long termId = importLookups.currentTermId(today);
+        Map<StudentCourse, EnrollmentRef> enrollments = importLookups.enrollments(studentIds.values(), termId);
+
+        Validation validation = new Validation(studentIds, courses, new ConcurrentHashMap<>(enrollments),
+                termId, today);
+
+        // Partitioned by course code, so each (student, course) enrollment is only touched by one worker
+        try (CsvReader reader = source.openRows(checkpoint);
+             PartitionedImport<RawGrade> partitioned = new PartitionedImport<>(dataImport.getId(), progress,
+                     importChunkLedger, partitions, batchSize, rows -> prepare(rows, validation, progress))) {
+            while (reader.next()) {
+                RawGrade row = new RawGrade(reader.rowNumber(), reader.get(columns.studentEmail()).trim(),
+                        reader.get(columns.courseCode()).trim(), reader.get(columns.gradeValue()).trim(),
+                        reader.get(columns.comments()).trim(), reader.get(columns.completed()).trim());
+                partitioned.add(row.courseCode().hashCode(), row, reader);
+            }
+            partitioned.finish();
+        }
+        progress.flush();
+    }
+
+    private PartitionedImport.ChunkWrites prepare(List<RawGrade> chunk, Validation validation,
+                                                  ImportProgress progress) {
+        List<GradeRow> rows = new ArrayList<>(chunk.size());
+        for (RawGrade raw : chunk) {
+            GradeRow row = validate(raw, validation, progress);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        long firstId = rows.isEmpty() || progress.isDryRun() ? 0 : importIds.reserve("grades", rows.size());
+        return new PartitionedImport.ChunkWrites(rows.size(), () -> write(rows, validation.termId(), firstId, progress));
+    }
+
+    private GradeRow validate(RawGrade raw, Validation validation, ImportProgress progress) {
+        long rowNumber = raw.rowNumber();
+        Long studentId = validation.studentIds().get(raw.studentEmail().toLowerCase(Locale.ROOT));
+        if (studentId == null) {
+            progress.failed(rowNumber, "studentEmail", "Student not found with email: " + raw.studentEmail());
+            return null;
+        }
+        CourseRef course = validation.courses().get(raw.courseCode());
+        if (course == null) {
+            progress.failed(rowNumber, "courseCode", "Course not found with code: " + raw.courseCode());
+            return null;
+        }
+        if (!GRADE.matcher(raw.gradeValue()).matches()) {
+            progress.failed(rowNumber, "gradeValue", "Invalid grade value: " + raw.gradeValue());
+            return null;
+        }
+        String comments = raw.comments().isEmpty() ? null : raw.comments();
+        if (comments != null && comments.length() > 500) {
+            progress.failed(rowNumber, "comments", "Comments must be less than 500 characters");
+            return null;
+        }
+        Boolean completed = parseBoolean(raw.completed());
+        if (completed == null) {
+            progress.failed(rowNumber, "completed", "Completed must be true or false");
+            return null;
+        }
+
+        StudentCourse key = new StudentCourse(studentId, course.id());
+        EnrollmentRef enrollment = validation.enrollments().get(key);
+        if (enrollment == null) {
+            progress.failed(rowNumber, "courseCode", "Student is not enrolled in course " + raw.courseCode());
+            return null;
+        }
+        if (enrollment.graded()) {
+            progress.failed(rowNumber, "courseCode", "A grade already exists for this enrollment");
+            return null;
+        }
+        if (!"ACTIVE".equals(enrollment.status())) {
+            progress.failed(rowNumber, "courseCode", "Cannot record grade for an inactive enrollment");
+            return null;
+        }
+
+        validation.enrollments().put(key, new EnrollmentRef(enrollment.id(), completed ? "COMPLETED" : "ACTIVE", true));
+        return new GradeRow(rowNumber, enrollment.id(), course.id(), raw.gradeValue(), comments, completed,
+                completed ? validation.today() : null);
+    }
+
+    // Runs inside the chunk transaction
+    private int write(List<GradeRow> validated, long termId, long firstId, ImportProgress progress) {
+        List<GradeRow> rows = stillActive(validated, progress);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<GradeRow> completed = rows.stream().filter(GradeRow::completed).toList();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        long[] nextId = {firstId};
+        jdbcTemplate.batchUpdate(INSERT_GRADE, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, nextId[0]++);
+            ps.setString(2, row.gradeValue());
+            ps.setString(3, row.comments());
+            ps.setBoolean(4, row.completed());
+            ps.setLong(5, row.enrollmentId());
+            ps.setLong(6, termId);
+            ps.setDate(7, row.gradedDate() != null ? Date.valueOf(row.gradedDate()) : null);
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+        if (!completed.isEmpty()) {
+            jdbcTemplate.batchUpdate(COMPLETE_ENROLLMENT, completed, completed.size(), (ps, row) -> {
+                ps.setTimestamp(1, now);
+                ps.setLong(2, row.enrollmentId());
+                ps.setLong(3, termId);
+            });
+            Map<Long, Integer> seatsByCourse = new HashMap<>();
+            for (GradeRow row : completed) {
+                seatsByCourse.merge(row.courseId(), 1, Integer::sum);
+            }
+            List<Map.Entry<Long, Integer>> seatUpdates = new ArrayList<>(seatsByCourse.entrySet());
+            jdbcTemplate.batchUpdate(RELEASE_SEATS, seatUpdates, seatUpdates.size(), (ps, seats) -> {
+                ps.setInt(1, seats.getValue());
+                ps.setTimestamp(2, now);
+                ps.setLong(3, seats.getKey());
+            });
+        }
+        return rows.size();
+    }
+
+    // An enrollment can be purged with its student or course, or change status, after the lookups.
+    // The enrollments graded are locked until the chunk commits, so a purge starting later waits for it
+    private List<GradeRow> stillActive(List<GradeRow> rows, ImportProgress progress) {
+        Set<Long> active = importLookups.lockActiveEnrollments(
+                rows.stream().map(GradeRow::enrollmentId).collect(Collectors.toSet()));
+        List<GradeRow> live = new ArrayList<>(rows.size());
+        for (GradeRow row : rows) {
+            if (active.contains(row.enrollmentId())) {
+                live.add(row);
+            } else {
+                progress.failed(row.rowNumber(), "courseCode", "Enrollment was removed or is no longer active");
+            }
+        }
+        return live;
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value.isEmpty()) {
+            return true;
+        }
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "y", "1" -> true;
+            case "false", "no", "n", "0" -> false;
+            default -> null;
+        };
+    }
+
+    private static Columns readHeader(CsvSource source) throws IOException {
+        CsvHeader header = source.header();
+        header.require("studentEmail", "courseCode", "gradeValue");
+        return new Columns(header.index("studentEmail"), header.index("courseCode"), header.index("gradeValue"),
+                header.index("comments"), header.index("completed"));
+    }
+
+    private record Columns(int studentEmail, int courseCode, int gradeValue, int comments, int completed) {
+    }
+
+    // Preloaded lookups; enrollments is updated as grades are accepted
+    private record Validation(Map<String, Long> studentIds, Map<String, CourseRef> courses,
+                              Map<StudentCourse, EnrollmentRef> enrollments, long termId, LocalDate today) {
+    }
+
+    private record RawGrade(long rowNumber, String studentEmail, String courseCode, String gradeValue,
+                            String comments, String completed) {
+    }
+
+    private record GradeRow(long rowNumber, long enrollmentId, long courseId, String gradeValue, String comments, boolean completed,
+                            LocalDate gradedDate) {
+    }
+}
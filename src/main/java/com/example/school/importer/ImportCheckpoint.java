@@ -0,0 +1,8 @@
+package com.example.school.importer;
+
+/**
+ * A position in an import file at the start of a record: its byte offset and the number of
+ * lines before it. Every row before a committed checkpoint has been imported or rejected.
+ */
+public record ImportCheckpoint(long offset, long line) {
+}
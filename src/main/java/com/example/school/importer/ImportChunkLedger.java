@@ -0,0 +1,92 @@
+package com.example.school.importer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Commits import chunks exactly once. A chunk's rows and its {@code data_import_chunks} row go
+ * into one transaction, and the unique key on (import_id, partition_no, chunk_no) rejects a
+ * second commit of the same chunk. Each chunk row also carries the import's checkpoint as of
+ * its commit, so the checkpoint is durable without every chunk updating the same import row.
+ */
+@Component
+@RequiredArgsConstructor
+class ImportChunkLedger {
+
+    private static final String INSERT_CHUNK = "INSERT INTO data_import_chunks " +
+            "(import_id, partition_no, chunk_no, successful_records, failed_records, end_offset, end_line, " +
+            "checkpoint_offset, checkpoint_line, committed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** A chunk of {@code rows} rows whose last row ends at {@code endOffset} and {@code endLine}. */
+    record ChunkMark(int partition, int chunkNo, int rows, long endOffset, long endLine) {
+    }
+
+    /** What earlier runs of an import committed for one partition. */
+    record PartitionState(int chunks, long endOffset, int successful, int failed) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /** The import's checkpoint, or null if it has not committed a chunk yet. */
+    ImportCheckpoint checkpoint(Long importId) {
+        // Partitions commit out of order, so the furthest checkpoint wins
+        List<ImportCheckpoint> checkpoints = jdbcTemplate.query("SELECT checkpoint_offset, checkpoint_line " +
+                        "FROM data_import_chunks WHERE import_id = ? ORDER BY checkpoint_offset DESC LIMIT 1",
+                (rs, rowNum) -> new ImportCheckpoint(rs.getLong("checkpoint_offset"), rs.getLong("checkpoint_line")),
+                importId);
+        return checkpoints.isEmpty() ? null : checkpoints.get(0);
+    }
+
+    /** Fixes the partition count on the first run, so a resumed run routes rows the same way. */
+    int partitionCount(Long importId, int partitions) {
+        jdbcTemplate.update("UPDATE data_imports SET partition_count = ? WHERE id = ? AND partition_count IS NULL",
+                partitions, importId);
+        Integer count = jdbcTemplate.queryForObject("SELECT partition_count FROM data_imports WHERE id = ?",
+                Integer.class, importId);
+        return count != null ? count : partitions;
+    }
+
+    Map<Integer, PartitionState> partitionStates(Long importId) {
+        Map<Integer, PartitionState> states = new HashMap<>();
+        jdbcTemplate.query("SELECT partition_no, COUNT(*) AS chunks, MAX(end_offset) AS end_offset, " +
+                        "SUM(successful_records) AS successful, SUM(failed_records) AS failed " +
+                        "FROM data_import_chunks WHERE import_id = ? GROUP BY partition_no",
+                rs -> {
+                    states.put(rs.getInt("partition_no"), new PartitionState(rs.getInt("chunks"),
+                            rs.getLong("end_offset"), rs.getInt("successful"), rs.getInt("failed")));
+                }, importId);
+        return states;
+    }
+
+    /**
+     * Runs the writes for a chunk and records the chunk, with the import's checkpoint once it
+     * is committed, in one transaction.
+     *
+     * @return the number of rows written, or -1 if the chunk had already been committed
+     */
+    int commit(Long importId, ChunkMark chunk, ImportCheckpoint checkpoint, IntSupplier writes) {
+        try {
+            Integer written = transactionTemplate.execute(status -> {
+                int successful = writes.getAsInt();
+                jdbcTemplate.update(INSERT_CHUNK, importId, chunk.partition(), chunk.chunkNo(), successful,
+                        chunk.rows() - successful, chunk.endOffset(), chunk.endLine(), checkpoint.offset(),
+                        checkpoint.line(), Timestamp.valueOf(LocalDateTime.now()));
+                return successful;
+            });
+            return written != null ? written : 0;
+        } catch (DuplicateKeyException e) {
+            return -1;
+        }
+    }
+}
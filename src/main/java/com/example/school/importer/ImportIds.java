@@ -0,0 +1,38 @@
+package com.example.school.importer;
+
+import com.example.school.entity.PooledIdGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reserves ids for JDBC inserts from the same {@code id_generators} rows Hibernate takes its
+ * pooled ids from. Each reservation commits in its own short transaction, so it is made before
+ * the chunk transaction opens and the row lock is never held while a chunk is written.
+ */
+@Component
+class ImportIds {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    ImportIds(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** @return the first of {@code count} consecutive ids reserved for {@code table} */
+    long reserve(String table, int count) {
+        Long first = transactionTemplate.execute(status -> {
+            Long last = jdbcTemplate.queryForObject("SELECT next_val FROM " + PooledIdGenerator.TABLE +
+                    " WHERE sequence_name = ? FOR UPDATE", Long.class, table);
+            jdbcTemplate.update("UPDATE " + PooledIdGenerator.TABLE + " SET next_val = ? WHERE sequence_name = ?",
+                    last + count, table);
+            return last + 1;
+        });
+        return first;
+    }
+}
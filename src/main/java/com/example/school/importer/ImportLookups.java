@@ -0,0 +1,172 @@
+package com.example.school.importer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Preloads the rows that enrollment and grade imports refer to, for just the keys found in
+ * the file. Every lookup runs as chunked {@code IN (...)} queries, so the number of queries
+ * depends on the number of distinct keys and not on the number of rows.
+ */
+@Component
+@RequiredArgsConstructor
+class ImportLookups {
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${app.batch.chunk-size:1000}")
+    private int chunkSize;
+
+    /** Student ids keyed by lower-cased email. */
+    Map<String, Long> studentIdsByEmail(Collection<String> emails) {
+        Map<String, Long> ids = new HashMap<>();
+        for (List<String> chunk : Chunks.of(emails, chunkSize)) {
+            namedParameterJdbcTemplate.query("SELECT id, email FROM students WHERE email IN (:emails) AND deleted_at IS NULL",
+                    Map.of("emails", chunk), rs -> {
+                        ids.put(rs.getString("email").toLowerCase(Locale.ROOT), rs.getLong("id"));
+                    });
+        }
+        return ids;
+    }
+
+    Map<String, CourseRef> coursesByCode(Collection<String> codes) {
+        Map<String, CourseRef> courses = new HashMap<>();
+        for (List<String> chunk : Chunks.of(codes, chunkSize)) {
+            namedParameterJdbcTemplate.query(
+                    "SELECT id, code, capacity, enrolled_students FROM courses " +
+                    "WHERE code IN (:codes) AND deleted_at IS NULL",
+                    Map.of("codes", chunk), rs -> {
+                        courses.put(rs.getString("code"), new CourseRef(rs.getLong("id"), rs.getString("code"),
+                                rs.getInt("capacity"), rs.getInt("enrolled_students")));
+                    });
+        }
+        return courses;
+    }
+
+    Map<Long, Set<Long>> prerequisiteIds(Collection<Long> courseIds) {
+        Map<Long, Set<Long>> prerequisites = new HashMap<>();
+        for (List<Long> chunk : Chunks.of(courseIds, chunkSize)) {
+            namedParameterJdbcTemplate.query(
+                    "SELECT course_id, prerequisite_id FROM course_prerequisites WHERE course_id IN (:courseIds)",
+                    Map.of("courseIds", chunk), rs -> {
+                        prerequisites.computeIfAbsent(rs.getLong("course_id"), id -> new HashSet<>())
+                                .add(rs.getLong("prerequisite_id"));
+                    });
+        }
+        return prerequisites;
+    }
+
+    /** The term imported enrollments go to, like {@code AcademicTermService.getCurrentTerm}. */
+    long currentTermId(LocalDate today) {
+        List<Long> ids = namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM academic_terms WHERE status = 'OPEN' AND start_date <= :today " +
+                "ORDER BY start_date DESC, id DESC LIMIT 1", Map.of("today", today), Long.class);
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No open academic term has started");
+        }
+        return ids.get(0);
+    }
+
+    /** The given students' enrollments in one term, with their grade id if one is recorded. */
+    Map<StudentCourse, EnrollmentRef> enrollments(Collection<Long> studentIds, long termId) {
+        Map<StudentCourse, EnrollmentRef> enrollments = new HashMap<>();
+        for (List<Long> chunk : Chunks.of(studentIds, chunkSize)) {
+            namedParameterJdbcTemplate.query(
+                    "SELECT e.id, e.student_id, e.course_id, e.status, g.id AS grade_id FROM enrollments e " +
+                    "LEFT JOIN grades g ON g.enrollment_id = e.id AND g.term_id = e.term_id " +
+                    "WHERE e.term_id = :termId AND e.student_id IN (:studentIds)",
+                    Map.of("termId", termId, "studentIds", chunk), rs -> {
+                        enrollments.put(new StudentCourse(rs.getLong("student_id"), rs.getLong("course_id")),
+                                new EnrollmentRef(rs.getLong("id"), rs.getString("status"),
+                                        rs.getObject("grade_id") != null));
+                    });
+        }
+        return enrollments;
+    }
+
+    /** Course ids each of the given students has completed, in any term. */
+    Map<Long, Set<Long>> completedCourseIds(Collection<Long> studentIds) {
+        Map<Long, Set<Long>> completed = new HashMap<>();
+        for (List<Long> chunk : Chunks.of(studentIds, chunkSize)) {
+            namedParameterJdbcTemplate.query(
+                    "SELECT student_id, course_id FROM enrollments " +
+                    "WHERE student_id IN (:studentIds) AND status = 'COMPLETED'",
+                    Map.of("studentIds", chunk), rs -> {
+                        completed.computeIfAbsent(rs.getLong("student_id"), id -> new HashSet<>())
+                                .add(rs.getLong("course_id"));
+                    });
+        }
+        return completed;
+    }
+
+    /** Of the given students, those not being deleted, held shared until the transaction ends. */
+    Set<Long> lockLiveStudents(Collection<Long> studentIds) {
+        return lockIds("SELECT id FROM students WHERE id IN (:ids) AND deleted_at IS NULL FOR SHARE", studentIds);
+    }
+
+    /** Free seats of the given courses not being deleted, locked in id order until the transaction ends. */
+    Map<Long, Integer> lockLiveCourseSeats(Collection<Long> courseIds) {
+        Map<Long, Integer> freeSeats = new HashMap<>();
+        for (List<Long> chunk : Chunks.of(courseIds.stream().sorted().toList(), chunkSize)) {
+            namedParameterJdbcTemplate.query("SELECT id, capacity - enrolled_students AS free_seats FROM courses " +
+                            "WHERE id IN (:ids) AND deleted_at IS NULL ORDER BY id FOR UPDATE",
+                    Map.of("ids", chunk), rs -> {
+                        freeSeats.put(rs.getLong("id"), rs.getInt("free_seats"));
+                    });
+        }
+        return freeSeats;
+    }
+
+    /**
+     * Pairs of the given students and courses with an enrollment in the term, as committed now
+     * rather than as of the transaction's snapshot.
+     */
+    Set<StudentCourse> lockEnrollments(Collection<Long> studentIds, Collection<Long> courseIds, long termId) {
+        Set<StudentCourse> enrolled = new HashSet<>();
+        for (List<Long> courses : Chunks.of(courseIds, chunkSize)) {
+            for (List<Long> students : Chunks.of(studentIds, chunkSize)) {
+                namedParameterJdbcTemplate.query("SELECT student_id, course_id FROM enrollments " +
+                                "WHERE term_id = :termId AND course_id IN (:courseIds) AND student_id IN (:studentIds) " +
+                                "FOR SHARE",
+                        Map.of("termId", termId, "courseIds", courses, "studentIds", students), rs -> {
+                            enrolled.add(new StudentCourse(rs.getLong("student_id"), rs.getLong("course_id")));
+                        });
+            }
+        }
+        return enrolled;
+    }
+
+    /** Of the given enrollments, those still active, locked until the transaction ends. */
+    Set<Long> lockActiveEnrollments(Collection<Long> enrollmentIds) {
+        return lockIds("SELECT id FROM enrollments WHERE id IN (:ids) AND status = 'ACTIVE' ORDER BY id FOR UPDATE",
+                enrollmentIds.stream().sorted().toList());
+    }
+
+    private Set<Long> lockIds(String sql, Collection<Long> ids) {
+        Set<Long> locked = new HashSet<>();
+        for (List<Long> chunk : Chunks.of(ids, chunkSize)) {
+            locked.addAll(namedParameterJdbcTemplate.queryForList(sql, Map.of("ids", chunk), Long.class));
+        }
+        return locked;
+    }
+
+    record CourseRef(long id, String code, int capacity, int enrolledStudents) {
+    }
+
+    record StudentCourse(long studentId, long courseId) {
+    }
+
+    record EnrollmentRef(long id, String status, boolean graded) {
+    }
+}
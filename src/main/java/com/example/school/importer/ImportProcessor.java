@@ -0,0 +1,17 @@
+package com.example.school.importer;
+
+import com.example.school.entity.DataImport;
+
+import java.io.IOException;
+
+/**
+ * Imports the rows of one {@link DataImport.ImportType}. Each reader opened from the
+ * source starts before the header record. In a dry run rows go through the same validation
+ * and lookups, and rejected rows are reported, but nothing else is written.
+ */
+public interface ImportProcessor {
+
+    DataImport.ImportType getImportType();
+
+    void process(DataImport dataImport, CsvSource source, ImportProgress progress) throws IOException;
+}
@@ -0,0 +1,215 @@
+package com.example.school.importer;
+
+import com.example.school.dto.ImportProgressDTO;
+import com.example.school.entity.DataImport;
+import com.example.school.repository.DataImportRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Row and chunk counters and rejected rows of one running import, shared by its partition
+ * workers. Counters are written to the {@code data_imports} row at most once per
+ * {@code flushInterval} instead of once per row; watchers read them from {@link #snapshot}. Rejected rows are held per thread and go to
+ * {@code data_import_errors} in one JDBC batch with the chunk they belong to, up to
+ * {@code maxErrors} per import, so a resumed import neither loses nor repeats them.
+ * Rejections are also counted per field, without that limit, for the import's error summary.
+ */
+@Slf4j
+public class ImportProgress {
+
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+    private static final String INSERT_ERROR = "INSERT INTO data_import_errors " +
+            "(import_id, row_no, field, message, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final Long importId;
+    private final DataImportRepository dataImportRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final long flushIntervalNanos;
+    private final int maxErrors;
+    private final boolean dryRun;
+    private final long startNanos = System.nanoTime();
+
+    private int processed;
+    private int resumedRows;
+    private int successful;
+    private int failed;
+    private int completedChunks;
+    private Integer totalChunks;
+    private ImportCheckpoint checkpoint;
+    private long resumedOffset;
+    // How far into the file the reader got, for the ETA; written by the reading thread only
+    private volatile long bytesRead;
+    private String firstError;
+    private final Map<String, Integer> failuresByField = new TreeMap<>();
+    private long nextFlushNanos;
+    private final ThreadLocal<List<RowError>> pendingErrors = ThreadLocal.withInitial(ArrayList::new);
+
+    public ImportProgress(Long importId, DataImportRepository dataImportRepository, JdbcTemplate jdbcTemplate,
+                          Duration flushInterval, int maxErrors, boolean dryRun) {
+        this.importId = importId;
+        this.dataImportRepository = dataImportRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.maxErrors = maxErrors;
+        this.dryRun = dryRun;
+        this.nextFlushNanos = startNanos + flushIntervalNanos;
+    }
+
+    public synchronized void succeeded(int rows) {
+        processed += rows;
+        successful += rows;
+        maybeFlush();
+    }
+
+    public synchronized void failed(long rowNumber, String field, String message) {
+        processed++;
+        failed++;
+        if (firstError == null) {
+            firstError = "Row " + rowNumber + (field != null ? " (" + field + ")" : "") + ": " + message;
+        }
+        failuresByField.merge(field != null ? field : "row", 1, Integer::sum);
+        if (failed <= maxErrors) {
+            pendingErrors.get().add(new RowError(rowNumber, field, truncate(message)));
+        }
+        log.debug("Import {} row {} rejected: {}", importId, rowNumber, message);
+        maybeFlush();
+    }
+
+    // Rejected rows of the chunk were already reported while it was validated
+    synchronized void chunkCommitted(int written, ImportCheckpoint chunkCheckpoint) {
+        completedChunks++;
+        if (checkpoint == null || chunkCheckpoint.offset() > checkpoint.offset()) {
+            checkpoint = chunkCheckpoint;
+        }
+        succeeded(written);
+    }
+
+    // Chunks committed by an earlier run of the import, as recorded in the chunk ledger
+    synchronized void resumed(ImportCheckpoint resumedFrom, int chunks, int chunkSuccessful, int chunkFailed) {
+        checkpoint = resumedFrom;
+        resumedOffset = resumedFrom != null ? resumedFrom.offset() : 0;
+        completedChunks += chunks;
+        resumedRows += chunkSuccessful + chunkFailed;
+        processed += chunkSuccessful + chunkFailed;
+        successful += chunkSuccessful;
+        failed += chunkFailed;
+    }
+
+    synchronized void setTotalChunks(int totalChunks) {
+        this.totalChunks = totalChunks;
+    }
+
+    /** Writes the calling thread's rejected rows and the counters. */
+    public synchronized void flush() {
+        writeErrors();
+        saveCounters();
+    }
+
+    public synchronized int getProcessed() {
+        return processed;
+    }
+
+    public synchronized int getSuccessful() {
+        return successful;
+    }
+
+    public synchronized int getFailed() {
+        return failed;
+    }
+
+    public synchronized int getCompletedChunks() {
+        return completedChunks;
+    }
+
+    public synchronized Integer getTotalChunks() {
+        return totalChunks;
+    }
+
+    public synchronized String getFirstError() {
+        return firstError;
+    }
+
+    /** Rows rejected by this run per field, e.g. {@code email=3, row=1}, or null if there were none. */
+    public synchronized String getErrorSummary() {
+        if (failuresByField.isEmpty()) {
+            return null;
+        }
+        StringJoiner summary = new StringJoiner(", ");
+        failuresByField.forEach((field, count) -> summary.add(field + "=" + count));
+        return truncate(summary.toString());
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    void read(long offset) {
+        bytesRead = offset;
+    }
+
+    /** The current counters, with an ETA from the read rate of this run once it is known. */
+    public synchronized ImportProgressDTO snapshot(Long fileSize) {
+        long read = bytesRead;
+        Long etaSeconds = null;
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        if (fileSize != null && read > resumedOffset && seconds > 0) {
+            double bytesPerSecond = (read - resumedOffset) / seconds;
+            etaSeconds = Math.round(Math.max(0, fileSize - read) / bytesPerSecond);
+        }
+        return new ImportProgressDTO(importId, DataImport.ImportStatus.PROCESSING, processed, successful, failed,
+                getRowsPerSecond(), read > 0 ? read : null, fileSize, etaSeconds);
+    }
+
+    public synchronized double getRowsPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        return seconds > 0 ? Math.round((processed - resumedRows) / seconds * 10) / 10.0 : 0.0;
+    }
+
+    /** Writes the rows rejected by the calling thread since its last write, inside the caller's transaction. */
+    void writeErrors() {
+        List<RowError> errors = pendingErrors.get();
+        if (errors.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_ERROR, errors, errors.size(), (ps, error) -> {
+            ps.setLong(1, importId);
+            ps.setLong(2, error.rowNumber());
+            ps.setString(3, error.field());
+            ps.setString(4, error.message());
+            ps.setTimestamp(5, now);
+        });
+        errors.clear();
+    }
+
+    // Rejected rows stay with their chunk, only the counters are written here
+    private void maybeFlush() {
+        long now = System.nanoTime();
+        if (now - nextFlushNanos >= 0) {
+            saveCounters();
+            nextFlushNanos = now + flushIntervalNanos;
+        }
+    }
+
+    private void saveCounters() {
+        dataImportRepository.updateProgress(importId, processed, successful, failed, completedChunks, totalChunks,
+                getRowsPerSecond(), checkpoint != null ? checkpoint.offset() : null,
+                checkpoint != null ? checkpoint.line() : null);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private record RowError(long rowNumber, String field, String message) {
+    }
+}
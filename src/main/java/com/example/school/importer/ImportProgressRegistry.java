@@ -0,0 +1,34 @@
+package com.example.school.importer;
+
+import com.example.school.dto.ImportProgressDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The live progress of the imports running on this instance, registered by {@link ImportRunner}
+ * for the length of a run. Reading it costs no database access.
+ */
+@Component
+public class ImportProgressRegistry {
+
+    private record Running(ImportProgress progress, Long fileSize) {
+    }
+
+    private final Map<Long, Running> running = new ConcurrentHashMap<>();
+
+    void register(Long importId, ImportProgress progress, Long fileSize) {
+        running.put(importId, new Running(progress, fileSize));
+    }
+
+    void unregister(Long importId) {
+        running.remove(importId);
+    }
+
+    /** The import's progress, or null if it is not running on this instance. */
+    public ImportProgressDTO snapshot(Long importId) {
+        Running entry = running.get(importId);
+        return entry != null ? entry.progress().snapshot(entry.fileSize()) : null;
+    }
+}
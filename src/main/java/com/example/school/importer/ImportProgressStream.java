@@ -0,0 +1,107 @@
+package com.example.school.importer;
+
+import com.example.school.dto.ImportProgressDTO;
+import com.example.school.entity.DataImport;
+import com.example.school.repository.DataImportRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes import progress to Server-Sent Events watchers. One broadcast per interval reads each
+ * watched import once, from the {@link ImportProgressRegistry} if it runs on this instance and
+ * from its {@code data_imports} row otherwise, and sends that update to every watcher of the
+ * import, so the cost does not grow with the number of watchers. Watchers get a final update
+ * and are completed once the import completes or fails.
+ */
+@Slf4j
+@Component
+public class ImportProgressStream {
+
+    private static final String EVENT_NAME = "progress";
+
+    private final ImportProgressRegistry importProgressRegistry;
+    private final DataImportRepository dataImportRepository;
+    private final long timeoutMillis;
+    private final Map<Long, List<SseEmitter>> watchers = new ConcurrentHashMap<>();
+
+    public ImportProgressStream(ImportProgressRegistry importProgressRegistry,
+                                DataImportRepository dataImportRepository,
+                                @Value("${app.import.events-timeout:3600000}") long timeoutMillis) {
+        this.importProgressRegistry = importProgressRegistry;
+        this.dataImportRepository = dataImportRepository;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public SseEmitter subscribe(Long importId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        watchers.computeIfAbsent(importId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitter.onCompletion(() -> unsubscribe(importId, emitter));
+        emitter.onTimeout(() -> unsubscribe(importId, emitter));
+        emitter.onError(e -> unsubscribe(importId, emitter));
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${app.import.events-interval:1000}")
+    public void broadcast() {
+        for (Map.Entry<Long, List<SseEmitter>> entry : watchers.entrySet()) {
+            Long importId = entry.getKey();
+            ImportProgressDTO progress = currentProgress(importId);
+            if (progress == null) {
+                // Deleted while being watched
+                entry.getValue().forEach(SseEmitter::complete);
+                watchers.remove(importId);
+                continue;
+            }
+            for (SseEmitter emitter : entry.getValue()) {
+                try {
+                    emitter.send(SseEmitter.event().name(EVENT_NAME).data(progress));
+                    if (progress.finished()) {
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away
+                    log.debug("Dropping progress watcher of import {}: {}", importId, e.getMessage());
+                    unsubscribe(importId, emitter);
+                }
+            }
+            if (progress.finished()) {
+                watchers.remove(importId);
+            }
+        }
+    }
+
+    private ImportProgressDTO currentProgress(Long importId) {
+        ImportProgressDTO running = importProgressRegistry.snapshot(importId);
+        if (running != null) {
+            return running;
+        }
+        return dataImportRepository.findById(importId).map(ImportProgressStream::fromRow).orElse(null);
+    }
+
+    private static ImportProgressDTO fromRow(DataImport dataImport) {
+        return new ImportProgressDTO(dataImport.getId(), dataImport.getStatus(), valueOf(dataImport.getProcessedRecords()),
+                valueOf(dataImport.getSuccessfulRecords()), valueOf(dataImport.getFailedRecords()),
+                dataImport.getRowsPerSecond() != null ? dataImport.getRowsPerSecond() : 0.0,
+                dataImport.getCheckpointOffset(), dataImport.getFileSize(), null);
+    }
+
+    private static int valueOf(Integer count) {
+        return count != null ? count : 0;
+    }
+
+    private void unsubscribe(Long importId, SseEmitter emitter) {
+        watchers.computeIfPresent(importId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
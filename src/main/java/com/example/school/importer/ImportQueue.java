@@ -0,0 +1,120 @@
+package com.example.school.importer;
+
+import com.example.school.entity.DataImport;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The pending imports in {@code data_imports}, shared by every instance. An import is claimed
+ * while holding the lock on its type's {@code data_import_queues} row, so the running imports of
+ * a type are counted and the claim is made without another instance doing the same in between.
+ * Every call runs in its own transaction, since the scheduler is also woken up from
+ * after-commit callbacks.
+ */
+@Component
+class ImportQueue {
+
+    private static final String CLAIM = "UPDATE data_imports SET status = 'PROCESSING', " +
+            "started_at = COALESCE(started_at, ?), heartbeat_at = ?, completed_at = NULL, error_message = NULL, " +
+            "queue_wait_ms = COALESCE(queue_wait_ms, 0) + ? WHERE id = ? AND status = 'PENDING'";
+
+    /** A pending import as the scheduler sees it. */
+    record QueuedImport(Long id, DataImport.ImportType importType, int priority, long fileSize,
+                        LocalDateTime queuedAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    ImportQueue(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Creates the lock row of every import type that does not have one yet. */
+    void createQueues() {
+        for (DataImport.ImportType importType : DataImport.ImportType.values()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                        "INSERT INTO data_import_queues (import_type) SELECT ? FROM DUAL WHERE NOT EXISTS " +
+                                "(SELECT 1 FROM data_import_queues WHERE import_type = ?)",
+                        importType.name(), importType.name()));
+            } catch (DuplicateKeyException e) {
+                // Created by another instance in the meantime
+            }
+        }
+    }
+
+    /** The first {@code limit} pending imports by priority, then by time in the queue. */
+    List<QueuedImport> pending(int limit) {
+        return transactionTemplate.execute(status -> jdbcTemplate.query(
+                "SELECT id, import_type, priority, file_size, COALESCE(queued_at, created_at) AS queued_at " +
+                        "FROM data_imports WHERE status = 'PENDING' " +
+                        "ORDER BY priority DESC, COALESCE(queued_at, created_at), id LIMIT ?",
+                (rs, rowNum) -> new QueuedImport(rs.getLong("id"),
+                        DataImport.ImportType.valueOf(rs.getString("import_type")), rs.getInt("priority"),
+                        rs.getLong("file_size"), rs.getTimestamp("queued_at").toLocalDateTime()),
+                limit));
+    }
+
+    /** Imports running on any instance, per type. */
+    Map<DataImport.ImportType, Integer> running() {
+        Map<DataImport.ImportType, Integer> running = new EnumMap<>(DataImport.ImportType.class);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+                "SELECT import_type, COUNT(*) AS running FROM data_imports WHERE status = 'PROCESSING' " +
+                        "GROUP BY import_type",
+                rs -> {
+                    running.put(DataImport.ImportType.valueOf(rs.getString("import_type")), rs.getInt("running"));
+                }));
+        return running;
+    }
+
+    /**
+     * Moves a pending import to PROCESSING unless {@code maxRunning} imports of its type are
+     * running already, or another instance claimed it first.
+     */
+    boolean claim(QueuedImport queued, int maxRunning, LocalDateTime now) {
+        Boolean claimed = transactionTemplate.execute(status -> {
+            String importType = queued.importType().name();
+            List<String> locked = jdbcTemplate.queryForList(
+                    "SELECT import_type FROM data_import_queues WHERE import_type = ? FOR UPDATE",
+                    String.class, importType);
+            if (locked.isEmpty()) {
+                return false;
+            }
+            Integer running = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM data_imports WHERE import_type = ? AND status = 'PROCESSING'",
+                    Integer.class, importType);
+            if (running != null && running >= maxRunning) {
+                return false;
+            }
+            long waited = Math.max(0, Duration.between(queued.queuedAt(), now).toMillis());
+            Timestamp timestamp = Timestamp.valueOf(now);
+            return jdbcTemplate.update(CLAIM, timestamp, timestamp, waited, queued.id()) == 1;
+        });
+        return Boolean.TRUE.equals(claimed);
+    }
+
+    /** Puts a claimed import that could not be started back in the queue. */
+    void release(Long importId) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE data_imports SET status = 'PENDING' WHERE id = ? AND status = 'PROCESSING'", importId));
+    }
+
+    void addRunTime(Long importId, long millis) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE data_imports SET run_time_ms = COALESCE(run_time_ms, 0) + ? WHERE id = ?", millis, importId));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.school.importer;
+
+import com.example.school.entity.DataImport;
+import com.example.school.event.ImportRequestedEvent;
+import com.example.school.repository.DataImportRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Picks up imports left behind by an instance that stopped or crashed while running them.
+ * A running import refreshes its heartbeat, so one whose heartbeat is older than
+ * {@code app.import.stale-after} is not running anywhere. It is requeued and resumes from
+ * its checkpoint if its file is still there, and failed otherwise, which also frees the slot
+ * it held in the per-type concurrency limit.
+ */
+@Slf4j
+@Component
+public class ImportRecovery {
+
+    private final DataImportRepository dataImportRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration staleAfter;
+
+    public ImportRecovery(DataImportRepository dataImportRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${app.import.stale-after:2m}") Duration staleAfter) {
+        this.dataImportRepository = dataImportRepository;
+        this.eventPublisher = eventPublisher;
+        this.staleAfter = staleAfter;
+    }
+
+    // Pending imports wait in the shared queue, so only running ones can be left behind
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.import.recovery-interval:60000}",
+               fixedDelayString = "${app.import.recovery-interval:60000}")
+    public void recoverStale() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(staleAfter);
+        Set<DataImport.ImportStatus> statuses = EnumSet.of(DataImport.ImportStatus.PROCESSING);
+        for (DataImport dataImport : dataImportRepository.findStale(statuses, cutoff)) {
+            Long importId = dataImport.getId();
+            if (dataImport.getFilePath() != null && Files.isReadable(Path.of(dataImport.getFilePath()))) {
+                if (dataImportRepository.requeue(importId, cutoff, now) > 0) {
+                    log.warn("Import {} was interrupted, resuming it from its last checkpoint", importId);
+                    eventPublisher.publishEvent(new ImportRequestedEvent(importId));
+                }
+            } else if (dataImportRepository.failStale(importId,
+                    "Import was interrupted and its file is no longer available", cutoff, now) > 0) {
+                log.warn("Import {} was interrupted and its file is gone, marked as failed", importId);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.school.importer;
+
+import com.example.school.entity.DataImport;
+import com.example.school.event.ImportCompletedEvent;
+import com.example.school.repository.DataImportRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs the stored file of an import that {@link ImportScheduler} has claimed, and keeps the
+ * heartbeat of the imports running here fresh.
+ */
+@Slf4j
+@Component
+public class ImportRunner {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final DataImportRepository dataImportRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<DataImport.ImportType, ImportProcessor> processors = new EnumMap<>(DataImport.ImportType.class);
+    private final ImportProgressRegistry importProgressRegistry;
+    private final Duration progressInterval;
+    private final int maxErrors;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    public ImportRunner(DataImportRepository dataImportRepository,
+                        JdbcTemplate jdbcTemplate,
+                        ApplicationEventPublisher eventPublisher,
+                        List<ImportProcessor> processors,
+                        ImportProgressRegistry importProgressRegistry,
+                        @Value("${app.import.progress-interval:5s}") Duration progressInterval,
+                        @Value("${app.import.max-errors:10000}") int maxErrors) {
+        this.dataImportRepository = dataImportRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.importProgressRegistry = importProgressRegistry;
+        this.progressInterval = progressInterval;
+        this.maxErrors = maxErrors;
+        for (ImportProcessor processor : processors) {
+            this.processors.put(processor.getImportType(), processor);
+        }
+        for (DataImport.ImportType type : DataImport.ImportType.values()) {
+            if (!this.processors.containsKey(type)) {
+                throw new IllegalStateException("No ImportProcessor for " + type + " imports");
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.import.heartbeat-interval:30000}")
+    public void heartbeat() {
+        if (!running.isEmpty()) {
+            dataImportRepository.heartbeat(Set.copyOf(running), LocalDateTime.now());
+        }
+    }
+
+    /** Runs an import already claimed for this instance. */
+    public void run(Long importId) {
+        running.add(importId);
+        try {
+            run(dataImportRepository.findById(importId).orElseThrow());
+        } finally {
+            running.remove(importId);
+            // Watchers read the saved row from here on
+            importProgressRegistry.unregister(importId);
+        }
+    }
+
+    private void run(DataImport dataImport) {
+        Long importId = dataImport.getId();
+
+        ImportProgress progress = new ImportProgress(importId, dataImportRepository, jdbcTemplate,
+                progressInterval, maxErrors, dataImport.isDryRun());
+        importProgressRegistry.register(importId, progress, dataImport.getFileSize());
+        try {
+            if (dataImport.isDryRun()) {
+                // A dry run always starts over, so drop the report of an earlier attempt
+                jdbcTemplate.update("DELETE FROM data_import_errors WHERE import_id = ?", importId);
+            }
+            // The constructor checked that every import type has one
+            ImportProcessor processor = processors.get(dataImport.getImportType());
+            long start = System.nanoTime();
+            processor.process(dataImport, new CsvSource(Path.of(dataImport.getFilePath())), progress);
+            log.info("{} {} finished: {} rows, {} valid, {} rejected in {} ms",
+                    dataImport.isDryRun() ? "Dry run" : "Import", importId, progress.getProcessed(),
+                    progress.getSuccessful(), progress.getFailed(), (System.nanoTime() - start) / 1_000_000);
+            dataImport.complete();
+        } catch (Exception e) {
+            log.error("Import {} failed: {}", importId, e.getMessage(), e);
+            dataImport.fail(truncate(e.getMessage()));
+        } finally {
+            dataImport.setTotalRecords(progress.getProcessed());
+            dataImport.setProcessedRecords(progress.getProcessed());
+            dataImport.setSuccessfulRecords(progress.getSuccessful());
+            dataImport.setFailedRecords(progress.getFailed());
+            dataImport.setCompletedChunks(progress.getCompletedChunks());
+            dataImport.setTotalChunks(progress.getTotalChunks());
+            dataImport.setRowsPerSecond(progress.getRowsPerSecond());
+            if (progress.getErrorSummary() != null) {
+                dataImport.setErrorSummary(progress.getErrorSummary());
+            }
+            if (dataImport.getErrorMessage() == null && progress.getFirstError() != null) {
+                dataImport.setErrorMessage(truncate(progress.getFailed() + " rows rejected, first: " + progress.getFirstError()));
+            } else if (dataImport.getErrorMessage() == null && progress.getFailed() > 0) {
+                // Resumed, and every rejected row was in a chunk committed before
+                dataImport.setErrorMessage(progress.getFailed() + " rows rejected");
+            }
+            dataImportRepository.save(dataImport);
+        }
+        if (progress.getSuccessful() > 0 && !dataImport.isDryRun()) {
+            eventPublisher.publishEvent(new ImportCompletedEvent(importId, dataImport.getImportType()));
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.school.importer;
+
+import com.example.school.entity.DataImport;
+import com.example.school.event.ImportRequestedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs pending imports from the shared queue in {@code data_imports} on this instance's import
+ * executor. At most {@code app.import.threads} imports run here at once, and at most
+ * {@code app.import.max-concurrent.<type>} imports of a type run across all instances.
+ *
+ * <p>The next import is the one with the highest priority, raised by one for every
+ * {@code app.import.priority-aging} it has waited so low priorities are not starved. Ties go to
+ * the type with the fewest running imports, then to the import queued first. Files larger than
+ * {@code app.import.large-file-size} never take the last free slot, so a huge file cannot hold
+ * up every small one behind it.
+ */
+@Slf4j
+@Component
+public class ImportScheduler {
+
+    private static final int PENDING_SCAN = 200;
+
+    private final ImportQueue importQueue;
+    private final ImportRunner importRunner;
+    private final TaskExecutor importExecutor;
+    private final MeterRegistry meterRegistry;
+    private final int threads;
+    private final long largeFileSize;
+    private final Duration priorityAging;
+    private final Map<DataImport.ImportType, Integer> maxConcurrent = new EnumMap<>(DataImport.ImportType.class);
+
+    // Guarded by this
+    private int active;
+    private int activeLarge;
+
+    public ImportScheduler(ImportQueue importQueue,
+                           ImportRunner importRunner,
+                           @Qualifier("importExecutor") TaskExecutor importExecutor,
+                           MeterRegistry meterRegistry,
+                           Environment environment,
+                           @Value("${app.import.threads:2}") int threads,
+                           @Value("${app.import.large-file-size:100MB}") DataSize largeFileSize,
+                           @Value("${app.import.priority-aging:5m}") Duration priorityAging) {
+        this.importQueue = importQueue;
+        this.importRunner = importRunner;
+        this.importExecutor = importExecutor;
+        this.meterRegistry = meterRegistry;
+        this.threads = threads;
+        this.largeFileSize = largeFileSize.toBytes();
+        this.priorityAging = priorityAging;
+        for (DataImport.ImportType importType : DataImport.ImportType.values()) {
+            maxConcurrent.put(importType, environment.getProperty(
+                    "app.import.max-concurrent." + importType.name().toLowerCase(), Integer.class, 1));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        importQueue.createQueues();
+        dispatch();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImportRequested(ImportRequestedEvent event) {
+        dispatch();
+    }
+
+    // Also picks up imports queued by other instances, and slots freed on them
+    @Scheduled(initialDelayString = "${app.import.dispatch-interval:5000}",
+               fixedDelayString = "${app.import.dispatch-interval:5000}")
+    public synchronized void dispatch() {
+        if (active >= threads) {
+            return;
+        }
+        List<ImportQueue.QueuedImport> pending = new ArrayList<>(importQueue.pending(PENDING_SCAN));
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<DataImport.ImportType, Integer> running = importQueue.running();
+        LocalDateTime now = LocalDateTime.now();
+        Set<DataImport.ImportType> full = EnumSet.noneOf(DataImport.ImportType.class);
+        Comparator<ImportQueue.QueuedImport> order = Comparator
+                .comparingLong((ImportQueue.QueuedImport queued) -> -effectivePriority(queued, now))
+                .thenComparingInt(queued -> running.getOrDefault(queued.importType(), 0))
+                .thenComparing(ImportQueue.QueuedImport::queuedAt);
+
+        while (active < threads) {
+            ImportQueue.QueuedImport next = pending.stream()
+                    .filter(queued -> !full.contains(queued.importType()))
+                    .filter(queued -> !isLarge(queued) || activeLarge < Math.max(1, threads - 1))
+                    .min(order)
+                    .orElse(null);
+            if (next == null) {
+                return;
+            }
+            pending.remove(next);
+            int limit = maxConcurrent.get(next.importType());
+            if (running.getOrDefault(next.importType(), 0) >= limit) {
+                full.add(next.importType());
+                continue;
+            }
+            if (importQueue.claim(next, limit, now)) {
+                running.merge(next.importType(), 1, Integer::sum);
+                launch(next, now);
+            }
+        }
+    }
+
+    private void launch(ImportQueue.QueuedImport queued, LocalDateTime claimedAt) {
+        boolean large = isLarge(queued);
+        active++;
+        if (large) {
+            activeLarge++;
+        }
+        timer("import.queue.wait", queued).record(Duration.between(queued.queuedAt(), claimedAt));
+        try {
+            importExecutor.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    importRunner.run(queued.id());
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    timer("import.run.time", queued).record(elapsed, TimeUnit.NANOSECONDS);
+                    try {
+                        importQueue.addRunTime(queued.id(), elapsed / 1_000_000);
+                    } finally {
+                        finished(large);
+                    }
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("Import {} could not be started, putting it back in the queue", queued.id(), e);
+            active--;
+            if (large) {
+                activeLarge--;
+            }
+            importQueue.release(queued.id());
+        }
+    }
+
+    private void finished(boolean large) {
+        synchronized (this) {
+            active--;
+            if (large) {
+                activeLarge--;
+            }
+        }
+        dispatch();
+    }
+
+    private long effectivePriority(ImportQueue.QueuedImport queued, LocalDateTime now) {
+        long waited = Duration.between(queued.queuedAt(), now).toMillis();
+        return queued.priority() + Math.max(0, waited) / Math.max(1, priorityAging.toMillis());
+    }
+
+    private boolean isLarge(ImportQueue.QueuedImport queued) {
+        return queued.fileSize() >= largeFileSize;
+    }
+
+    private Timer timer(String name, ImportQueue.QueuedImport queued) {
+        return Timer.builder(name)
+                .tag("type", queued.importType().name())
+                .register(meterRegistry);
+    }
+}
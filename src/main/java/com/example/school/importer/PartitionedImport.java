@@ -0,0 +1,275 @@
+package com.example.school.importer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+
+/**
+ * Fans rows read by one thread out to a fixed number of partitions, each drained by its own
+ * virtual thread. Rows are routed by a key hash, so every row touching the same course (or
+ * email) is validated and written by the same worker, in file order, and workers never
+ * contend on the same rows.
+ *
+ * <p>Each partition's rows are grouped into chunks numbered per partition and committed in
+ * order through the {@link ImportChunkLedger}, together with the rejected rows of the chunk
+ * and the import's checkpoint: the lowest offset that is not in a committed chunk of any
+ * partition. A resumed run starts reading at that checkpoint and drops the rows that its
+ * partition had already committed past it.
+ *
+ * <p>In a dry run chunks are validated the same way, and their rejected rows recorded, but
+ * neither their writes nor the ledger are committed.
+ */
+@Slf4j
+class PartitionedImport<T> implements AutoCloseable {
+
+    /** Validates a chunk and returns the writes for its accepted rows, reporting rejected rows itself. */
+    @FunctionalInterface
+    interface ChunkHandler<T> {
+        ChunkWrites prepare(List<T> rows);
+    }
+
+    /** The number of accepted rows of a chunk, and the writes that store them and return how many were. */
+    record ChunkWrites(int accepted, IntSupplier writer) {
+
+        static final ChunkWrites NONE = new ChunkWrites(0, () -> 0);
+    }
+
+    private static final class Buffer<T> {
+        private final List<T> rows;
+        private long startOffset;
+        private long startLine;
+        private long endOffset;
+        private long endLine;
+
+        private Buffer(int chunkSize) {
+            this.rows = new ArrayList<>(chunkSize);
+        }
+    }
+
+    private record Chunk<T>(int partition, int chunkNo, Buffer<T> buffer) {
+    }
+
+    private static final Chunk<?> END = new Chunk<>(-1, -1, null);
+
+    private final Long importId;
+    private final ImportProgress progress;
+    private final ImportChunkLedger ledger;
+    private final int chunkSize;
+    private final ChunkHandler<T> handler;
+
+    private final List<Buffer<T>> buffers = new ArrayList<>();
+    private final List<BlockingQueue<Chunk<T>>> queues = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final int[] nextChunkNo;
+    private final long[] committedUpTo;
+    private boolean closed;
+
+    // Start offset and line of every chunk that is buffered or queued but not committed yet,
+    // and how far the reader got; guarded by this
+    private final TreeMap<Long, Long> openChunks = new TreeMap<>();
+    private long readOffset;
+    private long readLine;
+
+    PartitionedImport(Long importId, ImportProgress progress, ImportChunkLedger ledger, int partitions,
+                      int chunkSize, ChunkHandler<T> handler) {
+        this.importId = importId;
+        this.progress = progress;
+        this.ledger = ledger;
+        this.chunkSize = chunkSize;
+        this.handler = handler;
+
+        int partitionCount = ledger.partitionCount(importId, partitions);
+        this.nextChunkNo = new int[partitionCount];
+        this.committedUpTo = new long[partitionCount];
+        ImportCheckpoint checkpoint = ledger.checkpoint(importId);
+        for (Map.Entry<Integer, ImportChunkLedger.PartitionState> entry : ledger.partitionStates(importId).entrySet()) {
+            ImportChunkLedger.PartitionState state = entry.getValue();
+            nextChunkNo[entry.getKey()] = state.chunks();
+            committedUpTo[entry.getKey()] = state.endOffset();
+            progress.resumed(checkpoint, state.chunks(), state.successful(), state.failed());
+        }
+
+        for (int partition = 0; partition < partitionCount; partition++) {
+            BlockingQueue<Chunk<T>> queue = new ArrayBlockingQueue<>(2);
+            buffers.add(new Buffer<>(chunkSize));
+            queues.add(queue);
+            workers.add(Thread.ofVirtual()
+                    .name("import-" + importId + "-partition-" + partition)
+                    .start(() -> drain(queue)));
+        }
+    }
+
+    /** Adds the row the reader is positioned on. */
+    void add(long key, T row, CsvReader reader) {
+        rethrowFailure();
+        int partition = Math.floorMod(Long.hashCode(key), buffers.size());
+        // Committed by an earlier run of this import
+        if (reader.startOffset() < committedUpTo[partition]) {
+            read(reader.offset(), reader.lineCount());
+            return;
+        }
+        Buffer<T> buffer = buffers.get(partition);
+        if (buffer.rows.isEmpty()) {
+            buffer.startOffset = reader.startOffset();
+            buffer.startLine = reader.rowNumber() - 1;
+            opened(buffer.startOffset, buffer.startLine);
+        }
+        buffer.rows.add(row);
+        buffer.endOffset = reader.offset();
+        buffer.endLine = reader.lineCount();
+        read(buffer.endOffset, buffer.endLine);
+        if (buffer.rows.size() >= chunkSize) {
+            dispatch(partition);
+        }
+    }
+
+    /** Sends the remaining rows, waits for every partition and rethrows the first failure. */
+    void finish() {
+        for (int partition = 0; partition < buffers.size(); partition++) {
+            if (!buffers.get(partition).rows.isEmpty()) {
+                dispatch(partition);
+            }
+        }
+        int totalChunks = 0;
+        for (int chunks : nextChunkNo) {
+            totalChunks += chunks;
+        }
+        progress.setTotalChunks(totalChunks);
+        close();
+        rethrowFailure();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (BlockingQueue<Chunk<T>> queue : queues) {
+            put(queue, end());
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    private void dispatch(int partition) {
+        Buffer<T> buffer = buffers.get(partition);
+        buffers.set(partition, new Buffer<>(chunkSize));
+        put(queues.get(partition), new Chunk<>(partition, nextChunkNo[partition]++, buffer));
+    }
+
+    private void drain(BlockingQueue<Chunk<T>> queue) {
+        while (true) {
+            Chunk<T> chunk;
+            try {
+                chunk = queue.take();
+            } catch (InterruptedException e) {
+                failure.compareAndSet(null, e);
+                return;
+            }
+            if (chunk == END) {
+                return;
+            }
+            // After a failure, keep draining so the reader never blocks on a full queue
+            if (failure.get() == null) {
+                try {
+                    commit(chunk);
+                } catch (Throwable e) {
+                    log.error("Import {} partition {} chunk {} failed", importId, chunk.partition(), chunk.chunkNo(), e);
+                    failure.compareAndSet(null, e);
+                }
+            }
+        }
+    }
+
+    private void commit(Chunk<T> chunk) {
+        Buffer<T> buffer = chunk.buffer();
+        ChunkWrites writes = handler.prepare(buffer.rows);
+        ImportChunkLedger.ChunkMark mark = new ImportChunkLedger.ChunkMark(chunk.partition(), chunk.chunkNo(),
+                buffer.rows.size(), buffer.endOffset, buffer.endLine);
+        ImportCheckpoint checkpoint = checkpointWithout(buffer.startOffset);
+        if (progress.isDryRun()) {
+            progress.writeErrors();
+            closed(buffer.startOffset);
+            progress.chunkCommitted(writes.accepted(), checkpoint);
+            return;
+        }
+        int written = ledger.commit(importId, mark, checkpoint, () -> {
+            int stored = writes.writer().getAsInt();
+            progress.writeErrors();
+            return stored;
+        });
+        closed(buffer.startOffset);
+        if (written < 0) {
+            log.warn("Import {} partition {} chunk {} was already committed, skipping", importId,
+                    chunk.partition(), chunk.chunkNo());
+            return;
+        }
+        progress.chunkCommitted(written, checkpoint);
+    }
+
+    private synchronized void opened(long startOffset, long startLine) {
+        openChunks.put(startOffset, startLine);
+    }
+
+    private synchronized void read(long offset, long line) {
+        readOffset = offset;
+        readLine = line;
+        progress.read(offset);
+    }
+
+    private synchronized void closed(long startOffset) {
+        openChunks.remove(startOffset);
+    }
+
+    // Where a resumed run would start once this chunk is committed
+    private synchronized ImportCheckpoint checkpointWithout(long startOffset) {
+        for (Map.Entry<Long, Long> open : openChunks.entrySet()) {
+            if (open.getKey() != startOffset) {
+                return new ImportCheckpoint(open.getKey(), open.getValue());
+            }
+        }
+        return new ImportCheckpoint(readOffset, readLine);
+    }
+
+    private void put(BlockingQueue<Chunk<T>> queue, Chunk<T> chunk) {
+        try {
+            queue.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing import rows", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Chunk<T> end() {
+        return (Chunk<T>) END;
+    }
+
+    private void rethrowFailure() {
+        Throwable e = failure.get();
+        if (e instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (e instanceof Error error) {
+            throw error;
+        }
+        if (e != null) {
+            throw new IllegalStateException("Import partition failed: " + e.getMessage(), e);
+        }
+    }
+}
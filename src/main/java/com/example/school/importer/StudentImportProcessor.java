@@ -0,0 +1,221 @@
+package com.example.school.importer;
+
+import com.example.school.entity.DataImport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Imports students from CSV with the columns {@code firstName, lastName, email} and the
+ * optional {@code phoneNumber, dateOfBirth} (ISO dates). Rows are partitioned by email, then
+ * validated like the {@code Student} entity and inserted with JDBC batches, one transaction
+ * per chunk. Emails that already exist, or repeat within the file, are rejected. A resumed
+ * import continues from its checkpoint.
+ */
+@Component
+@RequiredArgsConstructor
+public class StudentImportProcessor implements ImportProcessor {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern PHONE = Pattern.compile("^\\+?[0-9. ()-]{7,}$");
+    private static final int MAX_LENGTH = 255;
+
+    private static final String INSERT_STUDENT = "INSERT INTO students " +
+            "(id, first_name, last_name, email, phone_number, date_of_birth, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ImportChunkLedger importChunkLedger;
+    private final ImportIds importIds;
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.import.partitions:4}")
+    private int partitions;
+
+    @Override
+    public DataImport.ImportType getImportType() {
+        return DataImport.ImportType.STUDENTS;
+    }
+
+    @Override
+    public void process(DataImport dataImport, CsvSource source, ImportProgress progress) throws IOException {
+        LocalDate today = LocalDate.now();
+        // Nothing is stored in a dry run, so emails accepted by earlier chunks are kept here instead
+        Set<String> accepted = progress.isDryRun() ? ConcurrentHashMap.newKeySet() : null;
+        CsvHeader header = source.header();
+        header.require("firstName", "lastName", "email");
+        int firstName = header.index("firstName");
+        int lastName = header.index("lastName");
+        int email = header.index("email");
+        int phoneNumber = header.index("phoneNumber");
+        int dateOfBirth = header.index("dateOfBirth");
+
+        try (CsvReader reader = source.openRows(importChunkLedger.checkpoint(dataImport.getId()));
+             PartitionedImport<RawStudent> partitioned = new PartitionedImport<>(dataImport.getId(), progress,
+                     importChunkLedger, partitions, batchSize, rows -> prepare(rows, today, accepted, progress))) {
+            while (reader.next()) {
+                RawStudent row = new RawStudent(reader.rowNumber(), reader.get(firstName).trim(),
+                        reader.get(lastName).trim(), reader.get(email).trim(), reader.get(phoneNumber).trim(),
+                        reader.get(dateOfBirth).trim());
+                partitioned.add(row.email().toLowerCase(Locale.ROOT).hashCode(), row, reader);
+            }
+            partitioned.finish();
+        }
+        progress.flush();
+    }
+
+    private PartitionedImport.ChunkWrites prepare(List<RawStudent> chunk, LocalDate today, Set<String> accepted,
+                                                  ImportProgress progress) {
+        // Duplicates within the partition (same email, same partition), then emails already stored
+        Map<String, StudentRow> byEmail = new LinkedHashMap<>();
+        for (RawStudent raw : chunk) {
+            StudentRow row = validate(raw, today, progress);
+            if (row != null && byEmail.putIfAbsent(row.email().toLowerCase(Locale.ROOT), row) != null) {
+                progress.failed(row.rowNumber(), "email", "Duplicate email in file: " + row.email());
+            }
+        }
+        if (byEmail.isEmpty()) {
+            return PartitionedImport.ChunkWrites.NONE;
+        }
+        Set<String> existing = new HashSet<>();
+        for (String email : namedParameterJdbcTemplate.queryForList(
+                "SELECT email FROM students WHERE email IN (:emails)",
+                Map.of("emails", byEmail.values().stream().map(StudentRow::email).toList()), String.class)) {
+            existing.add(email.toLowerCase(Locale.ROOT));
+        }
+
+        List<StudentRow> rows = new ArrayList<>(byEmail.size());
+        for (Map.Entry<String, StudentRow> entry : byEmail.entrySet()) {
+            if (existing.contains(entry.getKey()) || (accepted != null && !accepted.add(entry.getKey()))) {
+                progress.failed(entry.getValue().rowNumber(), "email",
+                        "Student with email already exists: " + entry.getValue().email());
+            } else {
+                rows.add(entry.getValue());
+            }
+        }
+        long firstId = rows.isEmpty() || progress.isDryRun() ? 0 : importIds.reserve("students", rows.size());
+        return new PartitionedImport.ChunkWrites(rows.size(), () -> write(rows, firstId, progress));
+    }
+
+    private StudentRow validate(RawStudent raw, LocalDate today, ImportProgress progress) {
+        long rowNumber = raw.rowNumber();
+        if (raw.firstName().isEmpty()) {
+            progress.failed(rowNumber, "firstName", "First name is required");
+            return null;
+        }
+        if (raw.lastName().isEmpty()) {
+            progress.failed(rowNumber, "lastName", "Last name is required");
+            return null;
+        }
+        if (!EMAIL.matcher(raw.email()).matches()) {
+            progress.failed(rowNumber, "email", "Email should be valid");
+            return null;
+        }
+        if (raw.firstName().length() > MAX_LENGTH || raw.lastName().length() > MAX_LENGTH
+                || raw.email().length() > MAX_LENGTH) {
+            progress.failed(rowNumber, null, "Values must be at most " + MAX_LENGTH + " characters");
+            return null;
+        }
+
+        String phoneNumber = null;
+        if (!raw.phoneNumber().isEmpty()) {
+            phoneNumber = raw.phoneNumber();
+            if (phoneNumber.length() > MAX_LENGTH || !PHONE.matcher(phoneNumber).matches()) {
+                progress.failed(rowNumber, "phoneNumber", "Phone number is invalid");
+                return null;
+            }
+        }
+
+        LocalDate dateOfBirth = null;
+        if (!raw.dateOfBirth().isEmpty()) {
+            try {
+                dateOfBirth = LocalDate.parse(raw.dateOfBirth());
+            } catch (DateTimeParseException e) {
+                progress.failed(rowNumber, "dateOfBirth", "Date of birth must be an ISO date (yyyy-MM-dd)");
+                return null;
+            }
+            if (!dateOfBirth.isBefore(today)) {
+                progress.failed(rowNumber, "dateOfBirth", "Date of birth must be in the past");
+                return null;
+            }
+        }
+        return new StudentRow(rowNumber, raw.firstName(), raw.lastName(), raw.email(), phoneNumber, dateOfBirth);
+    }
+
+    // Runs inside the chunk transaction
+    private int write(List<StudentRow> rows, long firstId, ImportProgress progress) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        // Not every driver undoes the rest of a batch when one of its rows fails
+        Savepoint savepoint = jdbcTemplate.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+        try {
+            long[] nextId = {firstId};
+            jdbcTemplate.batchUpdate(INSERT_STUDENT, rows, rows.size(), (ps, row) -> {
+                ps.setLong(1, nextId[0]++);
+                ps.setString(2, row.firstName());
+                ps.setString(3, row.lastName());
+                ps.setString(4, row.email());
+                ps.setString(5, row.phoneNumber());
+                ps.setDate(6, row.dateOfBirth() != null ? Date.valueOf(row.dateOfBirth()) : null);
+                ps.setTimestamp(7, now);
+                ps.setTimestamp(8, now);
+            });
+            return rows.size();
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer took one of the emails; undo the whole batch and retry row by
+            // row in the same transaction to keep the rest
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                connection.rollback(savepoint);
+                return null;
+            });
+            int written = 0;
+            long id = firstId;
+            for (StudentRow row : rows) {
+                try {
+                    jdbcTemplate.update(INSERT_STUDENT, id++, row.firstName(), row.lastName(), row.email(),
+                            row.phoneNumber(), row.dateOfBirth() != null ? Date.valueOf(row.dateOfBirth()) : null,
+                            now, now);
+                    written++;
+                } catch (DataIntegrityViolationException rowFailure) {
+                    progress.failed(row.rowNumber(), "email", "Student with email already exists: " + row.email());
+                }
+            }
+            return written;
+        }
+    }
+
+    private record RawStudent(long rowNumber, String firstName, String lastName, String email,
+                              String phoneNumber, String dateOfBirth) {
+    }
+
+    private record StudentRow(long rowNumber, String firstName, String lastName, String email,
+                              String phoneNumber, LocalDate dateOfBirth) {
+    }
+}
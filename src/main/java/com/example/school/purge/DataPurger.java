@@ -0,0 +1,241 @@
+package com.example.school.purge;
+
+import com.example.school.event.EnrollmentsBulkChangedEvent;
+import com.example.school.repository.CourseRepository;
+import com.example.school.term.TermPartitions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Deletes large dependency trees a chunk at a time with set-based DELETEs in foreign key order:
+ * grades before enrollments, import errors and chunks before imports. Every chunk commits in its
+ * own transaction, also when the caller has one open, and the purger pauses between chunks so
+ * row locks stay short and other writers get a turn. The caller marks the root row deleted
+ * before the purge, so nothing new is added behind it, and deletes the row itself afterwards.
+ */
+@Slf4j
+@Component
+public class DataPurger {
+
+    // Imports per batch; each can have up to app.import.max-errors error rows, deleted in chunks
+    private static final int IMPORTS_PER_BATCH = 100;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final CourseRepository courseRepository;
+    private final TermPartitions termPartitions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final Duration pause;
+    private final Path uploadDir;
+
+    public DataPurger(NamedParameterJdbcTemplate jdbcTemplate,
+                      PlatformTransactionManager transactionManager,
+                      CourseRepository courseRepository,
+                      TermPartitions termPartitions,
+                      ApplicationEventPublisher eventPublisher,
+                      @Value("${app.purge.chunk-size:1000}") int chunkSize,
+                      @Value("${app.purge.pause:100ms}") Duration pause,
+                      @Value("${app.upload.dir:${user.home}/.school-imports}") String uploadDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.courseRepository = courseRepository;
+        this.termPartitions = termPartitions;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pause = pause;
+        this.uploadDir = Path.of(uploadDir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Deletes the student's enrollments and their grades, also from the archive tables of terms not
+     * restored yet. Active enrollments give their seat back, in the same transaction as their
+     * chunk. Returns the number of enrollments deleted.
+     */
+    public int purgeStudentEnrollments(Long studentId) {
+        int deleted = purgeArchivedEnrollments("student_id", studentId);
+        Map<Long, Integer> seatsByCourse = new HashMap<>();
+        deleted += purgeEnrollments("enrollments", "grades", "student_id", studentId, seatsByCourse);
+        if (!seatsByCourse.isEmpty()) {
+            Map<Long, Integer> seatDeltas = new HashMap<>();
+            seatsByCourse.forEach((courseId, seats) -> seatDeltas.put(courseId, -seats));
+            eventPublisher.publishEvent(new EnrollmentsBulkChangedEvent(List.of(studentId), seatDeltas));
+        }
+        log.info("Purged {} enrollments of student {}", deleted, studentId);
+        return deleted;
+    }
+
+    /**
+     * Deletes the course's enrollments and their grades, also from the archive tables of terms not
+     * restored yet. Returns the number of enrollments deleted.
+     */
+    public int purgeCourseEnrollments(Long courseId) {
+        int deleted = purgeArchivedEnrollments("course_id", courseId);
+        // The course goes away, so its seat counter is not worth fixing
+        deleted += purgeEnrollments("enrollments", "grades", "course_id", courseId, null);
+        log.info("Purged {} enrollments of course {}", deleted, courseId);
+        return deleted;
+    }
+
+    /**
+     * Deletes completed imports created before the cutoff with their errors, chunk ledger and
+     * stored upload. Returns the number of imports deleted.
+     */
+    public int purgeCompletedImports(LocalDateTime createdBefore) {
+        int deleted = 0;
+        while (true) {
+            MapSqlParameterSource batchParams = new MapSqlParameterSource()
+                    .addValue("cutoff", Timestamp.valueOf(createdBefore))
+                    .addValue("limit", IMPORTS_PER_BATCH);
+            Map<Long, String> files = new HashMap<>();
+            jdbcTemplate.query("SELECT id, file_path FROM data_imports WHERE status = 'COMPLETED' " +
+                            "AND created_at < :cutoff ORDER BY id LIMIT :limit", batchParams,
+                    rs -> {
+                        files.put(rs.getLong("id"), rs.getString("file_path"));
+                    });
+            if (files.isEmpty()) {
+                break;
+            }
+
+            MapSqlParameterSource ids = new MapSqlParameterSource("ids", files.keySet());
+            deleteInChunks("DELETE FROM data_import_errors WHERE import_id IN (:ids)", ids);
+            deleteInChunks("DELETE FROM data_import_chunks WHERE import_id IN (:ids)", ids);
+            Integer imports = chunkTransaction.execute(status ->
+                    jdbcTemplate.update("DELETE FROM data_imports WHERE id IN (:ids)", ids));
+            deleted += imports == null ? 0 : imports;
+            // Only once their rows are gone, so a failed batch never leaves an import without its file
+            files.values().forEach(this::deleteUpload);
+
+            if (files.size() < IMPORTS_PER_BATCH || !pause()) {
+                break;
+            }
+        }
+
+        // Left behind by imports deleted before errors and chunks were purged with them
+        deleteInChunks("DELETE FROM data_import_errors WHERE import_id NOT IN (SELECT id FROM data_imports)",
+                new MapSqlParameterSource());
+        deleteInChunks("DELETE FROM data_import_chunks WHERE import_id NOT IN (SELECT id FROM data_imports)",
+                new MapSqlParameterSource());
+        return deleted;
+    }
+
+    // Archived enrollments belong to closed terms and hold no seats. Runs before the partitioned
+    // tables: rows whose archive table is restored in the meantime are purged from there instead.
+    private int purgeArchivedEnrollments(String column, Long id) {
+        int deleted = 0;
+        for (Long termId : termPartitions.archivedTermIds()) {
+            try {
+                deleted += purgeEnrollments(TermPartitions.archiveTableName("enrollments", termId),
+                        TermPartitions.archiveTableName("grades", termId), column, id, null);
+            } catch (BadSqlGrammarException e) {
+                log.info("Archive tables of term {} are gone, skipping them", termId);
+            }
+        }
+        return deleted;
+    }
+
+    private int purgeEnrollments(String enrollments, String grades, String column, Long id,
+                                 Map<Long, Integer> seatsByCourse) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("limit", chunkSize);
+        int deleted = 0;
+        while (true) {
+            Integer chunk = chunkTransaction.execute(status -> {
+                List<Long> enrollmentIds = jdbcTemplate.queryForList("SELECT id FROM " + enrollments +
+                        " WHERE " + column + " = :id ORDER BY id LIMIT :limit FOR UPDATE", params, Long.class);
+                if (enrollmentIds.isEmpty()) {
+                    return 0;
+                }
+                MapSqlParameterSource ids = new MapSqlParameterSource("ids", enrollmentIds);
+                if (seatsByCourse != null) {
+                    releaseSeats(ids, seatsByCourse);
+                }
+                jdbcTemplate.update("DELETE FROM " + grades + " WHERE enrollment_id IN (:ids)", ids);
+                return jdbcTemplate.update("DELETE FROM " + enrollments + " WHERE id IN (:ids)", ids);
+            });
+            deleted += chunk == null ? 0 : chunk;
+            if (chunk == null || chunk < chunkSize || !pause()) {
+                return deleted;
+            }
+        }
+    }
+
+    // Active enrollments of the chunk, grouped by course and then by seat count: one UPDATE per count
+    private void releaseSeats(MapSqlParameterSource ids, Map<Long, Integer> seatsByCourse) {
+        Map<Integer, List<Long>> coursesBySeats = new TreeMap<>();
+        jdbcTemplate.query("SELECT course_id, COUNT(*) AS seats FROM enrollments " +
+                        "WHERE id IN (:ids) AND status = 'ACTIVE' GROUP BY course_id", ids,
+                rs -> {
+                    long courseId = rs.getLong("course_id");
+                    int seats = rs.getInt("seats");
+                    coursesBySeats.computeIfAbsent(seats, count -> new ArrayList<>()).add(courseId);
+                    seatsByCourse.merge(courseId, seats, Integer::sum);
+                });
+        // Through JPA, so the course cache regions are evicted with the update
+        LocalDateTime now = LocalDateTime.now();
+        coursesBySeats.forEach((seats, courseIds) -> courseRepository.releaseSeats(courseIds, seats, now));
+    }
+
+    private void deleteInChunks(String sql, MapSqlParameterSource params) {
+        String chunkSql = sql + " LIMIT " + chunkSize;
+        while (true) {
+            Integer deleted = chunkTransaction.execute(status -> jdbcTemplate.update(chunkSql, params));
+            if (deleted == null || deleted < chunkSize || !pause()) {
+                return;
+            }
+        }
+    }
+
+    private void deleteUpload(String filePath) {
+        if (filePath == null) {
+            return;
+        }
+        Path path = Path.of(filePath).toAbsolutePath().normalize();
+        if (!path.startsWith(uploadDir)) {
+            log.warn("Not deleting {}, it is outside the upload directory {}", path, uploadDir);
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete stored import file {}", path, e);
+        }
+    }
+
+    // Returns false if the thread was interrupted, which ends the purge after the committed chunks
+    private boolean pause() {
+        if (pause.isZero() || pause.isNegative()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Purge interrupted, stopping after the chunks committed so far");
+            return false;
+        }
+    }
+}
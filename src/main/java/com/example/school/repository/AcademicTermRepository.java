@@ -0,0 +1,39 @@
+package com.example.school.repository;
+
+import com.example.school.entity.AcademicTerm;
+import com.example.school.entity.AcademicTerm.TermStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AcademicTermRepository extends JpaRepository<AcademicTerm, Long> {
+
+    boolean existsByCode(String code);
+
+    List<AcademicTerm> findAllByOrderByStartDateDesc();
+
+    Optional<AcademicTerm> findFirstByStatusAndStartDateLessThanEqualOrderByStartDateDescIdDesc(
+            TermStatus status, LocalDate date);
+
+    // The open term with the latest start date on or before today
+    default Optional<AcademicTerm> findCurrent(LocalDate today) {
+        return findFirstByStatusAndStartDateLessThanEqualOrderByStartDateDescIdDesc(TermStatus.OPEN, today);
+    }
+
+    // Oldest first: archiving drops a term's partition, which hands its range to the next one
+    List<AcademicTerm> findByStatusAndEndDateBeforeOrderByIdAsc(TermStatus status, LocalDate endDate);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AcademicTerm t SET t.status = :status, t.updatedAt = :now WHERE t.id = :termId")
+    int updateStatus(@Param("termId") Long termId, @Param("status") TermStatus status, @Param("now") LocalDateTime now);
+}
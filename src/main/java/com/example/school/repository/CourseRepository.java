@@ -1,25 +1,43 @@
 package com.example.school.repository;
 
+import com.example.school.cache.CourseCacheRegions;
+import com.example.school.dto.CourseDTO;
 import com.example.school.entity.Course;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.Hibernate;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
     
+    String COURSE_DTO_SELECT = "SELECT new com.example.school.dto.CourseDTO(" +
+            "c.id, c.code, c.title, c.description, c.credits, c.capacity) FROM Course c";
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CourseCacheRegions.BY_CODE)})
     Optional<Course> findByCode(String code);
     
     @Query("SELECT c FROM Course c WHERE LOWER(c.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(c.code) LIKE LOWER(CONCAT('%', :query, '%'))")
     Page<Course> search(@Param("query") String query, Pageable pageable);
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CourseCacheRegions.AVAILABLE)})
     @Query("SELECT c FROM Course c WHERE c.capacity > c.enrolledStudents")
     List<Course> findCoursesWithAvailableCapacity();
     
@@ -28,6 +46,60 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     @Query("SELECT c FROM Course c JOIN c.prerequisites p WHERE p.id = :courseId")
     List<Course> findCoursesThatRequireCourse(@Param("courseId") Long courseId);
     
-    @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.prerequisites WHERE c.id = :courseId")
-    Optional<Course> findByIdWithPrerequisites(@Param("courseId") Long courseId);
+    // Served from the course and prerequisite cache regions; a fetch join would always go to the database
+    default Optional<Course> findByIdWithPrerequisites(Long courseId) {
+        Optional<Course> course = findById(courseId);
+        course.ifPresent(c -> Hibernate.initialize(c.getPrerequisites()));
+        return course;
+    }
+    
+    // Seat counter reads and updates skip the second-level cache, which may hold an older count
+    @Query("SELECT c.capacity - c.enrolledStudents FROM Course c WHERE c.id = :courseId")
+    Optional<Integer> findAvailableSeats(@Param("courseId") Long courseId);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Course c WHERE c.id = :courseId")
+    Optional<Course> findByIdForSeatUpdate(@Param("courseId") Long courseId);
+    
+    @Modifying
+    @Query("UPDATE Course c SET c.deletedAt = COALESCE(c.deletedAt, :now), c.updatedAt = :now WHERE c.id = :courseId")
+    int markDeleted(@Param("courseId") Long courseId, @Param("now") LocalDateTime now);
+    
+    // Bulk status changes lock their courses in id order, like the single enrollment paths lock theirs first
+    @Query(value = "SELECT id FROM courses WHERE id IN (:courseIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockCourses(@Param("courseIds") Collection<Long> courseIds);
+    
+    // Bulk status changes release the same number of seats in every course of one call
+    @Modifying
+    @Query("UPDATE Course c SET c.enrolledStudents = CASE WHEN c.enrolledStudents > :seats " +
+           "THEN c.enrolledStudents - :seats ELSE 0 END, c.updatedAt = :now WHERE c.id IN :courseIds")
+    int releaseSeats(@Param("courseIds") Collection<Long> courseIds, @Param("seats") int seats,
+                     @Param("now") LocalDateTime now);
+    
+    // DTO projections for read endpoints; prerequisite ids are loaded with findPrerequisiteLinks
+    @Query(value = COURSE_DTO_SELECT, countQuery = "SELECT COUNT(c) FROM Course c")
+    Page<CourseDTO> findAllCourseDTOs(Pageable pageable);
+    
+    @Query(COURSE_DTO_SELECT)
+    List<CourseDTO> findAllCourseDTOs();
+    
+    @Query(value = COURSE_DTO_SELECT + " WHERE LOWER(c.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(c.code) LIKE LOWER(CONCAT('%', :query, '%'))",
+           countQuery = "SELECT COUNT(c) FROM Course c WHERE LOWER(c.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(c.code) LIKE LOWER(CONCAT('%', :query, '%'))")
+    Page<CourseDTO> searchCourseDTOs(@Param("query") String query, Pageable pageable);
+    
+    @Query("SELECT c.id AS courseId, p.id AS prerequisiteId FROM Course c JOIN c.prerequisites p WHERE c.id IN :courseIds")
+    List<PrerequisiteLink> findPrerequisiteLinks(@Param("courseIds") Collection<Long> courseIds);
+    
+    @Query("SELECT c.id AS courseId, p.id AS prerequisiteId FROM Course c JOIN c.prerequisites p")
+    List<PrerequisiteLink> findAllPrerequisiteLinks();
+    
+    @Query("SELECT c.id FROM Course c WHERE c.capacity > c.enrolledStudents ORDER BY c.id")
+    List<Long> findAvailableCourseIds();
+    
+    interface PrerequisiteLink {
+        Long getCourseId();
+        Long getPrerequisiteId();
+    }
 }
@@ -0,0 +1,11 @@
+package com.example.school.repository;
+
+import com.example.school.entity.DataImportError;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DataImportErrorRepository extends JpaRepository<DataImportError, Long> {
+    
+    Page<DataImportError> findByImportIdOrderByRowNumberAsc(Long importId, Pageable pageable);
+}
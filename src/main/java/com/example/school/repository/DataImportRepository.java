@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface DataImportRepository extends JpaRepository<DataImport, Long> {
@@ -33,9 +34,43 @@ public interface DataImportRepository extends JpaRepository<DataImport, Long> {
     
     @Modifying
     @Transactional
-    @Query("DELETE FROM DataImport di WHERE di.status = :status AND di.createdAt < :cutoffDate")
-    int deleteByStatusAndCreatedAtBefore(
-            @Param("status") DataImport.ImportStatus status,
-            @Param("cutoffDate") LocalDateTime cutoffDate
-    );
+    @Query("UPDATE DataImport di SET di.processedRecords = :processed, di.successfulRecords = :successful, " +
+           "di.failedRecords = :failed, di.completedChunks = :completedChunks, di.totalChunks = :totalChunks, " +
+           "di.rowsPerSecond = :rowsPerSecond, di.checkpointOffset = :checkpointOffset, " +
+           "di.checkpointRow = :checkpointRow, di.updatedAt = CURRENT_TIMESTAMP, di.heartbeatAt = CURRENT_TIMESTAMP " +
+           "WHERE di.id = :importId")
+    int updateProgress(@Param("importId") Long importId, @Param("processed") int processed,
+                       @Param("successful") int successful, @Param("failed") int failed,
+                       @Param("completedChunks") int completedChunks, @Param("totalChunks") Integer totalChunks,
+                       @Param("rowsPerSecond") double rowsPerSecond, @Param("checkpointOffset") Long checkpointOffset,
+                       @Param("checkpointRow") Long checkpointRow);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE DataImport di SET di.heartbeatAt = :now WHERE di.id IN :importIds AND di.status = 'PROCESSING'")
+    int heartbeat(@Param("importIds") Collection<Long> importIds, @Param("now") LocalDateTime now);
+    
+    // Imports in one of the statuses that nothing has touched since the cutoff
+    @Query("SELECT di FROM DataImport di WHERE di.status IN :statuses " +
+           "AND COALESCE(di.heartbeatAt, di.updatedAt) < :cutoff ORDER BY di.createdAt")
+    List<DataImport> findStale(@Param("statuses") Collection<DataImport.ImportStatus> statuses,
+                               @Param("cutoff") LocalDateTime cutoff);
+    
+    // Puts a failed import, or a stale one, back in the queue; the heartbeat keeps others from requeueing it too
+    @Modifying
+    @Transactional
+    @Query("UPDATE DataImport di SET di.status = 'PENDING', di.heartbeatAt = :now, di.queuedAt = :now " +
+           "WHERE di.id = :importId " +
+           "AND (di.status = 'FAILED' " +
+           "OR (di.status <> 'COMPLETED' AND COALESCE(di.heartbeatAt, di.updatedAt) < :cutoff))")
+    int requeue(@Param("importId") Long importId, @Param("cutoff") LocalDateTime cutoff,
+                @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE DataImport di SET di.status = 'FAILED', di.errorMessage = :errorMessage, di.completedAt = :now " +
+           "WHERE di.id = :importId AND di.status IN ('PENDING', 'PROCESSING') " +
+           "AND COALESCE(di.heartbeatAt, di.updatedAt) < :cutoff")
+    int failStale(@Param("importId") Long importId, @Param("errorMessage") String errorMessage,
+                  @Param("cutoff") LocalDateTime cutoff, @Param("now") LocalDateTime now);
 }
@@ -1,7 +1,10 @@
 package com.example.school.repository;
 
+import com.example.school.dto.EnrollmentResponseDTO;
 import com.example.school.entity.Enrollment;
 import com.example.school.entity.Enrollment.EnrollmentStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,14 +13,22 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     
-    @Query("SELECT e FROM Enrollment e WHERE e.student.id = :studentId AND e.course.id = :courseId")
+    String ENROLLMENT_DTO_SELECT = "SELECT new com.example.school.dto.EnrollmentResponseDTO(" +
+            "e.id, s.id, CONCAT(s.firstName, ' ', s.lastName), c.id, c.code, c.title, e.enrollmentDate, e.status) " +
+            "FROM Enrollment e JOIN e.student s JOIN e.course c";
+    
+    // Term-scoped queries filter on e.term.id, which MySQL uses to read only that term's partition
+    @Query("SELECT e FROM Enrollment e WHERE e.term.id = :termId AND e.student.id = :studentId AND e.course.id = :courseId")
     Optional<Enrollment> findByStudentIdAndCourseId(
+            @Param("termId") Long termId,
             @Param("studentId") Long studentId, 
             @Param("courseId") Long courseId
     );
@@ -27,11 +38,16 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
 
     @Query("SELECT e FROM Enrollment e WHERE e.student.id = :studentId")
     List<Enrollment> findByStudentId(@Param("studentId") Long studentId);
-    @Query("SELECT e FROM Enrollment e WHERE e.course.id = :courseId")
-    List<Enrollment> findByCourseId(@Param("courseId") Long courseId);
+    // A course can have hundreds of enrollments, so course-side reads are paged
+    @Query(value = "SELECT e FROM Enrollment e WHERE e.course.id = :courseId",
+           countQuery = "SELECT COUNT(e) FROM Enrollment e WHERE e.course.id = :courseId")
+    Page<Enrollment> findByCourseId(@Param("courseId") Long courseId, Pageable pageable);
 
-    @Query("SELECT e FROM Enrollment e WHERE e.course.id = :courseId AND e.status = 'ACTIVE'")
-    List<Enrollment> findActiveEnrollmentsByCourseId(@Param("courseId") Long courseId);
+    @Query(value = "SELECT e FROM Enrollment e WHERE e.term.id = :termId AND e.course.id = :courseId AND e.status = 'ACTIVE'",
+           countQuery = "SELECT COUNT(e) FROM Enrollment e " +
+                        "WHERE e.term.id = :termId AND e.course.id = :courseId AND e.status = 'ACTIVE'")
+    Page<Enrollment> findActiveEnrollmentsByCourseId(@Param("termId") Long termId, @Param("courseId") Long courseId,
+                                                     Pageable pageable);
     
     @Query("SELECT COUNT(e) > 0 FROM Enrollment e WHERE e.student.id = :studentId AND e.course.id = :courseId AND e.status = 'ACTIVE'")
     boolean existsActiveEnrollment(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
@@ -49,9 +65,70 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     @Query("DELETE FROM Enrollment e WHERE e.student.id = :studentId AND e.course.id = :courseId")
     void deleteByStudentIdAndCourseId(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
     
-    @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.course.id = :courseId AND e.status = 'ACTIVE'")
-    int countActiveEnrollmentsByCourseId(@Param("courseId") Long courseId);
+    // Set-based status changes lock the courses, then the active enrollments, and change exactly the locked rows
+    @Query(value = "SELECT DISTINCT course_id FROM enrollments " +
+                   "WHERE student_id IN (:studentIds) AND status = 'ACTIVE'", nativeQuery = true)
+    List<Long> findActiveCourseIdsOfStudents(@Param("studentIds") Collection<Long> studentIds);
+    
+    @Query(value = "SELECT id AS id, course_id AS courseId, student_id AS studentId FROM enrollments " +
+                   "WHERE student_id IN (:studentIds) AND status = 'ACTIVE' FOR UPDATE", nativeQuery = true)
+    List<ActiveEnrollment> lockActiveEnrollmentsOfStudents(@Param("studentIds") Collection<Long> studentIds);
+    
+    @Query(value = "SELECT id AS id, course_id AS courseId, student_id AS studentId FROM enrollments " +
+                   "WHERE course_id IN (:courseIds) AND status = 'ACTIVE' FOR UPDATE", nativeQuery = true)
+    List<ActiveEnrollment> lockActiveEnrollmentsOfCourses(@Param("courseIds") Collection<Long> courseIds);
+    
+    @Modifying
+    @Query("UPDATE Enrollment e SET e.status = :status, e.withdrawalReason = :reason, " +
+           "e.withdrawalDate = :withdrawalDate, e.updatedAt = :now WHERE e.id IN :enrollmentIds")
+    int updateStatusOfEnrollments(@Param("enrollmentIds") Collection<Long> enrollmentIds,
+                                  @Param("status") EnrollmentStatus status,
+                                  @Param("reason") String reason,
+                                  @Param("withdrawalDate") LocalDate withdrawalDate,
+                                  @Param("now") LocalDateTime now);
+    
+    @Query("SELECT DISTINCT e.student.id FROM Enrollment e WHERE e.course.id = :courseId")
+    List<Long> findStudentIdsByCourseId(@Param("courseId") Long courseId);
+    
+    @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.term.id = :termId AND e.course.id = :courseId AND e.status = 'ACTIVE'")
+    int countActiveEnrollmentsByCourseId(@Param("termId") Long termId, @Param("courseId") Long courseId);
+    
+    @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.term.id = :termId AND e.status = 'ACTIVE'")
+    long countActiveEnrollmentsByTermId(@Param("termId") Long termId);
+    
+    // Only the enrollment row; a locking fetch join would lock its student and course rows as well
+    @Query(value = "SELECT id FROM enrollments WHERE id = :enrollmentId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("enrollmentId") Long enrollmentId);
     
     @Query("SELECT e FROM Enrollment e JOIN FETCH e.course c JOIN FETCH e.student s WHERE e.id = :enrollmentId")
     Optional<Enrollment> findByIdWithCourseAndStudent(@Param("enrollmentId") Long enrollmentId);
+    
+    // DTO projections for read endpoints: one query per call, no lazy student/course loads
+    @Query(value = ENROLLMENT_DTO_SELECT, countQuery = "SELECT COUNT(e) FROM Enrollment e")
+    Page<EnrollmentResponseDTO> findAllEnrollmentDTOs(Pageable pageable);
+    
+    @Query(ENROLLMENT_DTO_SELECT + " WHERE e.id = :enrollmentId")
+    Optional<EnrollmentResponseDTO> findEnrollmentDTOById(@Param("enrollmentId") Long enrollmentId);
+    
+    @Query(ENROLLMENT_DTO_SELECT + " WHERE s.id = :studentId")
+    List<EnrollmentResponseDTO> findEnrollmentDTOsByStudentId(@Param("studentId") Long studentId);
+    
+    @Query(value = ENROLLMENT_DTO_SELECT + " WHERE c.id = :courseId",
+           countQuery = "SELECT COUNT(e) FROM Enrollment e WHERE e.course.id = :courseId")
+    Page<EnrollmentResponseDTO> findEnrollmentDTOsByCourseId(@Param("courseId") Long courseId, Pageable pageable);
+    
+    @Query(value = ENROLLMENT_DTO_SELECT + " WHERE e.term.id = :termId AND c.id = :courseId",
+           countQuery = "SELECT COUNT(e) FROM Enrollment e WHERE e.term.id = :termId AND e.course.id = :courseId")
+    Page<EnrollmentResponseDTO> findEnrollmentDTOsByTermIdAndCourseId(@Param("termId") Long termId,
+                                                                      @Param("courseId") Long courseId,
+                                                                      Pageable pageable);
+    
+    @Query(ENROLLMENT_DTO_SELECT + " WHERE s.id = :studentId AND e.status = 'ACTIVE'")
+    List<EnrollmentResponseDTO> findActiveEnrollmentDTOsByStudentId(@Param("studentId") Long studentId);
+    
+    interface ActiveEnrollment {
+        Long getId();
+        Long getCourseId();
+        Long getStudentId();
+    }
 }
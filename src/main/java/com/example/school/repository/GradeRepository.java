@@ -1,29 +1,49 @@
 package com.example.school.repository;
 
+import com.example.school.dto.GradeResponseDTO;
 import com.example.school.entity.Grade;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface GradeRepository extends JpaRepository<Grade, Long> {
     
+    String GRADE_DTO_SELECT = "SELECT new com.example.school.dto.GradeResponseDTO(" +
+            "g.id, g.gradeValue, g.comments, g.isCourseCompleted, g.gradedDate, e.id, s.id, c.id, " +
+            "CONCAT(s.firstName, ' ', s.lastName), c.title, e.status) " +
+            "FROM Grade g JOIN g.enrollment e JOIN e.student s JOIN e.course c";
+    
     @Query("SELECT g FROM Grade g JOIN g.enrollment e WHERE e.student.id = :studentId AND e.course.id = :courseId")
     Optional<Grade> findByStudentIdAndCourseId(
             @Param("studentId") Long studentId, 
             @Param("courseId") Long courseId
     );
     
-    @Query("SELECT g FROM Grade g JOIN g.enrollment e WHERE e.student.id = :studentId")
+    // Grade listings fetch the whole grade -> enrollment -> student/course chain in one statement
+    @Query("SELECT g FROM Grade g JOIN FETCH g.enrollment e JOIN FETCH e.student s JOIN FETCH e.course c WHERE s.id = :studentId")
     List<Grade> findByStudentId(@Param("studentId") Long studentId);
     
-    @Query("SELECT g FROM Grade g JOIN g.enrollment e WHERE e.course.id = :courseId")
+    @Query("SELECT g FROM Grade g JOIN FETCH g.enrollment e JOIN FETCH e.student s JOIN FETCH e.course c WHERE c.id = :courseId")
     List<Grade> findByCourseId(@Param("courseId") Long courseId);
     
+    @Query(value = "SELECT g FROM Grade g JOIN FETCH g.enrollment e JOIN FETCH e.student s JOIN FETCH e.course c",
+           countQuery = "SELECT COUNT(g) FROM Grade g")
+    Page<Grade> findAllWithEnrollmentDetails(Pageable pageable);
+    
+    @Query("SELECT g FROM Grade g JOIN FETCH g.enrollment e JOIN FETCH e.student s JOIN FETCH e.course c WHERE g.id = :gradeId")
+    Optional<Grade> findByIdWithEnrollmentDetails(@Param("gradeId") Long gradeId);
+    
+    @Query("SELECT g.gradeValue FROM Grade g JOIN g.enrollment e WHERE e.student.id = :studentId AND g.isCourseCompleted = true")
+    List<String> findCompletedGradeValuesByStudentId(@Param("studentId") Long studentId);
+    
     @Query("SELECT g FROM Grade g JOIN g.enrollment e WHERE e.student.id = :studentId AND e.course.id = :courseId AND g.isCourseCompleted = true")
     Optional<Grade> findCompletedGradeByStudentAndCourse(
             @Param("studentId") Long studentId, 
@@ -32,4 +52,29 @@ public interface GradeRepository extends JpaRepository<Grade, Long> {
 
     @Query("SELECT g FROM Grade g JOIN FETCH g.enrollment e JOIN FETCH e.course c WHERE e.student.id = :studentId")
     List<Grade> findGradesWithCourseByStudentId(@Param("studentId") Long studentId);
+
+    // DTO projections for read endpoints: one query per call, no lazy enrollment/student/course loads
+    @Query(GRADE_DTO_SELECT + " WHERE g.id = :gradeId")
+    Optional<GradeResponseDTO> findGradeDTOById(@Param("gradeId") Long gradeId);
+
+    @Query(GRADE_DTO_SELECT + " WHERE s.id = :studentId")
+    List<GradeResponseDTO> findGradeDTOsByStudentId(@Param("studentId") Long studentId);
+
+    @Query(GRADE_DTO_SELECT + " WHERE c.id = :courseId")
+    List<GradeResponseDTO> findGradeDTOsByCourseId(@Param("courseId") Long courseId);
+
+    @Query(value = GRADE_DTO_SELECT, countQuery = "SELECT COUNT(g) FROM Grade g")
+    Page<GradeResponseDTO> findAllGradeDTOs(Pageable pageable);
+
+    @Query("SELECT e.student.id AS studentId, c.title AS courseTitle, g.gradeValue AS gradeValue, " +
+           "g.isCourseCompleted AS courseCompleted FROM Grade g JOIN g.enrollment e JOIN e.course c " +
+           "WHERE e.student.id IN :studentIds")
+    List<CourseGradeRow> findCourseGradeRowsByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+
+    interface CourseGradeRow {
+        Long getStudentId();
+        String getCourseTitle();
+        String getGradeValue();
+        Boolean getCourseCompleted();
+    }
 }
@@ -1,21 +1,28 @@
 package com.example.school.repository;
 
+import com.example.school.dto.StudentDTO;
 import com.example.school.entity.Student;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.jpa.repository.EntityGraph;
-
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
     
+    String STUDENT_DTO_SELECT = "SELECT new com.example.school.dto.StudentDTO(" +
+            "s.id, s.firstName, s.lastName, s.email, s.phoneNumber, s.dateOfBirth) FROM Student s";
+    
     Optional<Student> findByEmail(String email);
     
     @Query("SELECT s FROM Student s WHERE LOWER(s.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
@@ -29,7 +36,36 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
 
     boolean existsByEmail(String email);
     
-    @EntityGraph(attributePaths = {"enrollments", "enrollments.course", "enrollments.grade"})
-    @Query("SELECT s FROM Student s LEFT JOIN FETCH s.enrollments e LEFT JOIN FETCH e.course LEFT JOIN FETCH e.grade WHERE s.id = :studentId")
-    Optional<Student> findByIdWithEnrollmentsAndGrades(@Param("studentId") Long studentId);
+    // Held shared until the enrollment commits: a deletion waits for it, or it sees the deletion
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT s FROM Student s WHERE s.id = :studentId")
+    Optional<Student> findByIdForEnrollment(@Param("studentId") Long studentId);
+    
+    @Modifying
+    @Query("UPDATE Student s SET s.deletedAt = COALESCE(s.deletedAt, :now), s.updatedAt = :now WHERE s.id = :studentId")
+    int markDeleted(@Param("studentId") Long studentId, @Param("now") LocalDateTime now);
+    
+    // DTO projections for read endpoints: no managed entities, no ModelMapper
+    @Query(value = STUDENT_DTO_SELECT, countQuery = "SELECT COUNT(s) FROM Student s")
+    Page<StudentDTO> findAllStudentDTOs(Pageable pageable);
+
+    @Query(STUDENT_DTO_SELECT)
+    List<StudentDTO> findAllStudentDTOs();
+
+    @Query(STUDENT_DTO_SELECT + " WHERE s.id = :studentId")
+    Optional<StudentDTO> findStudentDTOById(@Param("studentId") Long studentId);
+
+    @Query(STUDENT_DTO_SELECT + " WHERE s.id IN :studentIds")
+    List<StudentDTO> findStudentDTOsByIds(@Param("studentIds") Collection<Long> studentIds);
+
+    @Query(STUDENT_DTO_SELECT + " WHERE s.email = :email")
+    Optional<StudentDTO> findStudentDTOByEmail(@Param("email") String email);
+
+    @Query(value = STUDENT_DTO_SELECT + " WHERE LOWER(s.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+            "LOWER(s.lastName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+            "LOWER(s.email) LIKE LOWER(CONCAT('%', :query, '%'))",
+           countQuery = "SELECT COUNT(s) FROM Student s WHERE LOWER(s.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+            "LOWER(s.lastName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+            "LOWER(s.email) LIKE LOWER(CONCAT('%', :query, '%'))")
+    Page<StudentDTO> searchStudentDTOs(@Param("query") String query, Pageable pageable);
 }
@@ -0,0 +1,236 @@
+package com.example.school.seats;
+
+import com.example.school.cache.CourseCacheRegions;
+import com.example.school.dto.SeatReconciliationDTO;
+import com.example.school.dto.SeatReconciliationDTO.Drift;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps {@code courses.enrolled_students} equal to the number of ACTIVE enrollments of the course.
+ * The counter is maintained by every path that changes an enrollment's status; this catches what
+ * those paths miss. Every run first compares counters with grouped active counts without locks,
+ * on a replica when there is one. Only the courses that differ are then locked like the seat paths
+ * lock them, recounted and corrected, a batch per transaction. Each correction is stored in
+ * {@code seat_count_drifts}.
+ *
+ * <p>Regular runs only check courses that changed, or had enrollments change, since the previous
+ * run; the first run after startup and the nightly run check every course.
+ */
+@Slf4j
+@Component
+public class SeatCountReconciler {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate batchTransaction;
+    private final CourseCacheRegions courseCacheRegions;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration overlap;
+
+    // Start of the last successful run; null until then, which makes the first run a full one
+    private LocalDateTime lastRun;
+
+    public SeatCountReconciler(NamedParameterJdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               CourseCacheRegions courseCacheRegions,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.seats.reconcile-batch-size:500}") int batchSize,
+                               @Value("${app.seats.reconcile-overlap:1m}") Duration overlap) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.courseCacheRegions = courseCacheRegions;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = Math.max(1, batchSize);
+        this.overlap = overlap;
+    }
+
+    @Scheduled(initialDelayString = "${app.seats.reconcile-interval:300000}",
+               fixedDelayString = "${app.seats.reconcile-interval:300000}")
+    public void reconcileRecent() {
+        reconcile(false);
+    }
+
+    @Scheduled(cron = "${app.seats.full-reconcile-cron:0 0 3 * * ?}")
+    public void reconcileAll() {
+        reconcile(true);
+    }
+
+    public synchronized SeatReconciliationDTO reconcile(boolean full) {
+        LocalDateTime started = LocalDateTime.now();
+        boolean fullScan = full || lastRun == null;
+        String scan = fullScan ? "full" : "incremental";
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        Detection detection = readTransaction.execute(status -> detect(fullScan));
+        List<Drift> corrections = new ArrayList<>();
+        for (List<Long> batch : chunks(detection.suspects())) {
+            corrections.addAll(correct(batch, fullScan));
+        }
+        lastRun = started;
+
+        sample.stop(Timer.builder("seats.reconcile")
+                .tag("scan", scan)
+                .description("Time spent reconciling course seat counters")
+                .register(meterRegistry));
+        Counter.builder("seats.drift.corrected")
+                .tag("scan", scan)
+                .description("Course seat counters that did not match the active enrollments")
+                .register(meterRegistry)
+                .increment(corrections.size());
+        if (!corrections.isEmpty()) {
+            log.warn("Corrected {} of {} course seat counters ({} scan): {}", corrections.size(),
+                    detection.checked(), scan, corrections);
+        } else {
+            log.debug("Checked {} course seat counters ({} scan), no drift", detection.checked(), scan);
+        }
+        return new SeatReconciliationDTO(fullScan, detection.checked(), corrections);
+    }
+
+    // Courses whose counter differs from their active enrollments, without locks
+    private Detection detect(boolean fullScan) {
+        List<Long> openTermIds = openTermIds();
+        if (fullScan) {
+            Map<Long, Integer> recorded = recordedSeats(null, false);
+            return new Detection(recorded.size(), drifted(recorded, activeEnrollments(openTermIds, null)));
+        }
+        Timestamp since = Timestamp.valueOf(lastRun.minus(overlap));
+        List<Long> changed = jdbcTemplate.queryForList(
+                "SELECT id FROM courses WHERE updated_at >= :since " +
+                "UNION SELECT course_id FROM enrollments WHERE updated_at >= :since",
+                new MapSqlParameterSource("since", since), Long.class);
+        Set<Long> suspects = new LinkedHashSet<>();
+        for (List<Long> chunk : chunks(changed)) {
+            suspects.addAll(drifted(recordedSeats(chunk, false), activeEnrollments(openTermIds, chunk)));
+        }
+        return new Detection(changed.size(), suspects);
+    }
+
+    // Recounts the batch with the courses locked, so no enrollment can change them in between
+    private List<Drift> correct(List<Long> courseIds, boolean fullScan) {
+        List<Drift> drifts = batchTransaction.execute(status -> {
+            Map<Long, Integer> recorded = recordedSeats(courseIds, true);
+            Map<Long, Integer> active = activeEnrollments(openTermIds(), courseIds);
+            List<Drift> batch = new ArrayList<>();
+            recorded.forEach((courseId, seats) -> {
+                int enrollments = active.getOrDefault(courseId, 0);
+                if (enrollments != seats) {
+                    batch.add(new Drift(courseId, seats, enrollments));
+                }
+            });
+            if (batch.isEmpty()) {
+                return batch;
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate("UPDATE courses SET enrolled_students = :enrollments, updated_at = :now " +
+                    "WHERE id = :courseId", parameters(batch, now, fullScan));
+            jdbcTemplate.batchUpdate("INSERT INTO seat_count_drifts " +
+                    "(course_id, recorded_seats, active_enrollments, full_scan, corrected_at) " +
+                    "VALUES (:courseId, :recordedSeats, :enrollments, :fullScan, :now)", parameters(batch, now, fullScan));
+            return batch;
+        });
+        if (drifts == null || drifts.isEmpty()) {
+            return List.of();
+        }
+
+        // Written with JDBC, so the cached courses are evicted after the commit
+        courseCacheRegions.evictCourses(drifts.stream().map(Drift::courseId).toList());
+        return drifts;
+    }
+
+    // ACTIVE enrollments only exist in open terms, so the count only reads their partitions
+    private List<Long> openTermIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM academic_terms WHERE status = 'OPEN'",
+                new MapSqlParameterSource(), Long.class);
+    }
+
+    // courseIds null means every course
+    private Map<Long, Integer> recordedSeats(Collection<Long> courseIds, boolean forUpdate) {
+        Map<Long, Integer> seats = new LinkedHashMap<>();
+        String sql = "SELECT id, COALESCE(enrolled_students, 0) AS seats FROM courses" +
+                (courseIds == null ? "" : " WHERE id IN (:courseIds)") + (forUpdate ? " FOR UPDATE" : "");
+        jdbcTemplate.query(sql, new MapSqlParameterSource("courseIds", courseIds), rs -> {
+            seats.put(rs.getLong("id"), rs.getInt("seats"));
+        });
+        return seats;
+    }
+
+    // One grouped query; courses without active enrollments are missing from the result
+    private Map<Long, Integer> activeEnrollments(List<Long> openTermIds, Collection<Long> courseIds) {
+        Map<Long, Integer> counts = new HashMap<>();
+        if (openTermIds.isEmpty()) {
+            return counts;
+        }
+        String sql = "SELECT course_id, COUNT(*) AS enrollments FROM enrollments " +
+                "WHERE term_id IN (:termIds) AND status = 'ACTIVE'" +
+                (courseIds == null ? "" : " AND course_id IN (:courseIds)") + " GROUP BY course_id";
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("termIds", openTermIds)
+                .addValue("courseIds", courseIds);
+        jdbcTemplate.query(sql, params, rs -> {
+            counts.put(rs.getLong("course_id"), rs.getInt("enrollments"));
+        });
+        return counts;
+    }
+
+    private static List<Long> drifted(Map<Long, Integer> recorded, Map<Long, Integer> active) {
+        List<Long> drifted = new ArrayList<>();
+        recorded.forEach((courseId, seats) -> {
+            if (active.getOrDefault(courseId, 0).intValue() != seats) {
+                drifted.add(courseId);
+            }
+        });
+        return drifted;
+    }
+
+    private static SqlParameterSource[] parameters(List<Drift> drifts, Timestamp now, boolean fullScan) {
+        return drifts.stream()
+                .map(drift -> new MapSqlParameterSource()
+                        .addValue("courseId", drift.courseId())
+                        .addValue("recordedSeats", drift.recordedSeats())
+                        .addValue("enrollments", drift.activeEnrollments())
+                        .addValue("fullScan", fullScan)
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+    }
+
+    private List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> list = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += batchSize) {
+            chunks.add(list.subList(from, Math.min(from + batchSize, list.size())));
+        }
+        return chunks;
+    }
+
+    private record Detection(int checked, Collection<Long> suspects) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.school.service;
+
+import com.example.school.dto.AcademicTermDTO;
+import com.example.school.entity.AcademicTerm;
+
+import java.util.List;
+
+public interface AcademicTermService {
+    
+    List<AcademicTermDTO> findAllTerms();
+    
+    AcademicTermDTO findTermById(Long id);
+    
+    AcademicTerm getCurrentTerm();
+    
+    AcademicTermDTO findCurrentTerm();
+    
+    AcademicTermDTO createTerm(AcademicTermDTO termDTO);
+    
+    AcademicTermDTO closeTerm(Long id);
+}
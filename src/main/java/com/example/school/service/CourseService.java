@@ -1,11 +1,14 @@
 package com.example.school.service;
 
+import com.example.school.dto.BatchResultDTO;
 import com.example.school.dto.CourseDTO;
+import com.example.school.dto.SeatReconciliationDTO;
 import com.example.school.entity.Course;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface CourseService {
@@ -39,4 +42,22 @@ public interface CourseService {
     boolean existsById(Long id);
     
     boolean hasAvailableCapacity(Long courseId);
+    
+    Page<CourseDTO> findAllCourseDTOs(Pageable pageable);
+    
+    List<CourseDTO> findAllCourseDTOs();
+    
+    List<CourseDTO> findCourseDTOsWithAvailableCapacity();
+    
+    CourseDTO findCourseDTOById(Long id);
+    
+    CourseDTO findCourseDTOByCode(String code);
+    
+    Page<CourseDTO> searchCourseDTOs(String query, Pageable pageable);
+    
+    Set<CourseDTO> getPrerequisiteDTOs(Long courseId);
+
+    Map<Long, BatchResultDTO<CourseDTO>> findCourseDTOsByIds(List<Long> ids);
+
+    SeatReconciliationDTO reconcileSeatCounts(boolean full);
 }
@@ -0,0 +1,18 @@
+package com.example.school.service;
+
+import com.example.school.entity.DataImport;
+import com.example.school.exporter.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface DataExportService {
+
+    /**
+     * Writes every row of the type, or those updated since {@code updatedSince}, in the format
+     * its import reads, gzip-compressed if asked for.
+     */
+    void export(DataImport.ImportType type, ExportFormat format, LocalDateTime updatedSince, int partitions,
+                boolean gzip, OutputStream out) throws IOException;
+}
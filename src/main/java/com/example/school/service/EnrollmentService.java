@@ -1,7 +1,9 @@
 package com.example.school.service;
 
+import com.example.school.dto.BulkStatusResultDTO;
 import com.example.school.dto.EnrollmentDTO;
 import com.example.school.dto.EnrollmentRequestDTO;
+import com.example.school.dto.EnrollmentResponseDTO;
 import com.example.school.entity.Enrollment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -19,11 +21,11 @@ public interface EnrollmentService {
     
     List<Enrollment> findEnrollmentsByStudentId(Long studentId);
     
-    List<Enrollment> findEnrollmentsByCourseId(Long courseId);
+    Page<Enrollment> findEnrollmentsByCourseId(Long courseId, Pageable pageable);
     
     List<Enrollment> findActiveEnrollmentsByStudentId(Long studentId);
     
-    List<Enrollment> findActiveEnrollmentsByCourseId(Long courseId);
+    Page<Enrollment> findActiveEnrollmentsByCourseId(Long courseId, Pageable pageable);
     
     Enrollment enrollStudent(EnrollmentDTO enrollmentDTO);
     
@@ -35,6 +37,11 @@ public interface EnrollmentService {
     
     void dropStudentFromCourse(Long studentId, Long courseId);
     
+    BulkStatusResultDTO withdrawStudents(List<Long> studentIds, String reason);
+    
+    BulkStatusResultDTO updateActiveEnrollmentStatus(List<Long> courseIds, Enrollment.EnrollmentStatus status,
+                                                     String reason);
+    
     boolean isStudentEnrolled(Long studentId, Long courseId);
     
     boolean hasStudentCompletedPrerequisites(Long studentId, Long courseId);
@@ -42,4 +49,16 @@ public interface EnrollmentService {
     boolean isCourseFull(Long courseId);
     
     int getAvailableSeats(Long courseId);
+    
+    Page<EnrollmentResponseDTO> findAllEnrollmentDTOs(Pageable pageable);
+    
+    EnrollmentResponseDTO findEnrollmentDTOById(Long id);
+    
+    List<EnrollmentResponseDTO> findEnrollmentDTOsByStudentId(Long studentId);
+    
+    Page<EnrollmentResponseDTO> findEnrollmentDTOsByCourseId(Long courseId, Pageable pageable);
+    
+    Page<EnrollmentResponseDTO> findEnrollmentDTOsByTermIdAndCourseId(Long termId, Long courseId, Pageable pageable);
+    
+    List<EnrollmentResponseDTO> findActiveEnrollmentDTOsByStudentId(Long studentId);
 }
@@ -1,19 +1,37 @@
 package com.example.school.service;
 
 import com.example.school.entity.DataImport;
+import com.example.school.entity.DataImportError;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 public interface FileImportService {
     
 
-    Long processFileUpload(MultipartFile file, DataImport.ImportType importType);
+    Long processFileUpload(MultipartFile file, DataImport.ImportType importType, int priority, boolean dryRun);
+
+    /** Stores a raw, optionally gzip-compressed request body as the file of a new import. */
+    Long processStreamUpload(InputStream body, String fileName, DataImport.ImportType importType, int priority,
+                             boolean dryRun);
     
 
     DataImport getImportStatus(Long importId);
 
+    DataImport resumeImport(Long importId);
+
     Iterable<DataImport> getImportsByType(DataImport.ImportType importType);
 
     Iterable<DataImport> getRecentImports(int limit);
+
+    Page<DataImportError> getImportErrors(Long importId, Pageable pageable);
+
+    /** Writes every rejected row of the import as CSV (row, field, reason), in row order. */
+    void writeErrorReport(Long importId, OutputStream out) throws IOException;
     
 
     int cleanupOldImports(int daysOlderThan);
@@ -42,4 +42,16 @@ public interface GradeService {
     
 
     double convertGradeToPoints(String gradeValue);
+
+
+    GradeResponseDTO findGradeDTOById(Long id);
+
+
+    List<GradeResponseDTO> findGradeDTOsByStudentId(Long studentId);
+
+
+    List<GradeResponseDTO> findGradeDTOsByCourseId(Long courseId);
+
+
+    Page<GradeResponseDTO> findAllGradeDTOs(Pageable pageable);
 }
@@ -1,5 +1,6 @@
 package com.example.school.service;
 
+import com.example.school.dto.BatchResultDTO;
 import com.example.school.dto.StudentDTO;
 import com.example.school.dto.StudentProgressDTO;
 import com.example.school.entity.Student;
@@ -8,6 +9,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
 
 public interface StudentService {
     
@@ -36,4 +38,18 @@ public interface StudentService {
     boolean existsById(Long id);
 
     StudentProgressDTO getStudentProgress(Long studentId) throws ResourceNotFoundException;
+
+    Page<StudentDTO> findAllStudentDTOs(Pageable pageable);
+
+    List<StudentDTO> findAllStudentDTOs();
+
+    StudentDTO findStudentDTOById(Long id);
+
+    StudentDTO findStudentDTOByEmail(String email);
+
+    Page<StudentDTO> searchStudentDTOs(String query, Pageable pageable);
+
+    Map<Long, BatchResultDTO<StudentDTO>> findStudentDTOsByIds(List<Long> ids);
+
+    Map<Long, BatchResultDTO<StudentProgressDTO>> getStudentProgressByIds(List<Long> ids);
 }
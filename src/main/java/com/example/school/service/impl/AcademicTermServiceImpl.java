@@ -0,0 +1,98 @@
+package com.example.school.service.impl;
+
+import com.example.school.dto.AcademicTermDTO;
+import com.example.school.entity.AcademicTerm;
+import com.example.school.exception.InvalidTermStateException;
+import com.example.school.exception.ResourceAlreadyExistsException;
+import com.example.school.exception.ResourceNotFoundException;
+import com.example.school.repository.AcademicTermRepository;
+import com.example.school.repository.EnrollmentRepository;
+import com.example.school.service.AcademicTermService;
+import com.example.school.term.TermPartitions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AcademicTermServiceImpl implements AcademicTermService {
+
+    private final AcademicTermRepository termRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final TermPartitions termPartitions;
+    private final ModelMapper modelMapper;
+
+    @Override
+    public List<AcademicTermDTO> findAllTerms() {
+        return termRepository.findAllByOrderByStartDateDesc().stream()
+                .map(term -> modelMapper.map(term, AcademicTermDTO.class))
+                .toList();
+    }
+
+    @Override
+    public AcademicTermDTO findTermById(Long id) {
+        return modelMapper.map(findTerm(id), AcademicTermDTO.class);
+    }
+
+    @Override
+    public AcademicTerm getCurrentTerm() {
+        return termRepository.findCurrent(LocalDate.now())
+                .orElseThrow(() -> new ResourceNotFoundException("No open academic term has started"));
+    }
+
+    @Override
+    public AcademicTermDTO findCurrentTerm() {
+        return modelMapper.map(getCurrentTerm(), AcademicTermDTO.class);
+    }
+
+    // Partition DDL commits implicitly, so the term is saved in its own transaction first
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AcademicTermDTO createTerm(AcademicTermDTO termDTO) {
+        if (termRepository.existsByCode(termDTO.getCode())) {
+            throw new ResourceAlreadyExistsException("Term code already in use: " + termDTO.getCode());
+        }
+
+        AcademicTerm term = new AcademicTerm();
+        term.setCode(termDTO.getCode());
+        term.setName(termDTO.getName());
+        term.setStartDate(termDTO.getStartDate());
+        term.setEndDate(termDTO.getEndDate());
+        term.setStatus(AcademicTerm.TermStatus.OPEN);
+        AcademicTerm savedTerm = termRepository.save(term);
+
+        // Until this succeeds the term's rows land in p_future, where they are still found, just not pruned
+        termPartitions.addTerm(savedTerm.getId());
+        log.info("Created term {} with id {}", savedTerm.getCode(), savedTerm.getId());
+        return modelMapper.map(savedTerm, AcademicTermDTO.class);
+    }
+
+    @Override
+    @Transactional
+    public AcademicTermDTO closeTerm(Long id) {
+        AcademicTerm term = findTerm(id);
+        if (!term.isOpen()) {
+            throw new InvalidTermStateException("Term " + term.getCode() + " is already " + term.getStatus());
+        }
+        // Enrollments are completed, failed or dropped before their term closes
+        long active = enrollmentRepository.countActiveEnrollmentsByTermId(id);
+        if (active > 0) {
+            throw new InvalidTermStateException("Term " + term.getCode() + " still has " + active + " active enrollments");
+        }
+        term.setStatus(AcademicTerm.TermStatus.CLOSED);
+        return modelMapper.map(termRepository.save(term), AcademicTermDTO.class);
+    }
+
+    private AcademicTerm findTerm(Long id) {
+        return termRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Academic term not found with id: " + id));
+    }
+}
@@ -1,21 +1,38 @@
 package com.example.school.service.impl;
 
+import com.example.school.cache.CourseCatalog;
+import com.example.school.datasource.PrimaryReads;
+import com.example.school.dto.BatchResultDTO;
 import com.example.school.dto.CourseDTO;
+import com.example.school.dto.SeatReconciliationDTO;
 import com.example.school.entity.Course;
+import com.example.school.event.CourseChangedEvent;
 import com.example.school.exception.ResourceAlreadyExistsException;
 import com.example.school.exception.ResourceNotFoundException;
+import com.example.school.purge.DataPurger;
 import com.example.school.repository.CourseRepository;
+import com.example.school.seats.SeatCountReconciler;
 import com.example.school.service.CourseService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,7 +40,12 @@ import java.util.Set;
 public class CourseServiceImpl implements CourseService {
 
     private final CourseRepository courseRepository;
+    private final CourseCatalog courseCatalog;
+    private final DataPurger dataPurger;
+    private final PlatformTransactionManager transactionManager;
+    private final SeatCountReconciler seatCountReconciler;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<Course> findAllCourses() {
@@ -35,18 +57,22 @@ public class CourseServiceImpl implements CourseService {
         return courseRepository.findAll(pageable);
     }
 
+    // These fill the second-level cache, which sessions on a replica only read from, so they use the primary
     @Override
+    @Transactional(readOnly = true, label = PrimaryReads.LABEL)
     public List<Course> findCoursesWithAvailableCapacity() {
         return courseRepository.findCoursesWithAvailableCapacity();
     }
 
     @Override
+    @Transactional(readOnly = true, label = PrimaryReads.LABEL)
     public Course findCourseById(Long id) {
         return courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
     }
 
     @Override
+    @Transactional(readOnly = true, label = PrimaryReads.LABEL)
     public Course findCourseByCode(String code) {
         return courseRepository.findByCode(code)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with code: " + code));
@@ -80,6 +106,7 @@ public class CourseServiceImpl implements CourseService {
             savedCourse = courseRepository.save(savedCourse);
         }
         
+        eventPublisher.publishEvent(new CourseChangedEvent(savedCourse.getId(), CourseChangedEvent.Change.CREATED));
         return savedCourse;
     }
 
@@ -96,6 +123,8 @@ public class CourseServiceImpl implements CourseService {
             throw new ResourceAlreadyExistsException("Course code already in use: " + courseDTO.getCode());
         }
 
+        boolean renamed = !existingCourse.getTitle().equals(courseDTO.getTitle());
+        
         // Map DTO to existing entity
         modelMapper.map(courseDTO, existingCourse);
         
@@ -112,23 +141,32 @@ public class CourseServiceImpl implements CourseService {
         }
         
         // Save and return the updated course
-        return courseRepository.save(existingCourse);
+        Course updatedCourse = courseRepository.save(existingCourse);
+        eventPublisher.publishEvent(new CourseChangedEvent(id,
+                renamed ? CourseChangedEvent.Change.RENAMED : CourseChangedEvent.Change.UPDATED));
+        return updatedCourse;
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteCourse(Long id) {
-        // Check if the course exists
-        Course course = findCourseById(id);
-        
-        // Check if the course is a prerequisite for any other courses
-        List<Course> dependentCourses = courseRepository.findCoursesThatRequireCourse(id);
-        if (!dependentCourses.isEmpty()) {
-            throw new IllegalStateException("Cannot delete course as it is a prerequisite for other courses");
-        }
+        // Never inside the caller's transaction: the purge commits chunk by chunk, and only the
+        // mark and the final delete hold the course row, each in a short transaction of its own
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            courseRepository.findByIdForSeatUpdate(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
+            requireNoDependentCourses(id);
+            courseRepository.markDeleted(id, LocalDateTime.now());
+        });
         
-        // Delete the course
-        courseRepository.deleteById(id);
+        // Enrolling refuses a marked course, so the purge leaves nothing behind
+        dataPurger.purgeCourseEnrollments(id);
+        transaction.executeWithoutResult(status -> {
+            requireNoDependentCourses(id);
+            courseRepository.deleteById(id);
+            eventPublisher.publishEvent(new CourseChangedEvent(id, CourseChangedEvent.Change.DELETED));
+        });
     }
 
     @Override
@@ -141,12 +179,18 @@ public class CourseServiceImpl implements CourseService {
         Course course = findCourseById(courseId);
         Course prerequisite = findCourseById(prerequisiteId);
         
+        // A course being deleted must not become a prerequisite: that would block its deletion
+        if (prerequisite.isDeleted()) {
+            throw new ResourceNotFoundException("Course not found with id: " + prerequisiteId);
+        }
+        
         if (course.getPrerequisites().contains(prerequisite)) {
             throw new ResourceAlreadyExistsException("Course already has this prerequisite");
         }
         
         course.addPrerequisite(prerequisite);
         courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Change.UPDATED));
     }
 
     @Override
@@ -161,9 +205,11 @@ public class CourseServiceImpl implements CourseService {
         
         course.removePrerequisite(prerequisite);
         courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Change.UPDATED));
     }
 
     @Override
+    @Transactional(readOnly = true, label = PrimaryReads.LABEL)
     public Set<Course> getPrerequisites(Long courseId) {
         Course course = findCourseById(courseId);
         return new HashSet<>(course.getPrerequisites());
@@ -184,4 +230,84 @@ public class CourseServiceImpl implements CourseService {
         Course course = findCourseById(courseId);
         return course.hasAvailableCapacity();
     }
+
+    @Override
+    public Page<CourseDTO> findAllCourseDTOs(Pageable pageable) {
+        Page<CourseDTO> page = courseRepository.findAllCourseDTOs(pageable);
+        fillPrerequisiteIds(page.getContent());
+        return page;
+    }
+
+    @Override
+    public List<CourseDTO> findAllCourseDTOs() {
+        return fillPrerequisiteIds(courseRepository.findAllCourseDTOs());
+    }
+
+    @Override
+    public List<CourseDTO> findCourseDTOsWithAvailableCapacity() {
+        return courseCatalog.findAvailable();
+    }
+
+    @Override
+    public CourseDTO findCourseDTOById(Long id) {
+        return courseCatalog.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
+    }
+
+    @Override
+    public CourseDTO findCourseDTOByCode(String code) {
+        return courseCatalog.findByCode(code)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with code: " + code));
+    }
+
+    @Override
+    public Page<CourseDTO> searchCourseDTOs(String query, Pageable pageable) {
+        Page<CourseDTO> page = courseRepository.searchCourseDTOs(query, pageable);
+        fillPrerequisiteIds(page.getContent());
+        return page;
+    }
+
+    @Override
+    public Set<CourseDTO> getPrerequisiteDTOs(Long courseId) {
+        return courseCatalog.findPrerequisites(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
+    }
+
+    @Override
+    public Map<Long, BatchResultDTO<CourseDTO>> findCourseDTOsByIds(List<Long> ids) {
+        // Served from the catalog snapshot, so no query at all
+        Map<Long, BatchResultDTO<CourseDTO>> results = new LinkedHashMap<>();
+        for (Long id : ids) {
+            results.computeIfAbsent(id, key -> courseCatalog.findById(key)
+                    .map(BatchResultDTO::found)
+                    .orElseGet(BatchResultDTO::notFound));
+        }
+        return results;
+    }
+
+    private void requireNoDependentCourses(Long courseId) {
+        if (!courseRepository.findCoursesThatRequireCourse(courseId).isEmpty()) {
+            throw new IllegalStateException("Cannot delete course as it is a prerequisite for other courses");
+        }
+    }
+
+    // Resolve prerequisite ids for a batch of projected courses with a single query
+    private <C extends Collection<CourseDTO>> C fillPrerequisiteIds(C courses) {
+        if (courses.isEmpty()) {
+            return courses;
+        }
+        Map<Long, CourseDTO> byId = courses.stream()
+                .collect(Collectors.toMap(CourseDTO::getId, Function.identity(), (a, b) -> a));
+        for (CourseRepository.PrerequisiteLink link : courseRepository.findPrerequisiteLinks(byId.keySet())) {
+            byId.get(link.getCourseId()).addPrerequisiteId(link.getPrerequisiteId());
+        }
+        return courses;
+    }
+
+    // Runs its own transactions: the checks read without locks, the corrections commit per batch
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SeatReconciliationDTO reconcileSeatCounts(boolean full) {
+        return seatCountReconciler.reconcile(full);
+    }
 }
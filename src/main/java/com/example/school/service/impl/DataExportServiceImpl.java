@@ -0,0 +1,48 @@
+package com.example.school.service.impl;
+
+import com.example.school.entity.DataImport;
+import com.example.school.exporter.DataExporter;
+import com.example.school.exporter.ExportFormat;
+import com.example.school.service.DataExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+// Not transactional: every chunk is read in its own short statement, see DataExporter
+@Slf4j
+@Service
+public class DataExportServiceImpl implements DataExportService {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final DataExporter dataExporter;
+    private final int maxPartitions;
+
+    public DataExportServiceImpl(DataExporter dataExporter,
+                                 @Value("${app.export.max-partitions:8}") int maxPartitions) {
+        this.dataExporter = dataExporter;
+        this.maxPartitions = maxPartitions;
+    }
+
+    @Override
+    public void export(DataImport.ImportType type, ExportFormat format, LocalDateTime updatedSince, int partitions,
+                       boolean gzip, OutputStream out) throws IOException {
+        // Thrown errors can no longer become a 400 once the response is streaming, so clamp instead
+        partitions = Math.max(1, Math.min(partitions, maxPartitions));
+        long start = System.nanoTime();
+        long rows;
+        if (gzip) {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+            rows = dataExporter.export(type, format, updatedSince, partitions, compressed);
+            compressed.finish();
+        } else {
+            rows = dataExporter.export(type, format, updatedSince, partitions, out);
+        }
+        log.info("Exported {} {} rows as {} in {} ms", rows, type, format, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -1,10 +1,16 @@
 package com.example.school.service.impl;
 
+import com.example.school.dto.BulkStatusResultDTO;
 import com.example.school.dto.EnrollmentDTO;
 import com.example.school.dto.EnrollmentRequestDTO;
+import com.example.school.dto.EnrollmentResponseDTO;
+import com.example.school.entity.AcademicTerm;
 import com.example.school.entity.Course;
 import com.example.school.entity.Enrollment;
 import com.example.school.entity.Student;
+import com.example.school.event.EnrollmentChangedEvent;
+import com.example.school.event.EnrollmentsBulkChangedEvent;
+import com.example.school.exception.InvalidTermStateException;
 import com.example.school.exception.PrerequisiteNotMetException;
 import com.example.school.exception.ResourceAlreadyExistsException;
 import com.example.school.exception.ResourceNotFoundException;
@@ -12,18 +18,27 @@ import com.example.school.exception.CapacityExceededException;
 import com.example.school.repository.CourseRepository;
 import com.example.school.repository.EnrollmentRepository;
 import com.example.school.repository.StudentRepository;
+import com.example.school.service.AcademicTermService;
 import com.example.school.service.EnrollmentService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,7 +49,12 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     private final EnrollmentRepository enrollmentRepository;
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
+    private final AcademicTermService academicTermService;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.batch.chunk-size:1000}")
+    private int batchChunkSize = 1000;
 
     @Override
     public List<Enrollment> findAllEnrollments() {
@@ -58,8 +78,8 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     }
 
     @Override
-    public List<Enrollment> findEnrollmentsByCourseId(Long courseId) {
-        return enrollmentRepository.findByCourseId(courseId);
+    public Page<Enrollment> findEnrollmentsByCourseId(Long courseId, Pageable pageable) {
+        return enrollmentRepository.findByCourseId(courseId, pageable);
     }
 
     @Override
@@ -68,19 +88,22 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     }
 
     @Override
-    public List<Enrollment> findActiveEnrollmentsByCourseId(Long courseId) {
-        return enrollmentRepository.findActiveEnrollmentsByCourseId(courseId);
+    public Page<Enrollment> findActiveEnrollmentsByCourseId(Long courseId, Pageable pageable) {
+        return enrollmentRepository.findActiveEnrollmentsByCourseId(
+                academicTermService.getCurrentTerm().getId(), courseId, pageable);
     }
 
     @Override
     @Transactional
     public Enrollment enrollStudent(EnrollmentDTO enrollmentDTO) {
-        // Check if the student exists
-        Student student = studentRepository.findById(enrollmentDTO.getStudentId())
+        // Check if the student exists and is not being deleted, holding it until the enrollment commits
+        Student student = studentRepository.findByIdForEnrollment(enrollmentDTO.getStudentId())
+                .filter(found -> !found.isDeleted())
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + enrollmentDTO.getStudentId()));
         
-        // Check if the course exists
-        Course course = courseRepository.findById(enrollmentDTO.getCourseId())
+        // Check if the course exists, locking its seat counter until the enrollment commits
+        Course course = courseRepository.findByIdForSeatUpdate(enrollmentDTO.getCourseId())
+                .filter(found -> !found.isDeleted())
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + enrollmentDTO.getCourseId()));
         
         // Check if already enrolled and active
@@ -98,10 +121,14 @@ public class EnrollmentServiceImpl implements EnrollmentService {
             throw new PrerequisiteNotMetException("Student has not completed all prerequisites for this course");
         }
         
+        // New enrollments belong to the current term
+        AcademicTerm term = academicTermService.getCurrentTerm();
+        
         // Create and save the enrollment
         Enrollment enrollment = new Enrollment();
         enrollment.setStudent(student);
         enrollment.setCourse(course);
+        enrollment.setTerm(term);
         enrollment.setEnrollmentDate(LocalDate.now());
         enrollment.setStatus(Enrollment.EnrollmentStatus.ACTIVE);
         
@@ -109,7 +136,9 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         course.incrementEnrolledStudents();
         courseRepository.save(course);
         
-        return enrollmentRepository.save(enrollment);
+        Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
+        eventPublisher.publishEvent(new EnrollmentChangedEvent(student.getId(), course.getId(), 1));
+        return savedEnrollment;
     }
 
     @Override
@@ -144,44 +173,128 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     @Transactional
     public Enrollment updateEnrollmentStatus(Long enrollmentId, Enrollment.EnrollmentStatus status) {
         Enrollment enrollment = findEnrollmentById(enrollmentId);
+        int seatDelta = 0;
         
-        // If changing from ACTIVE to DROPPED, decrement the enrolled students count
-        if (enrollment.getStatus() == Enrollment.EnrollmentStatus.ACTIVE && 
-            status == Enrollment.EnrollmentStatus.DROPPED) {
-            Course course = enrollment.getCourse();
+        // Only ACTIVE enrollments hold a seat, so any change out of ACTIVE gives it back
+        if (enrollment.isActive() && status != Enrollment.EnrollmentStatus.ACTIVE) {
+            Course course = lockCourseSeats(enrollment.getCourse().getId());
             course.decrementEnrolledStudents();
             courseRepository.save(course);
+            seatDelta = -1;
+        } else if (!enrollment.isActive() && status == Enrollment.EnrollmentStatus.ACTIVE) {
+            if (!enrollment.getTerm().isOpen()) {
+                throw new InvalidTermStateException("Enrollments of a closed term cannot be reactivated");
+            }
+            Course course = lockCourseSeats(enrollment.getCourse().getId());
+            if (!course.hasAvailableCapacity()) {
+                throw new CapacityExceededException("Course " + course.getCode() + " is full. No available seats.");
+            }
+            course.incrementEnrolledStudents();
+            courseRepository.save(course);
+            seatDelta = 1;
         }
         
         enrollment.setStatus(status);
-        return enrollmentRepository.save(enrollment);
+        Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
+        eventPublisher.publishEvent(new EnrollmentChangedEvent(
+                enrollment.getStudent().getId(), enrollment.getCourse().getId(), seatDelta));
+        return savedEnrollment;
     }
 
     @Override
     @Transactional
     public void dropEnrollment(Long enrollmentId) {
         Enrollment enrollment = findEnrollmentById(enrollmentId);
+        int seatDelta = 0;
         
         // If the enrollment was active, decrement the enrolled students count
         if (enrollment.getStatus() == Enrollment.EnrollmentStatus.ACTIVE) {
-            Course course = enrollment.getCourse();
+            Course course = lockCourseSeats(enrollment.getCourse().getId());
             course.decrementEnrolledStudents();
             courseRepository.save(course);
+            seatDelta = -1;
         }
         
         enrollmentRepository.delete(enrollment);
+        eventPublisher.publishEvent(new EnrollmentChangedEvent(
+                enrollment.getStudent().getId(), enrollment.getCourse().getId(), seatDelta));
     }
 
     @Override
     @Transactional
     public void dropStudentFromCourse(Long studentId, Long courseId) {
-        Enrollment enrollment = enrollmentRepository.findByStudentIdAndCourseId(studentId, courseId)
+        Enrollment enrollment = enrollmentRepository.findByStudentIdAndCourseId(
+                        academicTermService.getCurrentTerm().getId(), studentId, courseId)
                 .orElseThrow(() -> new ResourceNotFoundException(
-                        "Enrollment not found for student " + studentId + " and course " + courseId));
+                        "Enrollment not found for student " + studentId + " and course " + courseId +
+                        " in the current term"));
         
         dropEnrollment(enrollment.getId());
     }
 
+    @Override
+    @Transactional
+    public BulkStatusResultDTO withdrawStudents(List<Long> studentIds, String reason) {
+        List<Long> ids = distinct(studentIds);
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> lockedCourses = new HashSet<>();
+        Map<Long, Integer> seatsByCourse = new HashMap<>();
+        int enrollmentsUpdated = 0;
+        
+        for (List<Long> chunk : chunks(ids)) {
+            // Enrolling locks the course first, so an enrollment can only appear in a course not yet locked
+            List<Long> courseIds = enrollmentRepository.findActiveCourseIdsOfStudents(chunk);
+            List<EnrollmentRepository.ActiveEnrollment> enrollments;
+            while (true) {
+                lockCourses(courseIds, lockedCourses);
+                enrollments = enrollmentRepository.lockActiveEnrollmentsOfStudents(chunk);
+                courseIds = enrollments.stream()
+                        .map(EnrollmentRepository.ActiveEnrollment::getCourseId)
+                        .filter(courseId -> !lockedCourses.contains(courseId))
+                        .distinct()
+                        .toList();
+                if (courseIds.isEmpty()) {
+                    break;
+                }
+            }
+            enrollmentsUpdated += updateStatus(enrollments, seatsByCourse, Enrollment.EnrollmentStatus.WITHDRAWN,
+                    reason, now.toLocalDate(), now);
+        }
+        
+        int coursesUpdated = releaseSeats(seatsByCourse, now);
+        return finishBulkChange(ids, seatsByCourse, enrollmentsUpdated, coursesUpdated);
+    }
+
+    @Override
+    @Transactional
+    public BulkStatusResultDTO updateActiveEnrollmentStatus(List<Long> courseIds, Enrollment.EnrollmentStatus status,
+                                                            String reason) {
+        if (status == Enrollment.EnrollmentStatus.ACTIVE) {
+            throw new IllegalArgumentException("Active enrollments cannot be moved to ACTIVE");
+        }
+        boolean withdrawn = status == Enrollment.EnrollmentStatus.WITHDRAWN;
+        
+        List<Long> ids = distinct(courseIds);
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> lockedCourses = new HashSet<>();
+        Map<Long, Integer> seatsByCourse = new HashMap<>();
+        Set<Long> studentIds = new LinkedHashSet<>();
+        int enrollmentsUpdated = 0;
+        
+        for (List<Long> chunk : chunks(ids)) {
+            lockCourses(chunk, lockedCourses);
+            List<EnrollmentRepository.ActiveEnrollment> enrollments =
+                    enrollmentRepository.lockActiveEnrollmentsOfCourses(chunk);
+            enrollments.forEach(enrollment -> studentIds.add(enrollment.getStudentId()));
+            // Like the single enrollment path: every enrollment leaving ACTIVE gives up its seat
+            enrollmentsUpdated += updateStatus(enrollments, seatsByCourse, status,
+                    withdrawn ? reason : null, withdrawn ? now.toLocalDate() : null, now);
+        }
+        
+        int coursesUpdated = releaseSeats(seatsByCourse, now);
+        return finishBulkChange(studentIds, seatsByCourse, enrollmentsUpdated, coursesUpdated);
+    }
+
     @Override
     public boolean isStudentEnrolled(Long studentId, Long courseId) {
         return enrollmentRepository.existsActiveEnrollment(studentId, courseId);
@@ -211,15 +324,122 @@ public class EnrollmentServiceImpl implements EnrollmentService {
 
     @Override
     public boolean isCourseFull(Long courseId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
-        return !course.hasAvailableCapacity();
+        return getAvailableSeats(courseId) <= 0;
     }
 
     @Override
     public int getAvailableSeats(Long courseId) {
-        Course course = courseRepository.findById(courseId)
+        return courseRepository.findAvailableSeats(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
+    }
+
+    @Override
+    public Page<EnrollmentResponseDTO> findAllEnrollmentDTOs(Pageable pageable) {
+        return enrollmentRepository.findAllEnrollmentDTOs(pageable);
+    }
+
+    @Override
+    public EnrollmentResponseDTO findEnrollmentDTOById(Long id) {
+        return enrollmentRepository.findEnrollmentDTOById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found with id: " + id));
+    }
+
+    @Override
+    public List<EnrollmentResponseDTO> findEnrollmentDTOsByStudentId(Long studentId) {
+        return enrollmentRepository.findEnrollmentDTOsByStudentId(studentId);
+    }
+
+    @Override
+    public Page<EnrollmentResponseDTO> findEnrollmentDTOsByCourseId(Long courseId, Pageable pageable) {
+        return enrollmentRepository.findEnrollmentDTOsByCourseId(courseId, pageable);
+    }
+
+    @Override
+    public Page<EnrollmentResponseDTO> findEnrollmentDTOsByTermIdAndCourseId(Long termId, Long courseId,
+                                                                          Pageable pageable) {
+        return enrollmentRepository.findEnrollmentDTOsByTermIdAndCourseId(termId, courseId, pageable);
+    }
+
+    @Override
+    public List<EnrollmentResponseDTO> findActiveEnrollmentDTOsByStudentId(Long studentId) {
+        return enrollmentRepository.findActiveEnrollmentDTOsByStudentId(studentId);
+    }
+
+    // The cached course may hold an older seat count, so reload it from the database under a row lock
+    private Course lockCourseSeats(Long courseId) {
+        return courseRepository.findByIdForSeatUpdate(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
-        return course.getCapacity() - course.getEnrolledStudents();
+    }
+
+    // One UPDATE per distinct seat count, usually a single one (every course loses one seat)
+    private int releaseSeats(Map<Long, Integer> seatsByCourse, LocalDateTime now) {
+        Map<Integer, List<Long>> coursesBySeats = new TreeMap<>();
+        seatsByCourse.forEach((courseId, seats) ->
+                coursesBySeats.computeIfAbsent(seats, count -> new ArrayList<>()).add(courseId));
+        
+        int coursesUpdated = 0;
+        for (Map.Entry<Integer, List<Long>> entry : coursesBySeats.entrySet()) {
+            for (List<Long> chunk : chunks(entry.getValue())) {
+                coursesUpdated += courseRepository.releaseSeats(chunk, entry.getKey(), now);
+            }
+        }
+        return coursesUpdated;
+    }
+
+    private BulkStatusResultDTO finishBulkChange(Iterable<Long> studentIds, Map<Long, Integer> seatsByCourse,
+                                                 int enrollmentsUpdated, int coursesUpdated) {
+        int seatsReleased = 0;
+        Map<Long, Integer> seatDeltas = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : seatsByCourse.entrySet()) {
+            seatsReleased += entry.getValue();
+            seatDeltas.put(entry.getKey(), -entry.getValue());
+        }
+        if (enrollmentsUpdated > 0) {
+            List<Long> students = new ArrayList<>();
+            studentIds.forEach(students::add);
+            eventPublisher.publishEvent(new EnrollmentsBulkChangedEvent(students, seatDeltas));
+        }
+        return new BulkStatusResultDTO(enrollmentsUpdated, coursesUpdated, seatsReleased);
+    }
+
+    // Courses are locked in id order within a call; a course is locked once however many chunks touch it
+    private void lockCourses(List<Long> courseIds, Set<Long> lockedCourses) {
+        List<Long> toLock = courseIds.stream()
+                .filter(courseId -> !lockedCourses.contains(courseId))
+                .sorted()
+                .toList();
+        for (List<Long> chunk : chunks(toLock)) {
+            courseRepository.lockCourses(chunk);
+            // Also the ids without a course row: enrollments have no foreign key, and retrying them never ends
+            lockedCourses.addAll(chunk);
+        }
+    }
+
+    // The locked rows stay ACTIVE until this UPDATE, so their count is the number of seats they free
+    private int updateStatus(List<EnrollmentRepository.ActiveEnrollment> enrollments,
+                             Map<Long, Integer> seatsByCourse, Enrollment.EnrollmentStatus status,
+                             String reason, LocalDate withdrawalDate, LocalDateTime now) {
+        List<Long> enrollmentIds = new ArrayList<>(enrollments.size());
+        for (EnrollmentRepository.ActiveEnrollment enrollment : enrollments) {
+            enrollmentIds.add(enrollment.getId());
+            seatsByCourse.merge(enrollment.getCourseId(), 1, Integer::sum);
+        }
+        int updated = 0;
+        for (List<Long> chunk : chunks(enrollmentIds)) {
+            updated += enrollmentRepository.updateStatusOfEnrollments(chunk, status, reason, withdrawalDate, now);
+        }
+        return updated;
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchChunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + batchChunkSize, ids.size())));
+        }
+        return chunks;
+    }
+
+    private static List<Long> distinct(List<Long> ids) {
+        return new ArrayList<>(new LinkedHashSet<>(ids));
     }
 }
@@ -1,98 +1,221 @@
 package com.example.school.service.impl;
 
 import com.example.school.entity.DataImport;
+import com.example.school.entity.DataImportError;
+import com.example.school.event.ImportRequestedEvent;
 import com.example.school.exception.ImportInProgressException;
 import com.example.school.exception.ResourceNotFoundException;
+import com.example.school.purge.DataPurger;
+import com.example.school.repository.DataImportErrorRepository;
 import com.example.school.repository.DataImportRepository;
 import com.example.school.service.FileImportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.sql.PreparedStatement;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class FileImportServiceImpl implements FileImportService {
 
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final long TRANSFER_SIZE = 8L * 1024 * 1024;
+    private static final int ERROR_REPORT_FETCH_SIZE = 1000;
+
     private final DataImportRepository dataImportRepository;
+    private final DataImportErrorRepository dataImportErrorRepository;
+    private final DataPurger dataPurger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
     
     @Value("${app.upload.dir:${user.home}/.school-imports}")
     private String uploadDir;
+    
+    @Value("${app.upload.max-stored-size:20GB}")
+    private DataSize maxStoredSize;
+    
+    @Value("${app.import.stale-after:2m}")
+    private Duration staleAfter;
+    
+    @Value("${app.import.retention-days:30}")
+    private int retentionDays;
 
+    // Not transactional: storing a large upload must not hold a database connection
     @Override
-    @Transactional
-    public Long processFileUpload(MultipartFile file, DataImport.ImportType importType) {
+    public Long processFileUpload(MultipartFile file, DataImport.ImportType importType, int priority,
+                                  boolean dryRun) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File cannot be empty");
         }
         
-        if (dataImportRepository.existsProcessingImportByType(importType)) {
-            throw new ImportInProgressException("An import is already in progress");
+        // The multipart temp file is gone once the request ends, so store it before handing off
+        Path filePath = storedFilePath(file.getOriginalFilename());
+        try {
+            if (isGzip(file)) {
+                try (InputStream in = new GZIPInputStream(file.getInputStream(), COPY_BUFFER_SIZE)) {
+                    copy(in, filePath);
+                }
+            } else {
+                // Moves the container's temp file into place when both are on the same file system
+                file.transferTo(filePath.toFile());
+            }
+        } catch (IOException e) {
+            deleteQuietly(filePath);
+            throw new UncheckedIOException("Failed to store uploaded file", e);
         }
-        
-        DataImport dataImport = new DataImport();
-        dataImport.setImportType(importType);
-        dataImport.setStatus(DataImport.ImportStatus.PENDING);
-        dataImport.setFileName(file.getOriginalFilename());
-        dataImport = dataImportRepository.save(dataImport);
-        
-        processFileAsync(file, dataImport);
-        return dataImport.getId();
+        return register(filePath, file.getOriginalFilename(), importType, priority, dryRun);
+    }
+
+    @Override
+    public Long processStreamUpload(InputStream body, String fileName, DataImport.ImportType importType,
+                                    int priority, boolean dryRun) {
+        Path filePath = storedFilePath(fileName);
+        try {
+            BufferedInputStream in = new BufferedInputStream(body, COPY_BUFFER_SIZE);
+            in.mark(2);
+            boolean gzip = in.read() == GZIP_MAGIC_1 && in.read() == GZIP_MAGIC_2;
+            in.reset();
+            long size = copy(gzip ? new GZIPInputStream(in, COPY_BUFFER_SIZE) : in, filePath);
+            if (size == 0) {
+                throw new IllegalArgumentException("File cannot be empty");
+            }
+        } catch (IOException e) {
+            deleteQuietly(filePath);
+            throw new UncheckedIOException("Failed to store uploaded file", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(filePath);
+            throw e;
+        }
+        return register(filePath, fileName, importType, priority, dryRun);
     }
 
-    @Async
-    protected void processFileAsync(MultipartFile file, DataImport dataImport) {
+    // Imports of the same type no longer exclude each other here; ImportScheduler queues them
+    private Long register(Path filePath, String fileName, DataImport.ImportType importType, int priority,
+                          boolean dryRun) {
         try {
-            dataImport.startProcessing();
+            DataImport dataImport = new DataImport();
+            dataImport.setImportType(importType);
+            dataImport.setStatus(DataImport.ImportStatus.PENDING);
+            dataImport.setFileName(fileName);
+            dataImport.setFilePath(filePath.toString());
+            dataImport.setFileSize(Files.size(filePath));
+            dataImport.setPriority(priority);
+            dataImport.setDryRun(dryRun);
+            dataImport.setQueuedAt(LocalDateTime.now());
             dataImport = dataImportRepository.save(dataImport);
             
+            // Wakes up ImportScheduler, which runs it once a slot for its type is free
+            eventPublisher.publishEvent(new ImportRequestedEvent(dataImport.getId()));
+            return dataImport.getId();
+        } catch (IOException e) {
+            deleteQuietly(filePath);
+            throw new UncheckedIOException("Failed to store uploaded file", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(filePath);
+            throw e;
+        }
+    }
+
+    // Imports seek by byte offset, so compressed uploads are always stored inflated
+    private Path storedFilePath(String originalName) {
+        try {
             Path uploadPath = Paths.get(uploadDir);
             if (!Files.exists(uploadPath)) {
                 Files.createDirectories(uploadPath);
             }
             
-            String fileExt = "";
-            String originalName = file.getOriginalFilename();
-            if (originalName != null && originalName.contains(".")) {
-                fileExt = originalName.substring(originalName.lastIndexOf("."));
+            String name = originalName == null ? "" : originalName;
+            if (name.toLowerCase().endsWith(".gz")) {
+                name = name.substring(0, name.length() - 3);
             }
+            String fileExt = name.contains(".") ? name.substring(name.lastIndexOf(".")) : "";
             
-            String newFilename = "import_" + dataImport.getId() + "_" + 
-                               UUID.randomUUID() + fileExt;
-            
-            Path filePath = uploadPath.resolve(newFilename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-            dataImport.setFilePath(filePath.toString());
-            
-            // Process file content here
-            processFileContent(filePath, dataImport);
-            
-            dataImport.complete();
-        } catch (Exception e) {
-            log.error("Import failed: " + e.getMessage(), e);
-            dataImport.fail(e.getMessage());
-        } finally {
-            dataImportRepository.save(dataImport);
+            return uploadPath.resolve("import_" + UUID.randomUUID() + fileExt);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create upload directory", e);
         }
     }
-    
-    private void processFileContent(Path filePath, DataImport dataImport) throws IOException {
-        // Implement file processing logic here
-        // Example: Parse CSV/Excel and import data
-        dataImport.setTotalRecords(0);
-        dataImport.setSuccessfulRecords(0);
+
+    private static boolean isGzip(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return in.read() == GZIP_MAGIC_1 && in.read() == GZIP_MAGIC_2;
+        }
+    }
+
+    // Lets the channel pull straight from the stream instead of going through an extra buffer
+    private long copy(InputStream in, Path target) throws IOException {
+        long limit = maxStoredSize.toBytes();
+        try (ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = out.transferFrom(source, position, TRANSFER_SIZE)) > 0) {
+                position += transferred;
+                if (position > limit) {
+                    throw new IllegalArgumentException("File is larger than " + maxStoredSize.toMegabytes() + "MB");
+                }
+            }
+            return position;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public DataImport resumeImport(Long importId) {
+        DataImport dataImport = getImportStatus(importId);
+        if (dataImport.getStatus() == DataImport.ImportStatus.COMPLETED) {
+            throw new IllegalStateException("Import " + importId + " has already completed");
+        }
+        if (dataImport.getFilePath() == null || !Files.isReadable(Paths.get(dataImport.getFilePath()))) {
+            throw new IllegalStateException("The file of import " + importId + " is no longer available");
+        }
+        // Only a failed import, or one whose heartbeat has gone stale, can be requeued
+        LocalDateTime now = LocalDateTime.now();
+        if (dataImportRepository.requeue(importId, now.minus(staleAfter), now) == 0) {
+            throw new ImportInProgressException("Import " + importId + " is still queued or running");
+        }
+        eventPublisher.publishEvent(new ImportRequestedEvent(importId));
+        return dataImport;
     }
 
     @Override
@@ -118,14 +241,62 @@ public class FileImportServiceImpl implements FileImportService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Page<DataImportError> getImportErrors(Long importId, Pageable pageable) {
+        if (!dataImportRepository.existsById(importId)) {
+            throw new ResourceNotFoundException("Import not found: " + importId);
+        }
+        return dataImportErrorRepository.findByImportIdOrderByRowNumberAsc(importId, pageable);
+    }
+
+    @Override
+    public void writeErrorReport(Long importId, OutputStream out) throws IOException {
+        if (!dataImportRepository.existsById(importId)) {
+            throw new ResourceNotFoundException("Import not found: " + importId);
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write("row,field,reason\n");
+        // Rows are written as they are fetched instead of being loaded into a page first
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT row_no, field, message FROM data_import_errors WHERE import_id = ? ORDER BY row_no");
+            statement.setFetchSize(ERROR_REPORT_FETCH_SIZE);
+            statement.setLong(1, importId);
+            return statement;
+        }, rs -> {
+            try {
+                writer.write(rs.getLong("row_no") + "," + csvValue(rs.getString("field")) + ","
+                        + csvValue(rs.getString("message")) + "\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    // Not transactional: the purger commits chunk by chunk
     @Scheduled(cron = "0 0 2 * * ?") // Run daily at 2 AM
-    @Transactional
+    public void cleanupOldImports() {
+        int deleted = cleanupOldImports(retentionDays);
+        log.info("Deleted {} completed imports older than {} days", deleted, retentionDays);
+    }
+
+    @Override
     public int cleanupOldImports(int daysOlderThan) {
         if (daysOlderThan <= 0) {
             daysOlderThan = 30; // Default to 30 days if invalid value is provided
         }
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysOlderThan);
-        return dataImportRepository.deleteByStatusAndCreatedAtBefore(
-            DataImport.ImportStatus.COMPLETED, cutoffDate);
+        return dataPurger.purgeCompletedImports(cutoffDate);
     }
 }
@@ -1,17 +1,23 @@
 package com.example.school.service.impl;
 
 import com.example.school.dto.GradeRequestDTO;
+import com.example.school.dto.GradeResponseDTO;
+import com.example.school.entity.Course;
 import com.example.school.entity.Enrollment;
 import com.example.school.entity.Grade;
+import com.example.school.event.EnrollmentChangedEvent;
+import com.example.school.event.GradeChangedEvent;
 import com.example.school.exception.InvalidGradeException;
 import com.example.school.exception.ResourceAlreadyExistsException;
 import com.example.school.exception.ResourceNotFoundException;
 import com.example.school.exception.EnrollmentNotActiveException;
+import com.example.school.repository.CourseRepository;
 import com.example.school.repository.EnrollmentRepository;
 import com.example.school.repository.GradeRepository;
 import com.example.school.service.GradeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -29,11 +35,13 @@ public class GradeServiceImpl implements GradeService {
 
     private final GradeRepository gradeRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final CourseRepository courseRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Grade findGradeById(Long id) {
         log.debug("Finding grade by id: {}", id);
-        return gradeRepository.findById(id)
+        return gradeRepository.findByIdWithEnrollmentDetails(id)
                 .orElseThrow(() -> {
                     log.warn("Grade not found with id: {}", id);
                     return new ResourceNotFoundException("Grade not found with id: " + id);
@@ -59,7 +67,7 @@ public class GradeServiceImpl implements GradeService {
     @Override
     public Page<Grade> findAllGrades(Pageable pageable) {
         log.debug("Finding all grades with pagination: {}", pageable);
-        Page<Grade> page = gradeRepository.findAll(pageable);
+        Page<Grade> page = gradeRepository.findAllWithEnrollmentDetails(pageable);
         log.debug("Found {} grades (page {} of {})", 
                  page.getNumberOfElements(), 
                  page.getNumber() + 1, 
@@ -72,8 +80,10 @@ public class GradeServiceImpl implements GradeService {
     public Grade recordGrade(GradeRequestDTO gradeRequestDTO) {
         log.info("Recording new grade for enrollment id: {}", gradeRequestDTO.getEnrollmentId());
         
-        // Find the enrollment
-        Enrollment enrollment = enrollmentRepository.findById(gradeRequestDTO.getEnrollmentId())
+        // Lock the enrollment first: purging its student or course waits for the grade, or has already
+        // removed it. Then load it together with the student and course the response needs
+        Enrollment enrollment = enrollmentRepository.lockById(gradeRequestDTO.getEnrollmentId())
+                .flatMap(enrollmentRepository::findByIdWithCourseAndStudent)
                 .orElseThrow(() -> {
                     log.warn("Enrollment not found with id: {}", gradeRequestDTO.getEnrollmentId());
                     return new ResourceNotFoundException("Enrollment not found with id: " + gradeRequestDTO.getEnrollmentId());
@@ -104,11 +114,13 @@ public class GradeServiceImpl implements GradeService {
         grade.setGradeValue(gradeRequestDTO.getGradeValue());
         grade.setComments(gradeRequestDTO.getComments());
         grade.setEnrollment(enrollment);
+        grade.setTerm(enrollment.getTerm());
 
         // If markAsCompleted is true, mark the course as completed
         if (gradeRequestDTO.isMarkAsCompleted()) {
             log.debug("Marking course as completed for enrollment id: {}", enrollment.getId());
             grade.markAsCompleted();
+            releaseSeat(enrollment);
         }
 
         try {
@@ -121,6 +133,12 @@ public class GradeServiceImpl implements GradeService {
             
             log.info("Successfully recorded grade with id: {} for enrollment id: {}", 
                     savedGrade.getId(), enrollment.getId());
+            eventPublisher.publishEvent(new GradeChangedEvent(
+                    enrollment.getStudent().getId(), enrollment.getCourse().getId()));
+            if (savedGrade.isCourseCompleted()) {
+                eventPublisher.publishEvent(new EnrollmentChangedEvent(
+                        enrollment.getStudent().getId(), enrollment.getCourse().getId(), -1));
+            }
                     
             return savedGrade;
         } catch (Exception e) {
@@ -164,9 +182,12 @@ public class GradeServiceImpl implements GradeService {
         }
 
         // Update completion status if needed
+        int seatDelta = 0;
         if (gradeRequestDTO.isMarkAsCompleted() && !existingGrade.isCourseCompleted()) {
             log.debug("Marking course as completed for grade id: {}", gradeId);
             existingGrade.markAsCompleted();
+            releaseSeat(enrollment);
+            seatDelta = -1;
         } else if (!gradeRequestDTO.isMarkAsCompleted() && existingGrade.isCourseCompleted()) {
             log.debug("Unmarking course as completed for grade id: {}", gradeId);
             existingGrade.unmarkAsCompleted();
@@ -176,6 +197,12 @@ public class GradeServiceImpl implements GradeService {
             // Save the updated grade
             Grade updatedGrade = gradeRepository.save(existingGrade);
             log.info("Successfully updated grade with id: {}", gradeId);
+            eventPublisher.publishEvent(new GradeChangedEvent(
+                    enrollment.getStudent().getId(), enrollment.getCourse().getId()));
+            if (seatDelta != 0) {
+                eventPublisher.publishEvent(new EnrollmentChangedEvent(
+                        enrollment.getStudent().getId(), enrollment.getCourse().getId(), seatDelta));
+            }
             return updatedGrade;
         } catch (Exception e) {
             log.error("Error updating grade with id: {}", gradeId, e);
@@ -203,6 +230,10 @@ public class GradeServiceImpl implements GradeService {
             // Delete the grade
             gradeRepository.delete(grade);
             log.info("Successfully deleted grade with id: {}", gradeId);
+            if (enrollment != null) {
+                eventPublisher.publishEvent(new GradeChangedEvent(
+                        enrollment.getStudent().getId(), enrollment.getCourse().getId()));
+            }
             
         } catch (Exception e) {
             log.error("Error deleting grade with id: {}", gradeId, e);
@@ -214,9 +245,10 @@ public class GradeServiceImpl implements GradeService {
     public Double calculateStudentGPA(Long studentId) {
         log.debug("Calculating GPA for student id: {}", studentId);
         
-        List<Grade> grades = gradeRepository.findByStudentId(studentId);
+        // Only the completed grade values are needed, so skip loading the grade entities
+        List<String> gradeValues = gradeRepository.findCompletedGradeValuesByStudentId(studentId);
         
-        if (grades.isEmpty()) {
+        if (gradeValues.isEmpty()) {
             log.debug("No grades found for student id: {}", studentId);
             return 0.0;
         }
@@ -224,10 +256,10 @@ public class GradeServiceImpl implements GradeService {
         double totalPoints = 0.0;
         int totalGradedCourses = 0;
         
-        for (Grade grade : grades) {
-            if (grade.isCourseCompleted() && grade.getGradeValue() != null) {
-                double points = convertGradeToPoints(grade.getGradeValue());
-                log.trace("Grade: {}, Points: {}", grade.getGradeValue(), points);
+        for (String gradeValue : gradeValues) {
+            if (gradeValue != null) {
+                double points = convertGradeToPoints(gradeValue);
+                log.trace("Grade: {}, Points: {}", gradeValue, points);
                 totalPoints += points;
                 totalGradedCourses++;
             }
@@ -298,4 +330,41 @@ public class GradeServiceImpl implements GradeService {
         log.trace("Converted grade '{}' to {} points", gradeValue, points);
         return points;
     }
+
+    @Override
+    public GradeResponseDTO findGradeDTOById(Long id) {
+        log.debug("Finding grade projection by id: {}", id);
+        return gradeRepository.findGradeDTOById(id)
+                .orElseThrow(() -> {
+                    log.warn("Grade not found with id: {}", id);
+                    return new ResourceNotFoundException("Grade not found with id: " + id);
+                });
+    }
+
+    @Override
+    public List<GradeResponseDTO> findGradeDTOsByStudentId(Long studentId) {
+        log.debug("Finding grade projections for student id: {}", studentId);
+        return gradeRepository.findGradeDTOsByStudentId(studentId);
+    }
+
+    @Override
+    public List<GradeResponseDTO> findGradeDTOsByCourseId(Long courseId) {
+        log.debug("Finding grade projections for course id: {}", courseId);
+        return gradeRepository.findGradeDTOsByCourseId(courseId);
+    }
+
+    @Override
+    public Page<GradeResponseDTO> findAllGradeDTOs(Pageable pageable) {
+        log.debug("Finding all grade projections with pagination: {}", pageable);
+        return gradeRepository.findAllGradeDTOs(pageable);
+    }
+
+    // Only ACTIVE enrollments hold a seat; completing one gives it back, under the course row lock
+    private void releaseSeat(Enrollment enrollment) {
+        Course course = courseRepository.findByIdForSeatUpdate(enrollment.getCourse().getId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Course not found with id: " + enrollment.getCourse().getId()));
+        course.decrementEnrolledStudents();
+        courseRepository.save(course);
+    }
 }
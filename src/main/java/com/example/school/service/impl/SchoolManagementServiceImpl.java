@@ -1,11 +1,15 @@
 package com.example.school.service.impl;
 
+import com.example.school.dto.BulkStatusResultDTO;
 import com.example.school.dto.EnrollmentRequestDTO;
 import com.example.school.dto.GradeRequestDTO;
+import com.example.school.entity.AcademicTerm;
 import com.example.school.entity.Course;
 import com.example.school.entity.Enrollment;
 import com.example.school.entity.Grade;
 import com.example.school.entity.Student;
+import com.example.school.event.CourseChangedEvent;
+import com.example.school.event.EnrollmentChangedEvent;
 import com.example.school.exception.CapacityExceededException;
 import com.example.school.exception.EnrollmentNotActiveException;
 import com.example.school.exception.PrerequisiteNotMetException;
@@ -14,11 +18,13 @@ import com.example.school.exception.ResourceNotFoundException;
 import com.example.school.repository.CourseRepository;
 import com.example.school.repository.EnrollmentRepository;
 import com.example.school.repository.StudentRepository;
+import com.example.school.service.AcademicTermService;
 import com.example.school.service.EnrollmentService;
 import com.example.school.service.GradeService;
 import com.example.school.service.SchoolManagementService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,22 +42,27 @@ public class SchoolManagementServiceImpl implements SchoolManagementService {
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final AcademicTermService academicTermService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public List<Enrollment> enrollStudentInCourses(EnrollmentRequestDTO enrollmentRequest) {
         List<Enrollment> enrollments = new ArrayList<>();
         List<String> errors = new ArrayList<>();
+        AcademicTerm term = academicTermService.getCurrentTerm();
 
         // Process each course enrollment
         for (Long courseId : enrollmentRequest.getCourseIds()) {
             try {
-                // Check if student exists
-                Student student = studentRepository.findById(enrollmentRequest.getStudentId())
+                // Check if student exists and is not being deleted, holding it until the enrollment commits
+                Student student = studentRepository.findByIdForEnrollment(enrollmentRequest.getStudentId())
+                        .filter(found -> !found.isDeleted())
                         .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + enrollmentRequest.getStudentId()));
 
-                // Check if course exists
-                Course course = courseRepository.findById(courseId)
+                // Check if course exists, locking its seat counter until the enrollment commits
+                Course course = courseRepository.findByIdForSeatUpdate(courseId)
+                        .filter(found -> !found.isDeleted())
                         .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
 
                 // Check if already enrolled
@@ -69,10 +80,11 @@ public class SchoolManagementServiceImpl implements SchoolManagementService {
                     throw new PrerequisiteNotMetException("Student has not completed all prerequisites for course: " + course.getCode());
                 }
 
-                // Create and save the enrollment
+                // Create and save the enrollment in the current term
                 Enrollment enrollment = new Enrollment();
                 enrollment.setStudent(student);
                 enrollment.setCourse(course);
+                enrollment.setTerm(term);
                 enrollment.setEnrollmentDate(LocalDate.now());
                 enrollment.setStatus(Enrollment.EnrollmentStatus.ACTIVE);
                 
@@ -83,6 +95,7 @@ public class SchoolManagementServiceImpl implements SchoolManagementService {
                 // Save enrollment
                 Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
                 enrollments.add(savedEnrollment);
+                eventPublisher.publishEvent(new EnrollmentChangedEvent(student.getId(), courseId, 1));
                 
             } catch (Exception e) {
                 log.error("Failed to enroll student in course {}: {}", courseId, e.getMessage());
@@ -126,6 +139,8 @@ public class SchoolManagementServiceImpl implements SchoolManagementService {
             if (enrollment != null && enrollment.isActive()) {
                 enrollment.setStatus(Enrollment.EnrollmentStatus.COMPLETED);
                 enrollmentRepository.save(enrollment);
+                eventPublisher.publishEvent(new EnrollmentChangedEvent(
+                        enrollment.getStudent().getId(), enrollment.getCourse().getId(), 0));
             }
         }
         
@@ -142,27 +157,12 @@ public class SchoolManagementServiceImpl implements SchoolManagementService {
     @Override
     @Transactional
     public void processStudentWithdrawal(Long studentId, String reason) {
-        // Find all active enrollments for the student
-        List<Enrollment> activeEnrollments = enrollmentService.findActiveEnrollmentsByStudentId(studentId);
-        
-        // Update each enrollment to WITHDRAWN status
-        for (Enrollment enrollment : activeEnrollments) {
-            enrollment.setStatus(Enrollment.EnrollmentStatus.WITHDRAWN);
-            enrollment.setWithdrawalReason(reason);
-            enrollment.setWithdrawalDate(LocalDate.now());
-            
-            // Decrement the enrolled students count for the course
-            Course course = enrollment.getCourse();
-            if (course != null) {
-                course.decrementEnrolledStudents();
-                courseRepository.save(course);
-            }
-            
-            enrollmentRepository.save(enrollment);
-        }
+        // A handful of set-based UPDATEs instead of loading and saving every enrollment and course
+        BulkStatusResultDTO result = enrollmentService.withdrawStudents(List.of(studentId), reason);
         
         // Additional withdrawal processing could be added here
-        log.info("Processed withdrawal for student {}. Reason: {}", studentId, reason);
+        log.info("Processed withdrawal for student {} ({} enrollments). Reason: {}",
+                studentId, result.getEnrollmentsUpdated(), reason);
     }
 
     @Override
@@ -172,7 +172,7 @@ public class SchoolManagementServiceImpl implements SchoolManagementService {
             throw new IllegalArgumentException("Capacity must be at least 1");
         }
         
-        Course course = courseRepository.findById(courseId)
+        Course course = courseRepository.findByIdForSeatUpdate(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
         
         // If reducing capacity, ensure it doesn't go below current enrollment
@@ -183,6 +183,8 @@ public class SchoolManagementServiceImpl implements SchoolManagementService {
         }
         
         course.setCapacity(newCapacity);
-        return courseRepository.save(course);
+        Course updatedCourse = courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Change.UPDATED));
+        return updatedCourse;
     }
 }
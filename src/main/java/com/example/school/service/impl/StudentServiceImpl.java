@@ -1,25 +1,39 @@
 package com.example.school.service.impl;
 
+import com.example.school.cache.StudentProgressCache;
+import com.example.school.datasource.PrimaryReads;
+import com.example.school.dto.BatchResultDTO;
 import com.example.school.dto.CourseGradeDTO;
 import com.example.school.dto.StudentDTO;
 import com.example.school.dto.StudentProgressDTO;
-import com.example.school.entity.Enrollment;
 import com.example.school.entity.Student;
+import com.example.school.event.StudentChangedEvent;
 import com.example.school.exception.ResourceAlreadyExistsException;
 import com.example.school.exception.ResourceNotFoundException;
+import com.example.school.purge.DataPurger;
+import com.example.school.repository.GradeRepository;
 import com.example.school.repository.StudentRepository;
 import com.example.school.service.StudentService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -27,7 +41,16 @@ import java.util.stream.Collectors;
 public class StudentServiceImpl implements StudentService {
 
     private final StudentRepository studentRepository;
+    private final GradeRepository gradeRepository;
+    private final StudentProgressCache studentProgressCache;
+    private final PrimaryReads primaryReads;
+    private final DataPurger dataPurger;
+    private final PlatformTransactionManager transactionManager;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.batch.chunk-size:1000}")
+    private int batchChunkSize;
 
     @Override
     public List<Student> findAllStudents() {
@@ -93,19 +116,28 @@ public class StudentServiceImpl implements StudentService {
         modelMapper.map(studentDTO, existingStudent);
         
         // Save and return the updated student
-        return studentRepository.save(existingStudent);
+        Student updatedStudent = studentRepository.save(existingStudent);
+        eventPublisher.publishEvent(new StudentChangedEvent(id));
+        return updatedStudent;
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteStudent(Long id) {
-        // Check if student exists
-        if (!studentRepository.existsById(id)) {
+        // Never inside the caller's transaction: the purge commits chunk by chunk, and only the
+        // mark and the final delete hold the student row, each in a short transaction of its own
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer marked = transaction.execute(status -> studentRepository.markDeleted(id, LocalDateTime.now()));
+        if (marked == null || marked == 0) {
             throw new ResourceNotFoundException("Student not found with id: " + id);
         }
         
-        // Delete the student
-        studentRepository.deleteById(id);
+        // Enrolling refuses a marked student, so the purge leaves nothing behind
+        dataPurger.purgeStudentEnrollments(id);
+        transaction.executeWithoutResult(status -> {
+            studentRepository.deleteById(id);
+            eventPublisher.publishEvent(new StudentChangedEvent(id));
+        });
     }
 
     @Override
@@ -119,68 +151,148 @@ public class StudentServiceImpl implements StudentService {
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public StudentProgressDTO getStudentProgress(Long studentId) throws ResourceNotFoundException {
-//        log.debug("Fetching progress for student with id: {}", studentId);
-        
-        // Find the student with their enrollments and grades
-        Student student = studentRepository.findByIdWithEnrollmentsAndGrades(studentId)
-                .orElseThrow(() -> {
-//                    log.warn("Student not found with id: {}", studentId);
-                    return new ResourceNotFoundException("Student not found with id: " + studentId);
-                });
-        
+        // Cache hits need neither a transaction nor a connection
+        return studentProgressCache.get(studentId, this::loadStudentProgress);
+    }
+
+    // Cached, so read from the primary: a lagging replica's progress would be kept until invalidated again
+    private StudentProgressDTO loadStudentProgress(Long studentId) {
+        return primaryReads.read(() -> {
+            StudentDTO student = studentRepository.findStudentDTOById(studentId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
+            return buildProgress(student.getFullName(),
+                    gradeRepository.findCourseGradeRowsByStudentIds(List.of(studentId)));
+        });
+    }
+
+    @Override
+    public Map<Long, BatchResultDTO<StudentDTO>> findStudentDTOsByIds(List<Long> ids) {
+        Map<Long, StudentDTO> students = new HashMap<>();
+        for (List<Long> chunk : chunks(distinct(ids))) {
+            for (StudentDTO student : studentRepository.findStudentDTOsByIds(chunk)) {
+                students.put(student.getId(), student);
+            }
+        }
+        return toBatchResults(ids, students);
+    }
+
+    @Override
+    @Transactional(readOnly = true, label = PrimaryReads.LABEL)
+    public Map<Long, BatchResultDTO<StudentProgressDTO>> getStudentProgressByIds(List<Long> ids) {
+        List<Long> distinctIds = distinct(ids);
+        Map<Long, StudentProgressDTO> progress = new HashMap<>(studentProgressCache.getAllPresent(distinctIds));
+        List<Long> missing = distinctIds.stream().filter(id -> !progress.containsKey(id)).toList();
+
+        // Two queries per chunk of misses, aggregated in memory. Versions are taken before the
+        // queries, so progress invalidated while they run is returned but not cached.
+        for (List<Long> chunk : chunks(missing)) {
+            Map<Long, Long> versions = new HashMap<>();
+            chunk.forEach(id -> versions.put(id, studentProgressCache.version(id)));
+            Map<Long, List<GradeRepository.CourseGradeRow>> rowsByStudent = new HashMap<>();
+            for (GradeRepository.CourseGradeRow row : gradeRepository.findCourseGradeRowsByStudentIds(chunk)) {
+                rowsByStudent.computeIfAbsent(row.getStudentId(), id -> new ArrayList<>()).add(row);
+            }
+            for (StudentDTO student : studentRepository.findStudentDTOsByIds(chunk)) {
+                StudentProgressDTO loaded = buildProgress(student.getFullName(),
+                        rowsByStudent.getOrDefault(student.getId(), List.of()));
+                studentProgressCache.putIfUnchanged(student.getId(), loaded, versions.get(student.getId()));
+                progress.put(student.getId(), loaded);
+            }
+        }
+        return toBatchResults(ids, progress);
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchChunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + batchChunkSize, ids.size())));
+        }
+        return chunks;
+    }
+
+    private static List<Long> distinct(List<Long> ids) {
+        return new ArrayList<>(new LinkedHashSet<>(ids));
+    }
+
+    // Keyed in request order, with an explicit marker for every ID that was not found
+    private static <T> Map<Long, BatchResultDTO<T>> toBatchResults(List<Long> ids, Map<Long, T> found) {
+        Map<Long, BatchResultDTO<T>> results = new LinkedHashMap<>();
+        for (Long id : ids) {
+            T value = found.get(id);
+            results.put(id, value != null ? BatchResultDTO.found(value) : BatchResultDTO.notFound());
+        }
+        return results;
+    }
+
+    private StudentProgressDTO buildProgress(String studentName, List<GradeRepository.CourseGradeRow> rows) {
         double totalPoints = 0.0;
         int totalGradedCourses = 0;
-        List<CourseGradeDTO> courseGrades = new ArrayList<>();
+        List<CourseGradeDTO> courseGrades = new ArrayList<>(rows.size());
         
         // Calculate GPA and collect course grades
-        for (Enrollment enrollment : student.getEnrollments()) {
-            if (enrollment.getGrade() != null) {
-                String gradeValue = enrollment.getGrade().getGradeValue();
-                boolean isCompleted = enrollment.getGrade().isCourseCompleted();
+        for (GradeRepository.CourseGradeRow row : rows) {
+            String gradeValue = row.getGradeValue();
+            boolean isCompleted = Boolean.TRUE.equals(row.getCourseCompleted());
+            
+            if (isCompleted) {
+                // Convert letter grade to grade points (A=4.0, B=3.0, etc.)
+                double gradePoints = switch (gradeValue.charAt(0)) {
+                    case 'A' -> 4.0;
+                    case 'B' -> 3.0;
+                    case 'C' -> 2.0;
+                    case 'D' -> 1.0;
+                    default -> 0.0; // F or other grades count as 0.0
+                };
                 
-                if (isCompleted) {
-                    // Convert letter grade to grade points (A=4.0, B=3.0, etc.)
-                    double gradePoints = switch (gradeValue.charAt(0)) {
-                        case 'A' -> 4.0;
-                        case 'B' -> 3.0;
-                        case 'C' -> 2.0;
-                        case 'D' -> 1.0;
-                        default -> 0.0; // F or other grades count as 0.0
-                    };
-                    
-                    // Handle + and - grades if present
-                    if (gradeValue.length() > 1) {
-                        if (gradeValue.endsWith("+") && gradePoints > 0.3) {
-                            gradePoints += 0.3; // A+ = 4.3, B+ = 3.3, etc.
-                        } else if (gradeValue.endsWith("-")) {
-                            gradePoints -= 0.3; // A- = 3.7, B- = 2.7, etc.
-                        }
+                // Handle + and - grades if present
+                if (gradeValue.length() > 1) {
+                    if (gradeValue.endsWith("+") && gradePoints > 0.3) {
+                        gradePoints += 0.3; // A+ = 4.3, B+ = 3.3, etc.
+                    } else if (gradeValue.endsWith("-")) {
+                        gradePoints -= 0.3; // A- = 3.7, B- = 2.7, etc.
                     }
-                    
-                    totalPoints += gradePoints;
-                    totalGradedCourses++;
                 }
                 
-                // Add to course grades list regardless of completion status
-                courseGrades.add(new CourseGradeDTO(
-                    enrollment.getCourse().getTitle(),
-                    gradeValue,
-                    isCompleted
-                ));
+                totalPoints += gradePoints;
+                totalGradedCourses++;
             }
+            
+            // Add to course grades list regardless of completion status
+            courseGrades.add(new CourseGradeDTO(row.getCourseTitle(), gradeValue, isCompleted));
         }
         
         // Calculate GPA (on a 4.0 scale)
         double gpa = totalGradedCourses > 0 ? Math.round((totalPoints / totalGradedCourses) * 100.0) / 100.0 : 0.0;
         
-//        log.debug("Calculated GPA: {} for student: {}", gpa, student.getFullName());
-        
-        return new StudentProgressDTO(
-            student.getFullName(),
-            gpa,
-            courseGrades
-        );
+        return new StudentProgressDTO(studentName, gpa, courseGrades);
+    }
+
+    @Override
+    public Page<StudentDTO> findAllStudentDTOs(Pageable pageable) {
+        return studentRepository.findAllStudentDTOs(pageable);
+    }
+
+    @Override
+    public List<StudentDTO> findAllStudentDTOs() {
+        return studentRepository.findAllStudentDTOs();
+    }
+
+    @Override
+    public StudentDTO findStudentDTOById(Long id) {
+        return studentRepository.findStudentDTOById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+    }
+
+    @Override
+    public StudentDTO findStudentDTOByEmail(String email) {
+        return studentRepository.findStudentDTOByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with email: " + email));
+    }
+
+    @Override
+    public Page<StudentDTO> searchStudentDTOs(String query, Pageable pageable) {
+        return studentRepository.searchStudentDTOs(query, pageable);
     }
 }
@@ -0,0 +1,59 @@
+package com.example.school.term;
+
+import com.example.school.entity.AcademicTerm;
+import com.example.school.entity.AcademicTerm.TermStatus;
+import com.example.school.repository.AcademicTermRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Marks terms that closed more than {@code app.term.archive-after-days} ago ARCHIVED. Their
+ * enrollments and grades stay in the term's own partition of {@code enrollments} and
+ * {@code grades}, where transcripts, GPAs and prerequisite checks still read them; queries for a
+ * current term prune the cold partitions. Archive tables left by releases that moved the rows out
+ * are moved back first.
+ */
+@Slf4j
+@Component
+public class TermArchiver {
+
+    private final AcademicTermRepository termRepository;
+    private final TermPartitions termPartitions;
+    private final int archiveAfterDays;
+
+    public TermArchiver(AcademicTermRepository termRepository,
+                        TermPartitions termPartitions,
+                        @Value("${app.term.archive-after-days:1460}") int archiveAfterDays) {
+        this.termRepository = termRepository;
+        this.termPartitions = termPartitions;
+        this.archiveAfterDays = archiveAfterDays;
+    }
+
+    @Scheduled(cron = "${app.term.archive-cron:0 30 2 * * ?}")
+    public void archiveClosedTerms() {
+        for (Long termId : termPartitions.archivedTermIds()) {
+            try {
+                termPartitions.restoreTerm(termId);
+            } catch (DataAccessException | IllegalStateException e) {
+                // Each step is repeatable, so the next run picks the term up again
+                log.error("Failed to restore the archive tables of term {}", termId, e);
+            }
+        }
+
+        LocalDate cutoff = LocalDate.now().minusDays(archiveAfterDays);
+        int archived = 0;
+        for (AcademicTerm term : termRepository.findByStatusAndEndDateBeforeOrderByIdAsc(TermStatus.CLOSED, cutoff)) {
+            termRepository.updateStatus(term.getId(), TermStatus.ARCHIVED, LocalDateTime.now());
+            archived++;
+        }
+        if (archived > 0) {
+            log.info("Archived {} terms that closed before {}", archived, cutoff);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.school.term;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Range partitions of {@code enrollments} and {@code grades} by {@code term_id}. Every term has a
+ * partition {@code p_term_<id>} holding {@code term_id < id + 1}, followed by {@code p_future}
+ * ({@code MAXVALUE}). Partition DDL commits implicitly, so these methods must not run inside a
+ * transaction; each step checks the current partitions first, so a failed run can be repeated.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TermPartitions {
+
+    // Enrollments first: nothing may point at an enrollment that is not there yet
+    static final List<String> TABLES = List.of("enrollments", "grades");
+
+    private static final String MAXVALUE = "MAXVALUE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Splits the term's own partition off the partition whose range holds its id. */
+    public void addTerm(long termId) {
+        for (String table : TABLES) {
+            List<Partition> partitions = partitions(table);
+            Partition containing = partitions.stream()
+                    .filter(partition -> partition.contains(termId))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException(table + " is not partitioned by term"));
+            if (containing.name().equals(partitionName(termId))
+                    || containing.upperBound().equals(String.valueOf(termId + 1))) {
+                continue;
+            }
+            // Only rows of this term and of terms without a partition of their own are copied
+            jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + containing.name() + " INTO (" +
+                    "PARTITION " + partitionName(termId) + " VALUES LESS THAN (" + (termId + 1) + "), " +
+                    "PARTITION " + containing.name() + " VALUES LESS THAN (" + containing.upperBound() + "))");
+            log.info("Added partition {} to {}", partitionName(termId), table);
+        }
+    }
+
+    /**
+     * Moves the term's rows back from {@code enrollments_term_<id>} and {@code grades_term_<id>},
+     * which earlier releases exchanged out of the partitioned tables, and drops those tables.
+     * {@code EXCHANGE PARTITION} swaps the archive table with the term's empty partition without
+     * copying rows. Does nothing for a term without archive tables.
+     */
+    public void restoreTerm(long termId) {
+        String partition = partitionName(termId);
+        for (String table : TABLES) {
+            String archive = archiveTableName(table, termId);
+            if (!tableExists(archive)) {
+                continue;
+            }
+            // An empty archive table means an earlier run stopped between the exchange and the drop
+            if (count(archive, null) > 0) {
+                addTerm(termId);
+                long rows = count(table, partition);
+                if (rows > 0) {
+                    throw new IllegalStateException(partition + " of " + table + " already has " + rows +
+                            " rows, and " + archive + " is not empty");
+                }
+                jdbcTemplate.execute("ALTER TABLE " + table + " EXCHANGE PARTITION " + partition +
+                        " WITH TABLE " + archive);
+            }
+            jdbcTemplate.execute("DROP TABLE " + archive);
+            log.info("Moved {} back to partition {} of {}", archive, partition, table);
+        }
+    }
+
+    /** Terms that still have an archive table of either table, in id order. */
+    public SortedSet<Long> archivedTermIds() {
+        SortedSet<Long> termIds = new TreeSet<>();
+        for (String table : TABLES) {
+            String prefix = archiveTableName(table, "");
+            jdbcTemplate.query(
+                    "SELECT TABLE_NAME FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() " +
+                    "AND TABLE_NAME LIKE ?",
+                    rs -> {
+                        String suffix = rs.getString("TABLE_NAME").substring(prefix.length());
+                        if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+                            termIds.add(Long.parseLong(suffix));
+                        }
+                    },
+                    prefix.replace("_", "\\_") + "%");
+        }
+        return termIds;
+    }
+
+    static String partitionName(long termId) {
+        return "p_term_" + termId;
+    }
+
+    public static String archiveTableName(String table, long termId) {
+        return archiveTableName(table, String.valueOf(termId));
+    }
+
+    private static String archiveTableName(String table, String termId) {
+        return table + "_term_" + termId;
+    }
+
+    private boolean tableExists(String table) {
+        Long tables = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.TABLES " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Long.class, table);
+        return tables != null && tables > 0;
+    }
+
+    private long count(String table, String partition) {
+        String from = partition == null ? table : table + " PARTITION (" + partition + ")";
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + from, Long.class);
+        return rows == null ? 0 : rows;
+    }
+
+    // Empty for a table without partitions
+    private List<Partition> partitions(String table) {
+        return jdbcTemplate.query(
+                "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION",
+                (rs, rowNum) -> new Partition(rs.getString("PARTITION_NAME"), rs.getString("PARTITION_DESCRIPTION")),
+                table);
+    }
+
+    // upperBound is the VALUES LESS THAN value: a number or MAXVALUE
+    private record Partition(String name, String upperBound) {
+
+        boolean contains(long termId) {
+            return MAXVALUE.equals(upperBound) || termId < Long.parseLong(upperBound);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+-- Query plans of the repository queries in EnrollmentRepository, GradeRepository and
+-- DataImportRepository, written as the SQL Hibernate generates for them. Not a migration:
+-- run it against a database with realistic data and keep the output with the change that
+-- touched the queries or indexes, e.g.
+--
+--   mysql -t school_db < src/main/resources/db/explain/repository-query-plans.sql > plans.txt
+--
+-- Set the sample ids below to rows that exist. Replace EXPLAIN with EXPLAIN ANALYZE to also
+-- run the queries and get actual row counts and timings.
+
+SET @student_id = (SELECT MIN(student_id) FROM enrollments);
+SET @course_id = (SELECT MIN(course_id) FROM enrollments);
+SET @enrollment_id = (SELECT MIN(id) FROM enrollments);
+SET @grade_id = (SELECT MIN(id) FROM grades);
+SET @term_id = (SELECT MAX(term_id) FROM enrollments);
+SET @import_id = (SELECT MAX(id) FROM data_imports);
+SET @now = NOW(6);
+
+-- EnrollmentRepository ------------------------------------------------------------------------
+
+-- findByStudentIdAndCourseId
+EXPLAIN SELECT e.* FROM enrollments e
+        WHERE e.term_id = @term_id AND e.student_id = @student_id AND e.course_id = @course_id;
+
+-- findActiveEnrollmentsByStudentId
+EXPLAIN SELECT e.* FROM enrollments e WHERE e.student_id = @student_id AND e.status = 'ACTIVE';
+
+-- findByStudentId
+EXPLAIN SELECT e.* FROM enrollments e WHERE e.student_id = @student_id;
+
+-- findByCourseId
+EXPLAIN SELECT e.* FROM enrollments e WHERE e.course_id = @course_id;
+
+-- findActiveEnrollmentsByCourseId (the partitions column should list only p_term_<@term_id>)
+EXPLAIN SELECT e.* FROM enrollments e
+        WHERE e.term_id = @term_id AND e.course_id = @course_id AND e.status = 'ACTIVE';
+
+-- existsActiveEnrollment
+EXPLAIN SELECT COUNT(e.id) > 0 FROM enrollments e
+        WHERE e.student_id = @student_id AND e.course_id = @course_id AND e.status = 'ACTIVE';
+
+-- findCompletedCoursesByStudentId
+EXPLAIN SELECT e.*, c.* FROM enrollments e JOIN courses c ON c.id = e.course_id
+        WHERE e.student_id = @student_id AND e.status = 'COMPLETED';
+
+-- updateEnrollmentStatus
+EXPLAIN UPDATE enrollments SET status = 'COMPLETED' WHERE id = @enrollment_id;
+
+-- deleteByStudentIdAndCourseId
+EXPLAIN DELETE FROM enrollments WHERE student_id = @student_id AND course_id = @course_id;
+
+-- findStudentIdsByCourseId
+EXPLAIN SELECT DISTINCT e.student_id FROM enrollments e WHERE e.course_id = @course_id;
+
+-- countActiveEnrollmentsByCourseId
+EXPLAIN SELECT COUNT(e.id) FROM enrollments e
+        WHERE e.term_id = @term_id AND e.course_id = @course_id AND e.status = 'ACTIVE';
+
+-- findByIdWithCourseAndStudent
+EXPLAIN SELECT e.*, c.*, s.* FROM enrollments e JOIN courses c ON c.id = e.course_id
+        JOIN students s ON s.id = e.student_id WHERE e.id = @enrollment_id;
+
+-- findAllEnrollmentDTOs (first page, and its count query)
+EXPLAIN SELECT e.id, s.id, CONCAT(s.first_name, ' ', s.last_name), c.id, c.code, c.title, e.enrollment_date, e.status
+        FROM enrollments e JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id
+        LIMIT 20 OFFSET 0;
+EXPLAIN SELECT COUNT(e.id) FROM enrollments e;
+
+-- findEnrollmentDTOById
+EXPLAIN SELECT e.id, s.id, CONCAT(s.first_name, ' ', s.last_name), c.id, c.code, c.title, e.enrollment_date, e.status
+        FROM enrollments e JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id
+        WHERE e.id = @enrollment_id;
+
+-- findEnrollmentDTOsByStudentId
+EXPLAIN SELECT e.id, s.id, CONCAT(s.first_name, ' ', s.last_name), c.id, c.code, c.title, e.enrollment_date, e.status
+        FROM enrollments e JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id
+        WHERE s.id = @student_id;
+
+-- findEnrollmentDTOsByCourseId
+EXPLAIN SELECT e.id, s.id, CONCAT(s.first_name, ' ', s.last_name), c.id, c.code, c.title, e.enrollment_date, e.status
+        FROM enrollments e JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id
+        WHERE c.id = @course_id;
+
+-- findActiveEnrollmentDTOsByStudentId
+EXPLAIN SELECT e.id, s.id, CONCAT(s.first_name, ' ', s.last_name), c.id, c.code, c.title, e.enrollment_date, e.status
+        FROM enrollments e JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id
+        WHERE s.id = @student_id AND e.status = 'ACTIVE';
+
+-- GradeRepository -----------------------------------------------------------------------------
+
+-- findByStudentIdAndCourseId
+EXPLAIN SELECT g.* FROM grades g JOIN enrollments e ON e.id = g.enrollment_id
+        WHERE e.student_id = @student_id AND e.course_id = @course_id;
+
+-- findByStudentId
+EXPLAIN SELECT g.*, e.*, s.*, c.* FROM grades g JOIN enrollments e ON e.id = g.enrollment_id
+        JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id WHERE s.id = @student_id;
+
+-- findByCourseId
+EXPLAIN SELECT g.*, e.*, s.*, c.* FROM grades g JOIN enrollments e ON e.id = g.enrollment_id
+        JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id WHERE c.id = @course_id;
+
+-- findAllWithEnrollmentDetails (first page, and its count query)
+EXPLAIN SELECT g.*, e.*, s.*, c.* FROM grades g JOIN enrollments e ON e.id = g.enrollment_id
+        JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id LIMIT 20 OFFSET 0;
+EXPLAIN SELECT COUNT(g.id) FROM grades g;
+
+-- findByIdWithEnrollmentDetails
+EXPLAIN SELECT g.*, e.*, s.*, c.* FROM grades g JOIN enrollments e ON e.id = g.enrollment_id
+        JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id WHERE g.id = @grade_id;
+
+-- findCompletedGradeValuesByStudentId
+EXPLAIN SELECT g.grade_value FROM grades g JOIN enrollments e ON e.id = g.enrollment_id
+        WHERE e.student_id = @student_id AND g.is_course_completed = 1;
+
+-- findCompletedGradeByStudentAndCourse
+EXPLAIN SELECT g.* FROM grades g JOIN enrollments e ON e.id = g.enrollment_id
+        WHERE e.student_id = @student_id AND e.course_id = @course_id AND g.is_course_completed = 1;
+
+-- findGradesWithCourseByStudentId
+EXPLAIN SELECT g.*, e.*, c.* FROM grades g JOIN enrollments e ON e.id = g.enrollment_id
+        JOIN courses c ON c.id = e.course_id WHERE e.student_id = @student_id;
+
+-- findGradeDTOById, findGradeDTOsByStudentId, findGradeDTOsByCourseId, findAllGradeDTOs
+EXPLAIN SELECT g.id, g.grade_value, g.comments, g.is_course_completed, g.graded_date, e.id, s.id, c.id,
+               CONCAT(s.first_name, ' ', s.last_name), c.title, e.status
+        FROM grades g JOIN enrollments e ON e.id = g.enrollment_id
+        JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id WHERE g.id = @grade_id;
+EXPLAIN SELECT g.id, g.grade_value, g.comments, g.is_course_completed, g.graded_date, e.id, s.id, c.id,
+               CONCAT(s.first_name, ' ', s.last_name), c.title, e.status
+        FROM grades g JOIN enrollments e ON e.id = g.enrollment_id
+        JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id WHERE s.id = @student_id;
+EXPLAIN SELECT g.id, g.grade_value, g.comments, g.is_course_completed, g.graded_date, e.id, s.id, c.id,
+               CONCAT(s.first_name, ' ', s.last_name), c.title, e.status
+        FROM grades g JOIN enrollments e ON e.id = g.enrollment_id
+        JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id WHERE c.id = @course_id;
+EXPLAIN SELECT g.id, g.grade_value, g.comments, g.is_course_completed, g.graded_date, e.id, s.id, c.id,
+               CONCAT(s.first_name, ' ', s.last_name), c.title, e.status
+        FROM grades g JOIN enrollments e ON e.id = g.enrollment_id
+        JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id LIMIT 20 OFFSET 0;
+
+-- findCourseGradeRowsByStudentIds
+EXPLAIN SELECT e.student_id, c.title, g.grade_value, g.is_course_completed
+        FROM grades g JOIN enrollments e ON e.id = g.enrollment_id JOIN courses c ON c.id = e.course_id
+        WHERE e.student_id IN (@student_id, @student_id + 1, @student_id + 2);
+
+-- DataImportRepository ------------------------------------------------------------------------
+
+-- findByStatus
+EXPLAIN SELECT di.* FROM data_imports di WHERE di.status = 'PROCESSING';
+
+-- findByImportType
+EXPLAIN SELECT di.* FROM data_imports di WHERE di.import_type = 'STUDENTS';
+
+-- findByCreatedAtBetween
+EXPLAIN SELECT di.* FROM data_imports di WHERE di.created_at BETWEEN @now - INTERVAL 7 DAY AND @now;
+
+-- findRecentSuccessfulImports
+EXPLAIN SELECT di.* FROM data_imports di WHERE di.import_type = 'STUDENTS' AND di.status = 'COMPLETED'
+        ORDER BY di.completed_at DESC;
+
+-- existsProcessingImportByType
+EXPLAIN SELECT COUNT(di.id) > 0 FROM data_imports di WHERE di.import_type = 'STUDENTS' AND di.status = 'PROCESSING';
+
+-- findByImportTypeOrderByCreatedAtDesc
+EXPLAIN SELECT di.* FROM data_imports di WHERE di.import_type = 'STUDENTS' ORDER BY di.created_at DESC;
+
+-- findTopNByOrderByCreatedAtDesc
+EXPLAIN SELECT di.* FROM data_imports di ORDER BY di.created_at DESC LIMIT 10;
+
+-- deleteByStatusAndCreatedAtBefore
+EXPLAIN DELETE FROM data_imports WHERE status = 'COMPLETED' AND created_at < @now - INTERVAL 30 DAY;
+
+-- updateProgress
+EXPLAIN UPDATE data_imports SET processed_records = 0, updated_at = @now, heartbeat_at = @now WHERE id = @import_id;
+
+-- heartbeat
+EXPLAIN UPDATE data_imports SET heartbeat_at = @now WHERE id IN (@import_id) AND status = 'PROCESSING';
+
+-- findStale
+EXPLAIN SELECT di.* FROM data_imports di WHERE di.status IN ('PENDING', 'PROCESSING')
+        AND COALESCE(di.heartbeat_at, di.updated_at) < @now - INTERVAL 2 MINUTE ORDER BY di.created_at;
+
+-- requeue
+EXPLAIN UPDATE data_imports SET status = 'PENDING', heartbeat_at = @now, queued_at = @now
+        WHERE id = @import_id AND (status = 'FAILED'
+        OR (status <> 'COMPLETED' AND COALESCE(heartbeat_at, updated_at) < @now - INTERVAL 2 MINUTE));
+
+-- failStale
+EXPLAIN UPDATE data_imports SET status = 'FAILED', error_message = 'stale', completed_at = @now
+        WHERE id = @import_id AND status IN ('PENDING', 'PROCESSING')
+        AND COALESCE(heartbeat_at, updated_at) < @now - INTERVAL 2 MINUTE;
@@ -0,0 +1,144 @@
+-- Schema as Hibernate's ddl-auto=update left it. Existing databases are baselined at this
+-- version (spring.flyway.baseline-on-migrate) and only run the migrations after it.
+
+CREATE TABLE students (
+    id            BIGINT       NOT NULL,
+    first_name    VARCHAR(255) NOT NULL,
+    last_name     VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    phone_number  VARCHAR(255),
+    date_of_birth DATE,
+    created_at    DATETIME(6),
+    updated_at    DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_students_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE courses (
+    id                BIGINT        NOT NULL,
+    code              VARCHAR(20)   NOT NULL,
+    title             VARCHAR(100)  NOT NULL,
+    description       VARCHAR(1000),
+    credits           INTEGER       NOT NULL,
+    capacity          INTEGER       NOT NULL,
+    enrolled_students INTEGER,
+    created_at        DATETIME(6),
+    updated_at        DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_courses_code UNIQUE (code)
+) ENGINE = InnoDB;
+
+CREATE TABLE course_prerequisites (
+    course_id       BIGINT NOT NULL,
+    prerequisite_id BIGINT NOT NULL,
+    PRIMARY KEY (course_id, prerequisite_id),
+    CONSTRAINT fk_course_prerequisites_course FOREIGN KEY (course_id) REFERENCES courses (id),
+    CONSTRAINT fk_course_prerequisites_prerequisite FOREIGN KEY (prerequisite_id) REFERENCES courses (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE enrollments (
+    id                BIGINT       NOT NULL,
+    student_id        BIGINT       NOT NULL,
+    course_id         BIGINT       NOT NULL,
+    enrollment_date   DATE         NOT NULL,
+    status            ENUM ('ACTIVE','DROPPED','COMPLETED','FAILED','WITHDRAWN') NOT NULL,
+    withdrawal_date   DATE,
+    withdrawal_reason VARCHAR(255),
+    created_at        DATETIME(6),
+    updated_at        DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_student_course UNIQUE (student_id, course_id),
+    CONSTRAINT fk_enrollments_student FOREIGN KEY (student_id) REFERENCES students (id),
+    CONSTRAINT fk_enrollments_course FOREIGN KEY (course_id) REFERENCES courses (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE grades (
+    id                  BIGINT      NOT NULL,
+    enrollment_id       BIGINT      NOT NULL,
+    grade_value         VARCHAR(2)  NOT NULL,
+    comments            VARCHAR(500),
+    is_course_completed BIT,
+    graded_date         DATE,
+    created_at          DATETIME(6),
+    updated_at          DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_grades_enrollment UNIQUE (enrollment_id),
+    CONSTRAINT fk_grades_enrollment FOREIGN KEY (enrollment_id) REFERENCES enrollments (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE data_imports (
+    id                 BIGINT        NOT NULL,
+    import_type        ENUM ('STUDENTS','COURSES','ENROLLMENTS','GRADES') NOT NULL,
+    status             ENUM ('PENDING','PROCESSING','COMPLETED','FAILED') NOT NULL,
+    file_name          VARCHAR(255),
+    file_path          VARCHAR(255),
+    file_size          BIGINT,
+    priority           INTEGER,
+    dry_run            BIT,
+    queued_at          DATETIME(6),
+    queue_wait_ms      BIGINT,
+    run_time_ms        BIGINT,
+    total_records      INTEGER,
+    processed_records  INTEGER,
+    successful_records INTEGER,
+    failed_records     INTEGER,
+    total_chunks       INTEGER,
+    completed_chunks   INTEGER,
+    rows_per_second    DOUBLE,
+    partition_count    INTEGER,
+    checkpoint_offset  BIGINT,
+    checkpoint_row     BIGINT,
+    heartbeat_at       DATETIME(6),
+    error_message      VARCHAR(1000),
+    error_summary      VARCHAR(1000),
+    created_at         DATETIME(6),
+    updated_at         DATETIME(6),
+    started_at         DATETIME(6),
+    completed_at       DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_data_imports_queue ON data_imports (status, priority, queued_at);
+
+CREATE TABLE data_import_errors (
+    id         BIGINT        NOT NULL AUTO_INCREMENT,
+    import_id  BIGINT        NOT NULL,
+    row_no     BIGINT        NOT NULL,
+    field      VARCHAR(100),
+    message    VARCHAR(1000) NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_import_errors_import_row ON data_import_errors (import_id, row_no);
+
+CREATE TABLE data_import_chunks (
+    id                 BIGINT      NOT NULL AUTO_INCREMENT,
+    import_id          BIGINT      NOT NULL,
+    partition_no       INTEGER     NOT NULL,
+    chunk_no           INTEGER     NOT NULL,
+    successful_records INTEGER     NOT NULL,
+    failed_records     INTEGER     NOT NULL,
+    end_offset         BIGINT      NOT NULL,
+    end_line           BIGINT      NOT NULL,
+    checkpoint_offset  BIGINT      NOT NULL,
+    checkpoint_line    BIGINT      NOT NULL,
+    committed_at       DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_import_chunk UNIQUE (import_id, partition_no, chunk_no)
+) ENGINE = InnoDB;
+
+CREATE TABLE data_import_queues (
+    import_type ENUM ('STUDENTS','COURSES','ENROLLMENTS','GRADES') NOT NULL,
+    PRIMARY KEY (import_type)
+) ENGINE = InnoDB;
+
+-- next_val is the last id handed out; see PooledIdGenerator
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    PRIMARY KEY (sequence_name)
+) ENGINE = InnoDB;
+
+INSERT INTO id_generators (sequence_name, next_val) VALUES
+    ('students', 0), ('courses', 0), ('enrollments', 0), ('grades', 0), ('data_imports', 0);
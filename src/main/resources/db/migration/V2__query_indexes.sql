@@ -0,0 +1,24 @@
+-- Indexes for the hot repository queries; db/explain/repository-query-plans.sql shows their plans.
+-- InnoDB appends the primary key to every secondary index, so the lookups below that only need
+-- ids and the indexed columns never touch the table rows.
+
+-- Active/completed enrollments of a student (existsActiveEnrollment, findActiveEnrollmentsByStudentId,
+-- findCompletedCoursesByStudentId)
+CREATE INDEX idx_enrollments_student_status ON enrollments (student_id, status, course_id);
+
+-- Seat counts and rosters of a course (countActiveEnrollmentsByCourseId, findActiveEnrollmentsByCourseId,
+-- findStudentIdsByCourseId)
+CREATE INDEX idx_enrollments_course_status ON enrollments (course_id, status, student_id);
+
+-- Completed grades of an enrollment (findCompletedGradeValuesByStudentId, findCompletedGradeByStudentAndCourse)
+CREATE INDEX idx_grades_enrollment_completed ON grades (enrollment_id, is_course_completed, grade_value);
+
+-- Import history by type (findByImportTypeOrderByCreatedAtDesc, findRecentSuccessfulImports,
+-- existsProcessingImportByType) and the cleanup of old imports by status
+CREATE INDEX idx_data_imports_type_status_created ON data_imports (import_type, status, created_at);
+CREATE INDEX idx_data_imports_status_created ON data_imports (status, created_at);
+CREATE INDEX idx_data_imports_created ON data_imports (created_at);
+
+-- Student listings sorted by name and name prefix searches; email lookups use uk_students_email.
+-- The contains-searches (LIKE '%q%') cannot use a B-tree index and still scan.
+CREATE INDEX idx_students_name ON students (last_name, first_name);
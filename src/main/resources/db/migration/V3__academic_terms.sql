@@ -0,0 +1,62 @@
+-- Academic terms, and enrollments and grades range partitioned by term so that current-term
+-- queries only read the term's partition. Every term gets a partition p_term_<id> holding
+-- term_id < id + 1 (TermPartitions adds it when the term is created); p_future catches the rest.
+--
+-- MySQL requirements for partitioned tables: every primary and unique key contains the
+-- partitioning column, and partitioned InnoDB tables have no foreign keys, so the student,
+-- course and enrollment references are kept by the application from here on.
+
+-- Term ids are AUTO_INCREMENT so a new term always sorts after the existing partitions
+CREATE TABLE academic_terms (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    code       VARCHAR(20)  NOT NULL,
+    name       VARCHAR(100) NOT NULL,
+    start_date DATE         NOT NULL,
+    end_date   DATE         NOT NULL,
+    status     ENUM ('OPEN','CLOSED','ARCHIVED') NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_academic_terms_code UNIQUE (code)
+) ENGINE = InnoDB;
+
+-- Enrollments from before terms existed; close it once the first real term has started and
+-- its enrollments are completed
+INSERT INTO academic_terms (id, code, name, start_date, end_date, status, created_at, updated_at)
+VALUES (1, 'LEGACY', 'Enrollments before academic terms', '1970-01-01', CURRENT_DATE, 'OPEN', NOW(6), NOW(6));
+
+ALTER TABLE enrollments ADD COLUMN term_id BIGINT NOT NULL DEFAULT 1 AFTER course_id;
+ALTER TABLE enrollments ALTER COLUMN term_id DROP DEFAULT;
+
+ALTER TABLE grades ADD COLUMN term_id BIGINT NOT NULL DEFAULT 1 AFTER enrollment_id;
+ALTER TABLE grades ALTER COLUMN term_id DROP DEFAULT;
+
+ALTER TABLE grades DROP FOREIGN KEY fk_grades_enrollment;
+ALTER TABLE enrollments
+    DROP FOREIGN KEY fk_enrollments_student,
+    DROP FOREIGN KEY fk_enrollments_course;
+
+-- A student can take a course again in a later term
+ALTER TABLE enrollments
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, term_id),
+    DROP INDEX uk_student_course,
+    ADD CONSTRAINT uk_student_course_term UNIQUE (student_id, course_id, term_id);
+
+ALTER TABLE grades
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, term_id),
+    DROP INDEX uk_grades_enrollment,
+    ADD CONSTRAINT uk_grades_enrollment_term UNIQUE (enrollment_id, term_id);
+
+ALTER TABLE enrollments PARTITION BY RANGE (term_id) (
+    PARTITION p_term_1 VALUES LESS THAN (2),
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
+
+ALTER TABLE grades PARTITION BY RANGE (term_id) (
+    PARTITION p_term_1 VALUES LESS THAN (2),
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
+
+CREATE INDEX idx_academic_terms_status_start ON academic_terms (status, start_date);
@@ -0,0 +1,20 @@
+-- Seat counter reconciliation (SeatCountReconciler): every few minutes it rechecks the courses
+-- and enrollments changed since its last run, and records each counter it corrects.
+
+-- Courses and enrollments changed since the last run
+CREATE INDEX idx_courses_updated ON courses (updated_at);
+CREATE INDEX idx_enrollments_updated_course ON enrollments (updated_at, course_id);
+
+-- The drift report: one row per corrected course counter. Written with JDBC only.
+CREATE TABLE seat_count_drifts (
+    id                 BIGINT      NOT NULL AUTO_INCREMENT,
+    course_id          BIGINT      NOT NULL,
+    recorded_seats     INTEGER     NOT NULL,
+    active_enrollments INTEGER     NOT NULL,
+    full_scan          BIT         NOT NULL,
+    corrected_at       DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_seat_count_drifts_corrected ON seat_count_drifts (corrected_at);
+CREATE INDEX idx_seat_count_drifts_course ON seat_count_drifts (course_id, corrected_at);
@@ -0,0 +1,6 @@
+-- Deleting a student or course purges its enrollments in chunks before the row itself goes.
+-- deleted_at is set first, in its own transaction, and enrolling, grading and importing refuse
+-- marked rows, so nothing new is added behind the purge.
+
+ALTER TABLE students ADD COLUMN deleted_at DATETIME(6) NULL;
+ALTER TABLE courses ADD COLUMN deleted_at DATETIME(6) NULL;
@@ -0,0 +1,238 @@
+package com.example.school.benchmark;
+
+import com.example.school.entity.AcademicTerm;
+import com.example.school.entity.Course;
+import com.example.school.entity.Enrollment;
+import com.example.school.entity.Grade;
+import com.example.school.entity.PooledIdGenerator;
+import com.example.school.entity.Student;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The application's entities and repositories outside Spring Boot, for the benchmarks. Runs on an
+ * in-memory H2 database in MySQL mode; {@code -Dbenchmark.url} (with {@code benchmark.username}
+ * and {@code benchmark.password}) points it at a MySQL schema instead, which is where numbers
+ * involving round trips should come from. Hibernate creates the tables and drops them on close,
+ * so use a scratch schema.
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static final String[] GRADES = {"A", "A-", "B+", "B", "C"};
+
+    private final HikariDataSource dataSource;
+    private final LocalContainerEntityManagerFactoryBean factoryBean;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final JpaRepositoryFactory repositoryFactory;
+    private final JpaTransactionManager transactionManager;
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    /**
+     * @param jpaProperties Hibernate settings on top of the defaults (second-level cache off,
+     *                      statistics on, allocation size 50)
+     */
+    BenchmarkDatabase(Map<String, Object> jpaProperties) {
+        dataSource = new HikariDataSource();
+        dataSource.setPoolName("benchmark");
+        dataSource.setJdbcUrl(System.getProperty("benchmark.url",
+                "jdbc:h2:mem:benchmark" + DATABASES.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        dataSource.setUsername(System.getProperty("benchmark.username", "sa"));
+        dataSource.setPassword(System.getProperty("benchmark.password", ""));
+
+        // Named like Spring Boot names them, so native queries find their columns
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.hbm2ddl.auto", "create-drop");
+        properties.put("hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName());
+        properties.put("hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName());
+        properties.put("hibernate.cache.use_second_level_cache", "false");
+        properties.put("hibernate.generate_statistics", "true");
+        properties.put(PooledIdGenerator.ALLOCATION_SIZE, 50);
+        properties.putAll(jpaProperties);
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(countingRoundTrips(dataSource));
+        factoryBean.setPackagesToScan(Student.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(properties);
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        repositoryFactory = new JpaRepositoryFactory(entityManager);
+        transactionManager = new JpaTransactionManager(entityManagerFactory);
+    }
+
+    <R> R repository(Class<R> repositoryInterface) {
+        return repositoryFactory.getRepository(repositoryInterface);
+    }
+
+    // Bound to the transaction of the calling thread, like an injected EntityManager
+    EntityManager entityManager() {
+        return entityManager;
+    }
+
+    JpaTransactionManager transactionManager() {
+        return transactionManager;
+    }
+
+    TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    // Statements executed so far; a JDBC batch is one
+    long roundTrips() {
+        return roundTrips.get();
+    }
+
+    Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * An open term with the given students and courses; every student is enrolled in
+     * {@code coursesPerStudent} consecutive courses, and every enrollment has a completed grade.
+     */
+    Seed seed(int students, int courses, int coursesPerStudent) {
+        return transaction(false).execute(status -> {
+            AcademicTerm term = newTerm("SEED");
+            List<Course> courseList = new ArrayList<>(courses);
+            for (int i = 0; i < courses; i++) {
+                Course course = new Course();
+                course.setCode("C" + i);
+                course.setTitle("Course " + i);
+                course.setDescription("Description of course " + i);
+                course.setCapacity(students);
+                entityManager.persist(course);
+                courseList.add(course);
+            }
+            List<Long> studentIds = new ArrayList<>(students);
+            for (int i = 0; i < students; i++) {
+                Student student = newStudent(i);
+                entityManager.persist(student);
+                studentIds.add(student.getId());
+                for (int k = 0; k < coursesPerStudent; k++) {
+                    Enrollment enrollment = newEnrollment(student, courseList.get((i + k) % courses), term);
+                    enrollment.setStatus(Enrollment.EnrollmentStatus.COMPLETED);
+                    enrollment.setGrade(newGrade(GRADES[(i + k) % GRADES.length]));
+                    entityManager.persist(enrollment);
+                }
+                if (i % 500 == 499) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    term = entityManager.getReference(AcademicTerm.class, term.getId());
+                    courseList.replaceAll(course -> entityManager.getReference(Course.class, course.getId()));
+                }
+            }
+            return new Seed(term.getId(), studentIds, courseList.stream().map(Course::getId).toList());
+        });
+    }
+
+    AcademicTerm newTerm(String code) {
+        AcademicTerm term = new AcademicTerm();
+        term.setCode(code);
+        term.setName("Term " + code);
+        term.setStartDate(LocalDate.of(2024, 1, 1));
+        term.setEndDate(LocalDate.of(2024, 6, 30));
+        entityManager.persist(term);
+        return term;
+    }
+
+    static Student newStudent(int number) {
+        Student student = new Student();
+        student.setFirstName("First" + number);
+        student.setLastName("Last" + number);
+        student.setEmail("student" + number + "@example.com");
+        student.setPhoneNumber(String.format("555-%07d", number));
+        student.setDateOfBirth(LocalDate.of(2000, 1, 1).plusDays(number % 3650));
+        return student;
+    }
+
+    static Enrollment newEnrollment(Student student, Course course, AcademicTerm term) {
+        Enrollment enrollment = new Enrollment();
+        enrollment.setStudent(student);
+        enrollment.setCourse(course);
+        enrollment.setTerm(term);
+        enrollment.setEnrollmentDate(LocalDate.of(2024, 1, 15));
+        return enrollment;
+    }
+
+    static Grade newGrade(String gradeValue) {
+        Grade grade = new Grade();
+        grade.setGradeValue(gradeValue);
+        grade.setCourseCompleted(true);
+        grade.setGradedDate(LocalDate.of(2024, 6, 30));
+        return grade;
+    }
+
+    private DataSource countingRoundTrips(DataSource target) {
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return counting(Connection.class, super.getConnection());
+            }
+        };
+    }
+
+    // Counts the execute* calls of the statements the connection creates
+    private <T> T counting(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (Statement.class.isAssignableFrom(type) && method.getName().startsWith("execute")) {
+                roundTrips.incrementAndGet();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result != null && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return counting(castType(method.getReturnType()), result);
+            }
+            return result;
+        }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<Object> castType(Class<?> type) {
+        return (Class<Object>) type;
+    }
+
+    @Override
+    public void close() {
+        factoryBean.destroy();
+        dataSource.close();
+    }
+
+    record Seed(Long termId, List<Long> studentIds, List<Long> courseIds) {
+    }
+}
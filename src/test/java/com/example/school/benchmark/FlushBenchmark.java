@@ -0,0 +1,87 @@
+package com.example.school.benchmark;
+
+import com.example.school.entity.Enrollment;
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The commit of a transaction holding {@code entities} managed enrollments, with one of them
+ * changed or none: the flush at commit is the dirty check. Loading happens before each
+ * invocation and is not measured. Enhanced entities report their own dirty fields; compare
+ * with plain ones (full snapshot comparison) by building with the {@code no-enhance} profile:
+ * {@code mvn clean -Pno-enhance,benchmark test-compile exec:exec -Dbenchmark=FlushBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FlushBenchmark {
+
+    @Param({"100", "1000"})
+    public int entities;
+
+    private BenchmarkDatabase database;
+    private TransactionStatus transaction;
+    private List<Enrollment> enrollments;
+    private int changes;
+
+    @Setup
+    public void setUp() {
+        database = new BenchmarkDatabase(Map.of());
+        database.seed(1_000, 50, 1);
+        System.out.println("Entities enhanced: "
+                + PersistentAttributeInterceptable.class.isAssignableFrom(Enrollment.class));
+    }
+
+    @Setup(Level.Invocation)
+    public void load() {
+        transaction = database.transactionManager().getTransaction(new DefaultTransactionDefinition());
+        enrollments = database.entityManager()
+                .createQuery("SELECT e FROM Enrollment e ORDER BY e.id", Enrollment.class)
+                .setMaxResults(entities)
+                .getResultList();
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollBackUnfinished() {
+        if (!transaction.isCompleted()) {
+            database.transactionManager().rollback(transaction);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public void flushNoChange() {
+        database.transactionManager().commit(transaction);
+    }
+
+    @Benchmark
+    public void flushOneChange() {
+        enrollments.get(0).setWithdrawalReason("Changed " + changes++);
+        database.transactionManager().commit(transaction);
+    }
+}
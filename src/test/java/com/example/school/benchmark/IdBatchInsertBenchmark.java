@@ -0,0 +1,110 @@
+package com.example.school.benchmark;
+
+import com.example.school.entity.AcademicTerm;
+import com.example.school.entity.Course;
+import com.example.school.entity.Enrollment;
+import com.example.school.entity.PooledIdGenerator;
+import com.example.school.entity.Student;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One transaction inserting 500 enrollments with their grades, by JDBC batch size and
+ * {@code app.id.allocation-size}. Batch size 1 with allocation size 1 is what IDENTITY ids
+ * amounted to: one insert and one id round trip per row. The statements executed per transaction
+ * (a JDBC batch counts once) are printed at the end of each trial. The timings only mean something
+ * against MySQL ({@code -Dbenchmark.url=...}), as in-memory H2 has no round trips to save.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IdBatchInsertBenchmark {
+
+    private static final int ROWS = 500;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    @Param({"1", "50"})
+    public int allocationSize;
+
+    private BenchmarkDatabase database;
+    private TransactionTemplate writes;
+    private Long seedTermId;
+    private List<Long> studentIds;
+    private List<Long> courseIds;
+    private int terms;
+    private long roundTrips;
+    private long transactions;
+
+    @Setup
+    public void setUp() {
+        database = new BenchmarkDatabase(Map.of(
+                "hibernate.jdbc.batch_size", batchSize,
+                "hibernate.order_inserts", true,
+                PooledIdGenerator.ALLOCATION_SIZE, allocationSize));
+        BenchmarkDatabase.Seed seed = database.seed(ROWS, 20, 0);
+        seedTermId = seed.termId();
+        studentIds = seed.studentIds();
+        courseIds = seed.courseIds();
+        writes = database.transaction(false);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteInserted() {
+        writes.executeWithoutResult(status -> {
+            EntityManager entityManager = database.entityManager();
+            entityManager.createQuery("DELETE FROM Grade").executeUpdate();
+            entityManager.createQuery("DELETE FROM Enrollment").executeUpdate();
+            entityManager.createQuery("DELETE FROM AcademicTerm t WHERE t.id <> :seedTermId")
+                    .setParameter("seedTermId", seedTermId)
+                    .executeUpdate();
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("batch_size=%d, allocation-size=%d: %.1f round trips per transaction%n",
+                batchSize, allocationSize, (double) roundTrips / Math.max(1, transactions));
+        database.close();
+    }
+
+    // A new term per transaction keeps (student, course, term) unique
+    @Benchmark
+    public void insertEnrollmentsWithGrades() {
+        long before = database.roundTrips();
+        writes.executeWithoutResult(status -> {
+            EntityManager entityManager = database.entityManager();
+            AcademicTerm term = database.newTerm("BENCH-" + terms++);
+            for (int i = 0; i < ROWS; i++) {
+                Enrollment enrollment = BenchmarkDatabase.newEnrollment(
+                        entityManager.getReference(Student.class, studentIds.get(i)),
+                        entityManager.getReference(Course.class, courseIds.get(i % courseIds.size())), term);
+                enrollment.setGrade(BenchmarkDatabase.newGrade("A"));
+                entityManager.persist(enrollment);
+            }
+        });
+        roundTrips += database.roundTrips() - before;
+        transactions++;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.school.benchmark;
+
+import com.example.school.config.ModelMapperConfig;
+import com.example.school.dto.GradeResponseDTO;
+import com.example.school.dto.StudentDTO;
+import com.example.school.entity.Grade;
+import com.example.school.repository.GradeRepository;
+import com.example.school.repository.StudentRepository;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A page of the student and grade listings read the old way (managed entities mapped with
+ * ModelMapper, as the controllers did) and the new way (JPQL constructor projections). Run with
+ * {@code -prof gc} to see the allocation per page next to the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProjectionReadBenchmark {
+
+    @Param({"20", "200"})
+    public int pageSize;
+
+    private BenchmarkDatabase database;
+    private TransactionTemplate readOnly;
+    private StudentRepository studentRepository;
+    private GradeRepository gradeRepository;
+    private ModelMapper modelMapper;
+    private Pageable page;
+
+    @Setup
+    public void setUp() {
+        database = new BenchmarkDatabase(Map.of());
+        database.seed(2_000, 100, 5);
+        readOnly = database.transaction(true);
+        studentRepository = database.repository(StudentRepository.class);
+        gradeRepository = database.repository(GradeRepository.class);
+        modelMapper = new ModelMapperConfig().modelMapper();
+        page = PageRequest.of(1, pageSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<StudentDTO> studentsMappedFromEntities() {
+        return readOnly.execute(status -> studentRepository.findAll(page).stream()
+                .map(student -> modelMapper.map(student, StudentDTO.class))
+                .toList());
+    }
+
+    @Benchmark
+    public List<StudentDTO> studentsProjected() {
+        return readOnly.execute(status -> studentRepository.findAllStudentDTOs(page).getContent());
+    }
+
+    @Benchmark
+    public List<GradeResponseDTO> gradesMappedFromEntities() {
+        return readOnly.execute(status -> gradeRepository.findAllWithEnrollmentDetails(page).stream()
+                .map(this::convertToDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<GradeResponseDTO> gradesProjected() {
+        return readOnly.execute(status -> gradeRepository.findAllGradeDTOs(page).getContent());
+    }
+
+    // What GradeController.convertToDto did before the listings moved to projections
+    private GradeResponseDTO convertToDto(Grade grade) {
+        GradeResponseDTO dto = modelMapper.map(grade, GradeResponseDTO.class);
+        dto.setEnrollmentId(grade.getEnrollment().getId());
+        dto.setEnrollmentStatus(grade.getEnrollment().getStatus());
+        dto.setStudentId(grade.getEnrollment().getStudent().getId());
+        dto.setStudentName(grade.getEnrollment().getStudent().getFullName());
+        dto.setCourseId(grade.getEnrollment().getCourse().getId());
+        dto.setCourseTitle(grade.getEnrollment().getCourse().getTitle());
+        return dto;
+    }
+}
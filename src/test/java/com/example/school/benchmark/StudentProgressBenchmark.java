@@ -0,0 +1,100 @@
+package com.example.school.benchmark;
+
+import com.example.school.cache.StudentProgressCache;
+import com.example.school.config.ModelMapperConfig;
+import com.example.school.datasource.PrimaryReads;
+import com.example.school.dto.BatchResultDTO;
+import com.example.school.dto.StudentProgressDTO;
+import com.example.school.repository.EnrollmentRepository;
+import com.example.school.repository.GradeRepository;
+import com.example.school.repository.StudentRepository;
+import com.example.school.service.impl.StudentServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Student progress through StudentProgressCache: a single student served from the cache and
+ * loaded on a miss, and a batch of students loaded cold (two queries per chunk) and served warm.
+ * The cold variants include invalidating the students, a few microseconds next to the queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StudentProgressBenchmark {
+
+    @Param({"100"})
+    public int batchSize;
+
+    private BenchmarkDatabase database;
+    private TransactionTemplate readOnly;
+    private StudentProgressCache cache;
+    private StudentServiceImpl studentService;
+    private List<Long> studentIds;
+    private List<Long> batch;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        database = new BenchmarkDatabase(Map.of());
+        studentIds = database.seed(2_000, 100, 5).studentIds();
+        batch = studentIds.subList(0, batchSize);
+        readOnly = database.transaction(true);
+        cache = new StudentProgressCache(database.repository(EnrollmentRepository.class), new SimpleMeterRegistry(),
+                50_000_000, Duration.ofMinutes(30));
+        // Without Spring there is no transaction proxy; the benchmarks open the transactions themselves
+        studentService = new StudentServiceImpl(database.repository(StudentRepository.class),
+                database.repository(GradeRepository.class), cache, new PrimaryReads(database.transactionManager()),
+                null, database.transactionManager(), new ModelMapperConfig().modelMapper(), event -> { });
+        ReflectionTestUtils.setField(studentService, "batchChunkSize", 1000);
+        readOnly.executeWithoutResult(status -> studentService.getStudentProgressByIds(studentIds));
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public StudentProgressDTO progressHit() {
+        return studentService.getStudentProgress(batch.get(0));
+    }
+
+    @Benchmark
+    public StudentProgressDTO progressMiss() {
+        Long studentId = studentIds.get(next++ % studentIds.size());
+        cache.invalidate(studentId);
+        return readOnly.execute(status -> studentService.getStudentProgress(studentId));
+    }
+
+    @Benchmark
+    public Map<Long, BatchResultDTO<StudentProgressDTO>> bulkCold() {
+        batch.forEach(cache::invalidate);
+        return readOnly.execute(status -> studentService.getStudentProgressByIds(batch));
+    }
+
+    @Benchmark
+    public Map<Long, BatchResultDTO<StudentProgressDTO>> bulkWarm() {
+        return studentService.getStudentProgressByIds(batch);
+    }
+}
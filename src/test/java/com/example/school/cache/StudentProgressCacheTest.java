@@ -0,0 +1,64 @@
+package com.example.school.cache;
+
+import com.example.school.dto.StudentProgressDTO;
+import com.example.school.event.GradeChangedEvent;
+import com.example.school.event.StudentChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentProgressCacheTest {
+
+    private final StudentProgressCache cache = new StudentProgressCache(null, new SimpleMeterRegistry(),
+            1_000_000, Duration.ofMinutes(1));
+
+    @Test
+    void storesProgressWhenNothingChanged() {
+        long version = cache.version(1L);
+        StudentProgressDTO progress = progress("Ada Lovelace");
+
+        cache.putIfUnchanged(1L, progress, version);
+
+        assertThat(cache.getAllPresent(List.of(1L))).containsEntry(1L, progress);
+    }
+
+    @Test
+    void dropsProgressReadBeforeAnInvalidation() {
+        long version = cache.version(1L);
+        cache.onGradeChanged(new GradeChangedEvent(1L, 10L));
+
+        cache.putIfUnchanged(1L, progress("Ada Lovelace"), version);
+
+        assertThat(cache.getAllPresent(List.of(1L))).isEmpty();
+    }
+
+    @Test
+    void keepsProgressCachedMeanwhile() {
+        long version = cache.version(1L);
+        StudentProgressDTO fresher = progress("Ada King");
+        cache.putIfUnchanged(1L, fresher, cache.version(1L));
+
+        cache.putIfUnchanged(1L, progress("Ada Lovelace"), version);
+
+        assertThat(cache.getAllPresent(List.of(1L))).containsEntry(1L, fresher);
+    }
+
+    @Test
+    void otherStudentsStayCacheable() {
+        long version = cache.version(2L);
+        cache.onStudentChanged(new StudentChangedEvent(1L));
+        StudentProgressDTO progress = progress("Grace Hopper");
+
+        cache.putIfUnchanged(2L, progress, version);
+
+        assertThat(cache.getAllPresent(List.of(2L))).containsEntry(2L, progress);
+    }
+
+    private static StudentProgressDTO progress(String studentName) {
+        return new StudentProgressDTO(studentName, 3.0, List.of());
+    }
+}
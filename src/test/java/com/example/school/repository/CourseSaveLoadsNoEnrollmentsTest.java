@@ -0,0 +1,137 @@
+package com.example.school.repository;
+
+import com.example.school.entity.AcademicTerm;
+import com.example.school.entity.Course;
+import com.example.school.entity.Enrollment;
+import com.example.school.entity.Student;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.metamodel.Attribute;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Courses and students have no enrollment collections, so taking a seat or editing a student
+ * saves the one row without touching their enrollments, however many there are.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class CourseSaveLoadsNoEnrollmentsTest {
+
+    private static final int ENROLLMENTS = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private Statistics statistics;
+    private PersistenceUnitUtil persistenceUnitUtil;
+    private Long courseId;
+    private Long studentId;
+
+    @BeforeEach
+    void seed() {
+        AcademicTerm term = new AcademicTerm();
+        term.setCode("2024-FALL");
+        term.setName("Fall 2024");
+        term.setStartDate(LocalDate.of(2024, 9, 2));
+        term.setEndDate(LocalDate.of(2024, 12, 20));
+        entityManager.persist(term);
+
+        Course course = new Course();
+        course.setCode("MATH201");
+        course.setTitle("Linear Algebra");
+        course.setCapacity(ENROLLMENTS + 1);
+        course.setEnrolledStudents(ENROLLMENTS);
+        entityManager.persist(course);
+        courseId = course.getId();
+
+        Course other = new Course();
+        other.setCode("MATH101");
+        other.setTitle("Calculus");
+        entityManager.persist(other);
+
+        for (int i = 0; i < ENROLLMENTS; i++) {
+            Student student = new Student();
+            student.setFirstName("First" + i);
+            student.setLastName("Last" + i);
+            student.setEmail("student" + i + "@example.com");
+            entityManager.persist(student);
+            studentId = student.getId();
+            enroll(student, course, term);
+            enroll(student, other, term);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        persistenceUnitUtil = entityManager.getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil();
+    }
+
+    @Test
+    void takingASeatLoadsNoEnrollments() {
+        Course course = courseRepository.findByIdForSeatUpdate(courseId).orElseThrow();
+        course.incrementEnrolledStudents();
+        courseRepository.save(course);
+        entityManager.flush();
+
+        assertThat(course.getEnrolledStudents()).isEqualTo(ENROLLMENTS + 1);
+        assertNoEnrollmentsLoaded();
+        assertThat(persistenceUnitUtil.isLoaded(course, "prerequisites")).isFalse();
+        // The locked read and the update
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void savingAStudentLoadsNoEnrollments() {
+        Student student = studentRepository.findById(studentId).orElseThrow();
+        student.setPhoneNumber("555-0100");
+        studentRepository.save(student);
+        entityManager.flush();
+
+        assertNoEnrollmentsLoaded();
+    }
+
+    @Test
+    void neitherSideMapsItsEnrollments() {
+        var metamodel = entityManager.getEntityManager().getMetamodel();
+
+        assertThat(metamodel.entity(Course.class).getAttributes()).extracting(Attribute::getName)
+                .doesNotContain("enrollments");
+        assertThat(metamodel.entity(Student.class).getAttributes()).extracting(Attribute::getName)
+                .doesNotContain("enrollments");
+    }
+
+    private void assertNoEnrollmentsLoaded() {
+        assertThat(statistics.getEntityStatistics(Enrollment.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getEntityStatistics(Enrollment.class.getName()).getFetchCount()).isZero();
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    private void enroll(Student student, Course course, AcademicTerm term) {
+        Enrollment enrollment = new Enrollment();
+        enrollment.setStudent(student);
+        enrollment.setCourse(course);
+        enrollment.setTerm(term);
+        enrollment.setEnrollmentDate(LocalDate.of(2024, 9, 2));
+        entityManager.persist(enrollment);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.school.repository;
+
+import com.example.school.entity.AcademicTerm;
+import com.example.school.entity.Course;
+import com.example.school.entity.Enrollment;
+import com.example.school.entity.Grade;
+import com.example.school.entity.Student;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements issued by the grade listings and the transcript/GPA reads. Each must stay at a fixed
+ * number of statements however many grades it returns; a lazy enrollment, student or course load
+ * creeping back in shows up here as N+1.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class GradeRepositoryStatementCountTest {
+
+    private static final int STUDENTS = 4;
+    private static final int COURSES = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private Statistics statistics;
+    private final List<Long> studentIds = new ArrayList<>();
+    private final List<Long> courseIds = new ArrayList<>();
+    private Long gradeId;
+
+    @BeforeEach
+    void seed() {
+        AcademicTerm term = new AcademicTerm();
+        term.setCode("2024-SPRING");
+        term.setName("Spring 2024");
+        term.setStartDate(LocalDate.of(2024, 1, 8));
+        term.setEndDate(LocalDate.of(2024, 5, 31));
+        entityManager.persist(term);
+
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            Course course = new Course();
+            course.setCode("CS10" + i);
+            course.setTitle("Course " + i);
+            entityManager.persist(course);
+            courses.add(course);
+            courseIds.add(course.getId());
+        }
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student();
+            student.setFirstName("First" + i);
+            student.setLastName("Last" + i);
+            student.setEmail("student" + i + "@example.com");
+            entityManager.persist(student);
+            studentIds.add(student.getId());
+            for (Course course : courses) {
+                Enrollment enrollment = new Enrollment();
+                enrollment.setStudent(student);
+                enrollment.setCourse(course);
+                enrollment.setTerm(term);
+                enrollment.setEnrollmentDate(LocalDate.of(2024, 1, 8));
+                enrollment.setStatus(Enrollment.EnrollmentStatus.COMPLETED);
+                Grade grade = new Grade();
+                grade.setGradeValue("B+");
+                grade.setCourseCompleted(true);
+                grade.setGradedDate(LocalDate.of(2024, 5, 31));
+                enrollment.setGrade(grade);
+                entityManager.persist(enrollment);
+                gradeId = grade.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void gradesOfStudentTakeOneStatement() {
+        List<Grade> grades = gradeRepository.findByStudentId(studentIds.get(0));
+
+        grades.forEach(GradeRepositoryStatementCountTest::render);
+        assertThat(grades).hasSize(COURSES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void gradesOfCourseTakeOneStatement() {
+        List<Grade> grades = gradeRepository.findByCourseId(courseIds.get(0));
+
+        grades.forEach(GradeRepositoryStatementCountTest::render);
+        assertThat(grades).hasSize(STUDENTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void gradeDetailTakesOneStatement() {
+        Grade grade = gradeRepository.findByIdWithEnrollmentDetails(gradeId).orElseThrow();
+
+        render(grade);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void pageOfGradesTakesPageAndCountStatements() {
+        Page<Grade> page = gradeRepository.findAllWithEnrollmentDetails(PageRequest.of(0, 5));
+
+        page.forEach(GradeRepositoryStatementCountTest::render);
+        assertThat(page.getTotalElements()).isEqualTo(STUDENTS * COURSES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void gradeProjectionsTakeOneStatement() {
+        assertThat(gradeRepository.findGradeDTOsByStudentId(studentIds.get(0))).hasSize(COURSES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void gpaTakesOneStatement() {
+        assertThat(gradeRepository.findCompletedGradeValuesByStudentId(studentIds.get(0))).hasSize(COURSES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // StudentServiceImpl.loadStudentProgress: the student, then their course grades
+    @Test
+    void transcriptTakesTwoStatements() {
+        assertThat(studentRepository.findStudentDTOById(studentIds.get(0))).isPresent();
+        assertThat(gradeRepository.findCourseGradeRowsByStudentIds(List.of(studentIds.get(0)))).hasSize(COURSES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    // StudentServiceImpl.getStudentProgressByIds: the same two statements for any number of students
+    @Test
+    void bulkTranscriptsTakeTwoStatements() {
+        assertThat(gradeRepository.findCourseGradeRowsByStudentIds(studentIds)).hasSize(STUDENTS * COURSES);
+        assertThat(studentRepository.findStudentDTOsByIds(studentIds)).hasSize(STUDENTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    // What the controllers read from each grade
+    private static void render(Grade grade) {
+        Enrollment enrollment = grade.getEnrollment();
+        assertThat(enrollment.getStatus()).isNotNull();
+        assertThat(enrollment.getStudent().getFullName()).isNotBlank();
+        assertThat(enrollment.getCourse().getTitle()).isNotBlank();
+    }
+}
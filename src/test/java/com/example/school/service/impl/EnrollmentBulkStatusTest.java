@@ -0,0 +1,152 @@
+package com.example.school.service.impl;
+
+import com.example.school.config.ModelMapperConfig;
+import com.example.school.dto.BulkStatusResultDTO;
+import com.example.school.entity.AcademicTerm;
+import com.example.school.entity.Course;
+import com.example.school.entity.Enrollment;
+import com.example.school.entity.Student;
+import com.example.school.event.EnrollmentsBulkChangedEvent;
+import com.example.school.repository.CourseRepository;
+import com.example.school.repository.EnrollmentRepository;
+import com.example.school.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk status changes count the seats they release from the active enrollments they lock and
+ * change, one chunk at a time, so courses end up with exactly the seats still held.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class EnrollmentBulkStatusTest {
+
+    private static final int STUDENTS = 5;
+    private static final int COURSES = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private EnrollmentServiceImpl enrollmentService;
+    private final List<EnrollmentsBulkChangedEvent> events = new ArrayList<>();
+    private final List<Long> studentIds = new ArrayList<>();
+    private final List<Long> courseIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        AcademicTerm term = new AcademicTerm();
+        term.setCode("2024-FALL");
+        term.setName("Fall 2024");
+        term.setStartDate(LocalDate.of(2024, 9, 2));
+        term.setEndDate(LocalDate.of(2024, 12, 20));
+        entityManager.persist(term);
+
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            Course course = new Course();
+            course.setCode("CS20" + i);
+            course.setTitle("Course " + i);
+            course.setCapacity(STUDENTS);
+            course.setEnrolledStudents(STUDENTS);
+            entityManager.persist(course);
+            courses.add(course);
+            courseIds.add(course.getId());
+        }
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student();
+            student.setFirstName("First" + i);
+            student.setLastName("Last" + i);
+            student.setEmail("student" + i + "@example.com");
+            entityManager.persist(student);
+            studentIds.add(student.getId());
+            for (Course course : courses) {
+                Enrollment enrollment = new Enrollment();
+                enrollment.setStudent(student);
+                enrollment.setCourse(course);
+                enrollment.setTerm(term);
+                enrollment.setEnrollmentDate(LocalDate.of(2024, 9, 2));
+                entityManager.persist(enrollment);
+            }
+        }
+        // The first student already finished the first course; it holds no seat
+        Course first = courses.get(0);
+        first.setEnrolledStudents(STUDENTS - 1);
+        enrollmentRepository.findByStudentIdAndCourseId(term.getId(), studentIds.get(0), first.getId())
+                .orElseThrow().setStatus(Enrollment.EnrollmentStatus.COMPLETED);
+        entityManager.flush();
+        entityManager.clear();
+
+        enrollmentService = new EnrollmentServiceImpl(enrollmentRepository, studentRepository, courseRepository,
+                null, new ModelMapperConfig().modelMapper(), event -> events.add((EnrollmentsBulkChangedEvent) event));
+        ReflectionTestUtils.setField(enrollmentService, "batchChunkSize", 2);
+    }
+
+    @Test
+    void withdrawingStudentsReleasesTheSeatsOfTheirActiveEnrollments() {
+        BulkStatusResultDTO result = enrollmentService.withdrawStudents(studentIds.subList(0, 3), "Moved away");
+        entityManager.clear();
+
+        assertThat(result.getEnrollmentsUpdated()).isEqualTo(3 * COURSES - 1);
+        assertThat(result.getSeatsReleased()).isEqualTo(3 * COURSES - 1);
+        assertThat(result.getCoursesUpdated()).isEqualTo(COURSES);
+        assertThat(enrolledStudents()).containsExactly(STUDENTS - 3, STUDENTS - 3, STUDENTS - 3);
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.studentIds()).containsExactlyElementsOf(studentIds.subList(0, 3));
+            assertThat(event.seatDeltas()).isEqualTo(Map.of(
+                    courseIds.get(0), -2, courseIds.get(1), -3, courseIds.get(2), -3));
+        });
+        assertThat(enrollmentRepository.findByStudentId(studentIds.get(0))).extracting(Enrollment::getStatus)
+                .containsExactlyInAnyOrder(Enrollment.EnrollmentStatus.COMPLETED,
+                        Enrollment.EnrollmentStatus.WITHDRAWN, Enrollment.EnrollmentStatus.WITHDRAWN);
+    }
+
+    @Test
+    void closingCoursesReleasesEverySeatTheyHeld() {
+        BulkStatusResultDTO result = enrollmentService.updateActiveEnrollmentStatus(courseIds,
+                Enrollment.EnrollmentStatus.COMPLETED, null);
+        entityManager.clear();
+
+        assertThat(result.getEnrollmentsUpdated()).isEqualTo(STUDENTS * COURSES - 1);
+        assertThat(result.getSeatsReleased()).isEqualTo(STUDENTS * COURSES - 1);
+        assertThat(enrolledStudents()).containsExactly(0, 0, 0);
+        assertThat(events).singleElement().satisfies(event ->
+                assertThat(event.studentIds()).containsExactlyInAnyOrderElementsOf(studentIds));
+    }
+
+    @Test
+    void aSecondCallFindsNothingLeftToChange() {
+        enrollmentService.withdrawStudents(studentIds, "Programme closed");
+        BulkStatusResultDTO result = enrollmentService.withdrawStudents(studentIds, "Programme closed");
+
+        assertThat(result.getEnrollmentsUpdated()).isZero();
+        assertThat(result.getSeatsReleased()).isZero();
+        assertThat(events).hasSize(1);
+    }
+
+    private List<Integer> enrolledStudents() {
+        return courseIds.stream()
+                .map(courseId -> courseRepository.findById(courseId).orElseThrow().getEnrolledStudents())
+                .toList();
+    }
+}
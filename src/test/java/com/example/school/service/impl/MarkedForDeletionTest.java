@@ -0,0 +1,118 @@
+package com.example.school.service.impl;
+
+import com.example.school.config.ModelMapperConfig;
+import com.example.school.dto.EnrollmentDTO;
+import com.example.school.entity.Course;
+import com.example.school.entity.Student;
+import com.example.school.exception.ResourceNotFoundException;
+import com.example.school.repository.CourseRepository;
+import com.example.school.repository.EnrollmentRepository;
+import com.example.school.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Deleting marks the student or course before purging its enrollments. The mark is only written
+ * by markDeleted, survives saving the entity, and enrolling refuses a marked student or course.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class MarkedForDeletionTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private EnrollmentServiceImpl enrollmentService;
+    private Long studentId;
+    private Long courseId;
+
+    @BeforeEach
+    void seed() {
+        Student student = new Student();
+        student.setFirstName("Ada");
+        student.setLastName("Lovelace");
+        student.setEmail("ada@example.com");
+        entityManager.persist(student);
+        studentId = student.getId();
+
+        Course course = new Course();
+        course.setCode("CS301");
+        course.setTitle("Algorithms");
+        entityManager.persist(course);
+        courseId = course.getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        enrollmentService = new EnrollmentServiceImpl(enrollmentRepository, studentRepository, courseRepository,
+                null, new ModelMapperConfig().modelMapper(), event -> { });
+    }
+
+    @Test
+    void savingAMarkedStudentKeepsTheMark() {
+        assertThat(studentRepository.markDeleted(studentId, LocalDateTime.now())).isEqualTo(1);
+        entityManager.clear();
+
+        Student student = studentRepository.findById(studentId).orElseThrow();
+        student.setPhoneNumber("555-0100");
+        studentRepository.save(student);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(studentRepository.findById(studentId).orElseThrow().isDeleted()).isTrue();
+    }
+
+    @Test
+    void markingTwiceKeepsTheFirstTime() {
+        LocalDateTime first = LocalDateTime.of(2024, 9, 2, 8, 0);
+        courseRepository.markDeleted(courseId, first);
+        courseRepository.markDeleted(courseId, first.plusHours(1));
+        entityManager.clear();
+
+        assertThat(courseRepository.findById(courseId).orElseThrow().getDeletedAt()).isEqualTo(first);
+    }
+
+    @Test
+    void enrollingRefusesAMarkedStudent() {
+        studentRepository.markDeleted(studentId, LocalDateTime.now());
+        entityManager.clear();
+
+        assertThatThrownBy(() -> enrollmentService.enrollStudent(enrollment()))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Student not found");
+    }
+
+    @Test
+    void enrollingRefusesAMarkedCourse() {
+        courseRepository.markDeleted(courseId, LocalDateTime.now());
+        entityManager.clear();
+
+        assertThatThrownBy(() -> enrollmentService.enrollStudent(enrollment()))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Course not found");
+    }
+
+    private EnrollmentDTO enrollment() {
+        EnrollmentDTO enrollment = new EnrollmentDTO();
+        enrollment.setStudentId(studentId);
+        enrollment.setCourseId(courseId);
+        return enrollment;
+    }
+}